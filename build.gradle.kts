@@ -29,5 +29,26 @@ dependencies {
 }
 
 tasks.test {
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+// Benchmarks are JUnit tests tagged "benchmark"; they print their results and
+// are kept out of the regular test run. Run with: ./gradlew benchmark
+// Properties starting with "soak." are passed through, e.g. -Dsoak.threads=8 -Dsoak.seconds=600
+val benchmark by tasks.registering(Test::class) {
+    description = "Runs the benchmarks tagged 'benchmark'."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    testLogging {
+        showStandardStreams = true
+    }
+    systemProperties(System.getProperties().filterKeys { it.toString().startsWith("soak.") }
+        .mapKeys { it.key.toString() })
+    outputs.upToDateWhen { false }
 }
\ No newline at end of file
@@ -0,0 +1,234 @@
+package com.zanete.jobtitlenormaliser;
+
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Incremental normalisation of text as it is typed, for autocomplete.
+ *
+ * <p>Each call to {@link #update(String)} passes the whole text of the search box. The text is
+ * split at its last separator into the completed words before it and the partial word after
+ * it. The session keeps the completed words' tokens and, per title, their summed fuzzy scores
+ * and cosine shares, so a keystroke within the partial word only looks up that word: it is
+ * matched as a prefix of the catalog's tokens, and titles holding a completion score it as if
+ * it had been typed in full. Completing a word scores only the new word against the titles;
+ * editing an earlier word starts over.</p>
+ *
+ * <p>Suggestions are scored as the normaliser's {@link FuzzyTokenMatcher} and
+ * {@link CosineSimilarityMatcher} would score the completed words plus the completion, with
+ * their weights scaled to sum to 1.0; other matchers are not consulted per keystroke. Once the
+ * text ends in a separator, suggestions score as {@link Normaliser#normaliseTopK(String, int)}
+ * with those matchers would, up to floating-point rounding. A partial word with no completion
+ * is left out until it is completed, when it is scored with Jaro-Winkler like any other word.
+ * Up to {@code maxSuggestions} titles meeting the normaliser's threshold are returned, best
+ * first, ties in catalog order.</p>
+ *
+ * <p>Scoring a completed word's fuzzy similarity against every title is the expensive step.
+ * It runs in slices within a per-keystroke time budget: if the budget runs out, titles holding
+ * the word exactly are already credited, the rest of the sweep resumes on the next update, and
+ * {@link #isComplete()} returns false until it has finished.</p>
+ *
+ * <p>A session holds three arrays of catalog size and belongs to one user; it is not
+ * thread-safe.</p>
+ */
+public class AutocompleteSession {
+
+  // Titles scored between checks of the budget
+  private static final int SWEEP_SLICE = 256;
+
+  private final Normaliser normaliser;
+  private final CompiledCatalog catalog;
+  private final int maxSuggestions;
+  private final long budgetNanos;
+  private final double fuzzyWeight;
+  private final double cosineWeight;
+  // Per title: summed best fuzzy scores and cosine shares of the completed words, and the
+  // cosine share of the partial word's completion
+  private final double[] headFuzzy;
+  private final double[] headCosine;
+  private final double[] partialCosine;
+  private final double[] scores = new double[2];
+  private final List<String> headTokens = new ArrayList<>();
+  private String headText = "";
+  // Completed words whose fuzzy sweep has finished, and the next title of the current sweep
+  private int sweptTokens;
+  private int sweepPosition;
+
+  /**
+   * Starts a session on the normaliser's catalog, waiting for it to be compiled if it is still
+   * compiling in the background.
+   *
+   * @param normaliser the normaliser whose catalog, preprocessing and weights are used
+   * @param maxSuggestions maximum number of titles returned per update (at least 1)
+   * @param budget time per update for scoring completed words against the catalog
+   * @throws IllegalArgumentException if maxSuggestions is less than 1, the budget is negative,
+   *     or the normaliser has no fuzzy or cosine matcher with a positive weight
+   */
+  public AutocompleteSession(Normaliser normaliser, int maxSuggestions, Duration budget) {
+    if (maxSuggestions < 1) {
+      throw new IllegalArgumentException("maxSuggestions must be at least 1: " + maxSuggestions);
+    }
+    if (budget.isNegative()) {
+      throw new IllegalArgumentException("Budget must not be negative: " + budget);
+    }
+    double[] weights = normaliser.matcherWeights();
+    if (weights == null || weights[0] + weights[1] <= 0) {
+      throw new IllegalArgumentException("Autocomplete needs fuzzy or cosine matchers with positive weights");
+    }
+    this.normaliser = normaliser;
+    this.catalog = normaliser.compiledCatalog();
+    this.maxSuggestions = maxSuggestions;
+    this.budgetNanos = budget.toNanos();
+    this.fuzzyWeight = weights[0] / (weights[0] + weights[1]);
+    this.cosineWeight = weights[1] / (weights[0] + weights[1]);
+    this.headFuzzy = new double[catalog.size()];
+    this.headCosine = new double[catalog.size()];
+    this.partialCosine = new double[catalog.size()];
+  }
+
+  /**
+   * Returns suggestions for the current text of the search box.
+   *
+   * @param text everything typed so far
+   * @return up to {@code maxSuggestions} titles meeting the threshold, best first
+   */
+  public List<MatchedTitle> update(String text) {
+    long deadline = System.nanoTime() + budgetNanos;
+    String input = text == null ? "" : text;
+    int split = input.length();
+    while (split > 0 && !Preprocessor.isSeparator(input.charAt(split - 1))) {
+      split--;
+    }
+    String head = input.substring(0, split);
+    if (!head.equals(headText)) {
+      setHead(normaliser.preprocess(head));
+      headText = head;
+    }
+    sweep(deadline);
+
+    // A word without separators preprocesses to at most one token
+    List<String> tail = normaliser.preprocess(input.substring(split));
+    String partial = tail.isEmpty() || headTokens.contains(tail.get(0)) ? null : tail.get(0);
+    return suggest(partial);
+  }
+
+  /**
+   * Returns true if every completed word has been scored against every title, so suggestions
+   * are not missing fuzzy credit for a word still being swept.
+   */
+  public boolean isComplete() {
+    return sweptTokens == headTokens.size();
+  }
+
+  /**
+   * Returns the preprocessed tokens of the completed words.
+   */
+  public List<String> completedTokens() {
+    return List.copyOf(headTokens);
+  }
+
+  private void setHead(List<String> tokens) {
+    boolean appended = tokens.size() >= headTokens.size()
+        && tokens.subList(0, headTokens.size()).equals(headTokens);
+    if (!appended) {
+      Arrays.fill(headFuzzy, 0.0);
+      Arrays.fill(headCosine, 0.0);
+      headTokens.clear();
+      sweptTokens = 0;
+      sweepPosition = 0;
+    }
+    for (String token : tokens.subList(headTokens.size(), tokens.size())) {
+      headTokens.add(token);
+      // Titles holding the word exactly are credited at once; the sweep fills in the rest
+      int id = catalog.tokenId(token);
+      for (int i : catalog.titlesWith(id)) {
+        headFuzzy[i] += 1.0;
+        headCosine[i] += catalog.tokenShare(i, id);
+      }
+    }
+  }
+
+  private void sweep(long deadline) {
+    while (sweptTokens < headTokens.size()) {
+      CompiledCatalog.Query query = catalog.query(List.of(headTokens.get(sweptTokens)));
+      while (sweepPosition < catalog.size()) {
+        int end = Math.min(sweepPosition + SWEEP_SLICE, catalog.size());
+        for (int i = sweepPosition; i < end; i++) {
+          catalog.fuzzyAndCosine(query, i, scores);
+          if (scores[1] == 0.0) {
+            headFuzzy[i] += scores[0];
+          }
+        }
+        sweepPosition = end;
+        if (sweepPosition < catalog.size() && System.nanoTime() - deadline > 0) {
+          return;
+        }
+      }
+      sweptTokens++;
+      sweepPosition = 0;
+    }
+  }
+
+  private List<MatchedTitle> suggest(String partial) {
+    Arrays.fill(partialCosine, 0.0);
+    int tokenCount = headTokens.size();
+    if (partial != null) {
+      Set<Integer> headIds = new HashSet<>();
+      for (String token : headTokens) {
+        headIds.add(catalog.tokenId(token));
+      }
+      boolean completed = false;
+      for (int id : catalog.tokenIdsWithPrefix(partial)) {
+        if (headIds.contains(id)) {
+          continue;
+        }
+        completed = true;
+        for (int i : catalog.titlesWith(id)) {
+          partialCosine[i] = Math.max(partialCosine[i], catalog.tokenShare(i, id));
+        }
+      }
+      tokenCount += completed ? 1 : 0;
+    }
+    if (tokenCount == 0) {
+      return List.of();
+    }
+
+    // Every query token is distinct, so the query's norm is the square root of their number
+    double queryNorm = Math.sqrt(tokenCount);
+    int[] best = new int[maxSuggestions];
+    double[] bestScores = new double[maxSuggestions];
+    int found = 0;
+    for (int i = 0; i < headFuzzy.length; i++) {
+      double fuzzy = (headFuzzy[i] + (partialCosine[i] > 0.0 ? 1.0 : 0.0)) / tokenCount;
+      double cosine = (headCosine[i] + partialCosine[i]) / queryNorm;
+      double score = fuzzyWeight * fuzzy + cosineWeight * cosine;
+      if (score < Normaliser.TITLE_MATCH_SCORE_THRESHOLD
+          || (found == maxSuggestions && score <= bestScores[found - 1])) {
+        continue;
+      }
+      // Insertion into the few best so far; strictly better scores move ahead, so ties keep
+      // catalog order
+      int position = Math.min(found, maxSuggestions - 1);
+      while (position > 0 && bestScores[position - 1] < score) {
+        best[position] = best[position - 1];
+        bestScores[position] = bestScores[position - 1];
+        position--;
+      }
+      best[position] = i;
+      bestScores[position] = score;
+      found = Math.min(found + 1, maxSuggestions);
+    }
+    List<MatchedTitle> suggestions = new ArrayList<>(found);
+    for (int s = 0; s < found; s++) {
+      suggestions.add(new MatchedTitle(catalog.value(best[s]), bestScores[s]));
+    }
+    return suggestions;
+  }
+}
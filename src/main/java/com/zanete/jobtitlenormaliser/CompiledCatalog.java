@@ -0,0 +1,757 @@
+package com.zanete.jobtitlenormaliser;
+
+import com.zanete.jobtitlenormaliser.matcher.BoundedJaroWinkler;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.model.Title;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Preprocessed catalog laid out as flat primitive arrays (structure of arrays).
+ *
+ * <p>Every distinct catalog token gets an integer id. Title {@code i}'s distinct token ids are
+ * stored contiguously in one shared array, from {@code offsets[i]} to {@code offsets[i + 1]},
+ * with each token's frequency in a parallel array and the title's term-frequency vector norm
+ * precomputed. Scoring a query against title after title then walks a few small arrays
+ * sequentially instead of chasing list, string and map pointers for every title.</p>
+ *
+ * <p>{@link #cosine(Query, int)} computes exactly what {@link CosineSimilarityMatcher} computes
+ * from the token lists. Other matchers still need token lists, so the preprocessed
+ * {@link Title}s are kept alongside the arrays.</p>
+ *
+ * <p>{@link #fuzzyAndCosine(Query, int, double[])} computes the {@link FuzzyTokenMatcher} and
+ * cosine scores together in one pass over the query's tokens and the title's distinct tokens:
+ * the pairs of equal tokens that make up the cosine dot product are exactly the pairs where the
+ * fuzzy loop finds a perfect match.</p>
+ *
+ * <p>Titles are also grouped into size buckets by their number of distinct tokens, whether any
+ * token repeats, and the length range of their tokens. For a given query and matcher weights,
+ * {@link #reachableBuckets(Query, double, double, double, double)} bounds the best score any
+ * title of each bucket could reach:
+ * <ul>
+ *   <li>Cosine similarity is bounded by the share of tokens the two sides could have in common:
+ *   with {@code q} and {@code t} distinct tokens and no repeats it is at most
+ *   {@code min(q, t) / sqrt(q * t)}.</li>
+ *   <li>Jaro-Winkler similarity of two tokens is bounded by their length ratio {@code r}, as
+ *   Jaro is at most {@code (2 + r) / 3}, so the fuzzy score is bounded by the average of these
+ *   bounds over the query tokens.</li>
+ * </ul>
+ * Titles in buckets that cannot reach the threshold need not be scored at all.</p>
+ *
+ * <p>{@link #candidates(Query)} finds the titles sharing a token with a query through an
+ * inverted index of titles per token id, built the first time it is asked for. Every other
+ * title has a cosine similarity of zero with the query.</p>
+ *
+ * <p>For autocomplete, {@link #tokenIdsWithPrefix(String)} finds the catalog tokens starting
+ * with a partial token by binary search over the tokens in sorted order, also built on first
+ * use, and {@link #titlesWith(int)} and {@link #tokenShare(int, int)} give each token's titles
+ * and its share of their cosine similarity, so that scores can be built up token by token.</p>
+ *
+ * <p>Token ids come from a {@link TokenVocabulary}, which also supplies the canonical instance
+ * of every title token. Catalogs compiled against a shared vocabulary share their token
+ * strings.</p>
+ *
+ * <p>A {@linkplain #compact(List) compact} catalog instead keeps its distinct tokens and title
+ * texts packed one byte per character in {@link StringArena}s, with token ids local to the
+ * catalog and no {@code String}, {@code Title} or token list per title. The fused kernel reads
+ * title tokens straight from the arena; titles and token lists are decoded when asked for,
+ * which makes matchers scored from token lists slower.</p>
+ *
+ * <p>Immutable and thread-safe.</p>
+ */
+public final class CompiledCatalog {
+
+  private static final BoundedJaroWinkler jaroWinkler = new BoundedJaroWinkler();
+  // Token lengths from this one up share a bucket, with no upper bound
+  private static final int LENGTH_CAP = 16;
+  // Keeps rounding in the bound arithmetic from skipping a title scoring just at the threshold
+  private static final double BOUND_SLACK = 1e-9;
+  private static final double MAX_PREFIX_BOOST = 0.4;
+  private static final double BOOST_THRESHOLD = 0.7;
+  // A vocabulary map node and its entry object
+  private static final int VOCABULARY_ENTRY_BYTES = 32 + 24;
+
+  // Null in a compact catalog
+  private final List<Title> titles;
+  private final String[] values;
+  private final TokenVocabulary vocabulary;
+  // Null unless compact: title texts, distinct tokens by id, and each title's token ids in
+  // order, -1 for a null token
+  private final StringArena valueArena;
+  private final StringArena tokenArena;
+  private final int[] sequenceOffsets;
+  private final int[] sequence;
+  private final int vocabularySize;
+  private final int[] offsets;
+  private final int[] ids;
+  // Canonical string of each entry of ids; null in a compact catalog
+  private final String[] tokens;
+  private final int[] frequencies;
+  private final double[] norms;
+  private final int[] buckets;
+  // Indexed by bucket
+  private final int[] bucketTokenCounts;
+  private final boolean[] bucketRepeats;
+  private final int[] bucketMinLengths;
+  private final int[] bucketMaxLengths;
+  // Null until candidates() or titlesWith() is first called
+  private volatile Postings postings;
+  // Null until tokenIdsWithPrefix() is first called
+  private volatile SortedTokens sortedTokens;
+
+  /**
+   * Compiles preprocessed titles against a vocabulary of their own. Null and blank tokens are
+   * ignored, as the matchers ignore them.
+   */
+  public CompiledCatalog(List<Title> titles) {
+    this(titles, new TokenVocabulary());
+  }
+
+  /**
+   * Compiles preprocessed titles, taking token ids and canonical token strings from the given
+   * vocabulary. Null and blank tokens are ignored, as the matchers ignore them.
+   */
+  public CompiledCatalog(List<Title> titles, TokenVocabulary vocabulary) {
+    this(titles, vocabulary, false);
+  }
+
+  /**
+   * Compiles preprocessed titles into a compact catalog, with token ids of its own. Null and
+   * blank tokens are ignored, as the matchers ignore them.
+   */
+  public static CompiledCatalog compact(List<Title> titles) {
+    return new CompiledCatalog(titles, null, true);
+  }
+
+  private CompiledCatalog(List<Title> titles, TokenVocabulary vocabulary, boolean compact) {
+    this.vocabulary = vocabulary;
+    this.titles = compact ? null : titles.stream().map(title -> intern(title, vocabulary)).toList();
+    List<Title> source = compact ? titles : this.titles;
+    Map<String, Integer> localIds = compact ? new HashMap<>() : null;
+    ToIntFunction<String> idOf = compact
+        ? token -> localIds.computeIfAbsent(token, key -> localIds.size())
+        : vocabulary::id;
+    String[] titleValues = new String[titles.size()];
+    this.sequenceOffsets = compact ? new int[titles.size() + 1] : null;
+    int[] flatSequence = new int[compact ? 16 : 0];
+    this.offsets = new int[titles.size() + 1];
+    this.norms = new double[titles.size()];
+    this.buckets = new int[titles.size()];
+    Set<Integer> distinct = new HashSet<>();
+    Map<List<Integer>, Integer> bucketIds = new LinkedHashMap<>();
+    int[] flatIds = new int[16];
+    String[] flatTokens = new String[16];
+    int[] flatFrequencies = new int[16];
+    int size = 0;
+    for (int i = 0; i < titles.size(); i++) {
+      Title title = source.get(i);
+      titleValues[i] = title.value();
+      if (compact) {
+        int start = sequenceOffsets[i];
+        if (start + title.tokens().size() > flatSequence.length) {
+          flatSequence = Arrays.copyOf(flatSequence,
+              Math.max(flatSequence.length * 2, start + title.tokens().size()));
+        }
+        for (String token : title.tokens()) {
+          flatSequence[start++] = token == null ? -1 : idOf.applyAsInt(token);
+        }
+        sequenceOffsets[i + 1] = start;
+      }
+      Map<String, Integer> frequency = termFrequency(title.tokens());
+      if (size + frequency.size() > flatIds.length) {
+        int capacity = Math.max(flatIds.length * 2, size + frequency.size());
+        flatIds = Arrays.copyOf(flatIds, capacity);
+        flatTokens = Arrays.copyOf(flatTokens, capacity);
+        flatFrequencies = Arrays.copyOf(flatFrequencies, capacity);
+      }
+      double magnitudeSquared = 0.0;
+      boolean repeats = false;
+      int minLength = LENGTH_CAP;
+      int maxLength = 0;
+      for (Map.Entry<String, Integer> entry : frequency.entrySet()) {
+        flatIds[size] = idOf.applyAsInt(entry.getKey());
+        flatTokens[size] = entry.getKey();
+        distinct.add(flatIds[size]);
+        flatFrequencies[size++] = entry.getValue();
+        magnitudeSquared += entry.getValue() * entry.getValue();
+        repeats |= entry.getValue() > 1;
+        minLength = Math.min(minLength, entry.getKey().length());
+        maxLength = Math.max(maxLength, Math.min(entry.getKey().length(), LENGTH_CAP));
+      }
+      offsets[i + 1] = size;
+      norms[i] = Math.sqrt(magnitudeSquared);
+      List<Integer> bucketKey = List.of(frequency.size(), repeats ? 1 : 0, minLength, maxLength);
+      buckets[i] = bucketIds.computeIfAbsent(bucketKey, key -> bucketIds.size());
+    }
+    this.vocabularySize = distinct.size();
+    this.bucketTokenCounts = new int[bucketIds.size()];
+    this.bucketRepeats = new boolean[bucketIds.size()];
+    this.bucketMinLengths = new int[bucketIds.size()];
+    this.bucketMaxLengths = new int[bucketIds.size()];
+    bucketIds.forEach((key, bucket) -> {
+      bucketTokenCounts[bucket] = key.get(0);
+      bucketRepeats[bucket] = key.get(1) == 1;
+      bucketMinLengths[bucket] = key.get(2);
+      bucketMaxLengths[bucket] = key.get(3);
+    });
+    this.ids = Arrays.copyOf(flatIds, size);
+    this.frequencies = Arrays.copyOf(flatFrequencies, size);
+    if (compact) {
+      String[] byId = new String[localIds.size()];
+      localIds.forEach((token, id) -> byId[id] = token);
+      this.values = null;
+      this.tokens = null;
+      this.valueArena = new StringArena(Arrays.asList(titleValues), false);
+      this.tokenArena = new StringArena(Arrays.asList(byId), true);
+      this.sequence = Arrays.copyOf(flatSequence, sequenceOffsets[titles.size()]);
+    } else {
+      this.values = titleValues;
+      this.tokens = Arrays.copyOf(flatTokens, size);
+      this.valueArena = null;
+      this.tokenArena = null;
+      this.sequence = null;
+    }
+  }
+
+  /**
+   * Returns the number of titles.
+   */
+  public int size() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Returns true if the catalog keeps its tokens and titles in byte arenas.
+   */
+  public boolean isCompact() {
+    return tokenArena != null;
+  }
+
+  /**
+   * Returns the number of distinct tokens across all titles.
+   */
+  public int vocabularySize() {
+    return vocabularySize;
+  }
+
+  /**
+   * Returns the number of size buckets.
+   */
+  public int bucketCount() {
+    return bucketTokenCounts.length;
+  }
+
+  /**
+   * Returns the size bucket of title {@code i}.
+   */
+  public int bucket(int i) {
+    return buckets[i];
+  }
+
+  /**
+   * Returns, for each size bucket, whether any of its titles could score at least
+   * {@code threshold} against the query. Scores are bounded per matcher as described above;
+   * other matchers are assumed to score at most 1.0, as the {@code Matcher} contract requires.
+   *
+   * @param query the query
+   * @param fuzzyWeight total weight of matchers scoring as {@link FuzzyTokenMatcher}
+   * @param cosineWeight total weight of matchers scoring as {@link CosineSimilarityMatcher}
+   * @param otherWeight total weight of any other matchers
+   * @param threshold the score a title must reach
+   * @return reachability indexed by bucket; titles of unreachable buckets score below the
+   *     threshold
+   */
+  public boolean[] reachableBuckets(Query query, double fuzzyWeight, double cosineWeight,
+                                    double otherWeight, double threshold) {
+    boolean[] reachable = new boolean[bucketTokenCounts.length];
+    for (int b = 0; b < reachable.length; b++) {
+      double bound = fuzzyWeight * fuzzyBound(query, b) + cosineWeight * cosineBound(query, b)
+          + otherWeight;
+      reachable[b] = bound + BOUND_SLACK >= threshold;
+    }
+    return reachable;
+  }
+
+  /**
+   * Returns the vocabulary token ids are taken from, or null for a compact catalog.
+   */
+  public TokenVocabulary vocabulary() {
+    return vocabulary;
+  }
+
+  /**
+   * Returns the preprocessed titles, in catalog order. A compact catalog decodes them.
+   */
+  public List<Title> titles() {
+    if (titles != null) {
+      return titles;
+    }
+    return IntStream.range(0, size()).mapToObj(i -> new Title(value(i), tokens(i))).toList();
+  }
+
+  /**
+   * Returns the text of title {@code i}.
+   */
+  public String value(int i) {
+    return values != null ? values[i] : valueArena.get(i);
+  }
+
+  /**
+   * Returns the preprocessed tokens of title {@code i}. A compact catalog decodes them.
+   */
+  public List<String> tokens(int i) {
+    if (titles != null) {
+      return titles.get(i).tokens();
+    }
+    String[] decoded = new String[sequenceOffsets[i + 1] - sequenceOffsets[i]];
+    for (int t = 0; t < decoded.length; t++) {
+      int id = sequence[sequenceOffsets[i] + t];
+      decoded[t] = id < 0 ? null : tokenArena.get(id);
+    }
+    // Not List.of, which rejects null tokens
+    return Collections.unmodifiableList(Arrays.asList(decoded));
+  }
+
+  /**
+   * Returns the number of distinct valid tokens of title {@code i}.
+   */
+  public int length(int i) {
+    return offsets[i + 1] - offsets[i];
+  }
+
+  /**
+   * Resolves the query's tokens against the vocabulary, ready to be scored against titles.
+   */
+  public Query query(List<String> tokens) {
+    List<String> valid = Utils.filterValid(tokens);
+    int[] validIds = new int[valid.size()];
+    for (int t = 0; t < validIds.length; t++) {
+      validIds[t] = lookup(valid.get(t));
+    }
+    Map<String, Integer> frequency = termFrequency(valid);
+    int[] queryIds = new int[frequency.size()];
+    int[] queryFrequencies = new int[frequency.size()];
+    int known = 0;
+    boolean repeats = false;
+    double magnitudeSquared = 0.0;
+    for (Map.Entry<String, Integer> entry : frequency.entrySet()) {
+      magnitudeSquared += entry.getValue() * entry.getValue();
+      repeats |= entry.getValue() > 1;
+      // Tokens outside the vocabulary count towards the norm but can never overlap a title
+      int id = lookup(entry.getKey());
+      if (id >= 0) {
+        queryIds[known] = id;
+        queryFrequencies[known++] = entry.getValue();
+      }
+    }
+    return new Query(valid.toArray(String[]::new), validIds, frequency.size(), repeats,
+        Arrays.copyOf(queryIds, known), Arrays.copyOf(queryFrequencies, known),
+        frequency.isEmpty() ? 0.0 : Math.sqrt(magnitudeSquared),
+        tokenArena == null ? null : tokenArena.view());
+  }
+
+  /**
+   * Returns the cosine similarity of the query's and title {@code i}'s term-frequency vectors,
+   * identical to {@link CosineSimilarityMatcher#calculateScore(List, List)} on their tokens.
+   */
+  public double cosine(Query query, int i) {
+    int from = offsets[i];
+    int to = offsets[i + 1];
+    if (query.norm == 0.0 || from == to) {
+      return 0.0;
+    }
+    // Integer products and sums are exact, so the order of accumulation does not matter
+    double dotProduct = 0.0;
+    for (int t = from; t < to; t++) {
+      int id = ids[t];
+      for (int q = 0; q < query.ids.length; q++) {
+        if (query.ids[q] == id) {
+          dotProduct += query.frequencies[q] * frequencies[t];
+          break;
+        }
+      }
+    }
+    return dotProduct / (query.norm * norms[i]);
+  }
+
+  /**
+   * Returns the titles sharing at least one token with the query, in catalog order.
+   */
+  public int[] candidates(Query query) {
+    Postings index = postings();
+    BitSet found = new BitSet(size());
+    for (int id : query.ids) {
+      if (id < index.offsets.length - 1) {
+        for (int p = index.offsets[id]; p < index.offsets[id + 1]; p++) {
+          found.set(index.titles[p]);
+        }
+      }
+    }
+    return found.stream().toArray();
+  }
+
+  /**
+   * Returns the id of a catalog token, or -1 if no title of this catalog holds it. A shared
+   * vocabulary may know the token from another catalog; its id is not returned here.
+   */
+  public int tokenId(String token) {
+    int id = lookup(token);
+    Postings index = postings();
+    if (id < 0 || id >= index.offsets.length - 1 || index.offsets[id] == index.offsets[id + 1]) {
+      return -1;
+    }
+    return id;
+  }
+
+  /**
+   * Returns the ids of the catalog tokens starting with the prefix, in the tokens' sorted
+   * order.
+   */
+  public int[] tokenIdsWithPrefix(String prefix) {
+    SortedTokens sorted = sortedTokens();
+    int from = Arrays.binarySearch(sorted.tokens, prefix);
+    from = from < 0 ? -from - 1 : from;
+    int to = from;
+    while (to < sorted.tokens.length && sorted.tokens[to].startsWith(prefix)) {
+      to++;
+    }
+    return Arrays.copyOfRange(sorted.ids, from, to);
+  }
+
+  /**
+   * Returns the titles holding the token, in catalog order.
+   */
+  public int[] titlesWith(int tokenId) {
+    Postings index = postings();
+    if (tokenId < 0 || tokenId >= index.offsets.length - 1) {
+      return new int[0];
+    }
+    return Arrays.copyOfRange(index.titles, index.offsets[tokenId], index.offsets[tokenId + 1]);
+  }
+
+  /**
+   * Returns the token's frequency in title {@code i} divided by the title's norm: its share of
+   * the cosine similarity between the title and a query holding the token once, before dividing
+   * by the query's norm. Zero if the title does not hold the token.
+   */
+  public double tokenShare(int i, int tokenId) {
+    for (int t = offsets[i]; t < offsets[i + 1]; t++) {
+      if (ids[t] == tokenId) {
+        return frequencies[t] / norms[i];
+      }
+    }
+    return 0.0;
+  }
+
+  /**
+   * Returns true if title {@code i} has exactly the query's valid tokens, each as many times,
+   * in any order.
+   */
+  public boolean sameTokens(Query query, int i) {
+    int from = offsets[i];
+    int to = offsets[i + 1];
+    // A query token outside the vocabulary is in no title
+    if (to - from != query.distinct || query.ids.length != query.distinct) {
+      return false;
+    }
+    for (int t = from; t < to; t++) {
+      int q = 0;
+      while (q < query.ids.length && query.ids[q] != ids[t]) {
+        q++;
+      }
+      if (q == query.ids.length || query.frequencies[q] != frequencies[t]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Stores in {@code scores[0]} and {@code scores[1]} what
+   * {@link FuzzyTokenMatcher#calculateScore(List, List)} and
+   * {@link CosineSimilarityMatcher#calculateScore(List, List)} return for the query's and title
+   * {@code i}'s tokens, identically.
+   */
+  public void fuzzyAndCosine(Query query, int i, double[] scores) {
+    int from = offsets[i];
+    int to = offsets[i + 1];
+    if (query.tokens.length == 0 || from == to) {
+      scores[0] = 0.0;
+      scores[1] = 0.0;
+      return;
+    }
+    // Every occurrence of a query token meets each distinct title token once, so summing the
+    // title frequencies of equal pairs gives the same dot product as the term-frequency vectors
+    double fuzzy = 0.0;
+    double dotProduct = 0.0;
+    for (int q = 0; q < query.tokens.length; q++) {
+      String token = query.tokens[q];
+      int id = query.tokenIds[q];
+      double best = 0.0;
+      for (int t = from; t < to; t++) {
+        // Only equal tokens score 1.0, and a title's distinct tokens hold at most one of them
+        if (ids[t] == id) {
+          best = 1.0;
+          dotProduct += frequencies[t];
+          break;
+        }
+        CharSequence titleToken = tokens != null ? tokens[t] : tokenArena.get(ids[t], query.view);
+        best = Math.max(best, jaroWinkler.similarity(token, titleToken, best));
+      }
+      fuzzy += best;
+    }
+    scores[0] = fuzzy / query.tokens.length;
+    scores[1] = dotProduct / (query.norm * norms[i]);
+  }
+
+  private double fuzzyBound(Query query, int bucket) {
+    if (query.tokens.length == 0 || bucketTokenCounts[bucket] == 0) {
+      return 0.0;
+    }
+    int minLength = bucketMinLengths[bucket];
+    int maxLength = bucketMaxLengths[bucket];
+    double sum = 0.0;
+    for (String token : query.tokens) {
+      int length = token.length();
+      double ratio;
+      if (length < minLength) {
+        ratio = length / (double) minLength;
+      } else if (length > maxLength && maxLength < LENGTH_CAP) {
+        ratio = maxLength / (double) length;
+      } else {
+        ratio = 1.0;
+      }
+      // Jaro is at most (2 + r) / 3, and the Winkler boost grows with it
+      double jaro = (2.0 + ratio) / 3.0;
+      sum += jaro < BOOST_THRESHOLD ? jaro : jaro + MAX_PREFIX_BOOST * (1.0 - jaro);
+    }
+    return sum / query.tokens.length;
+  }
+
+  private double cosineBound(Query query, int bucket) {
+    int queryCount = query.distinct;
+    int titleCount = bucketTokenCounts[bucket];
+    if (queryCount == 0 || titleCount == 0) {
+      return 0.0;
+    }
+    double shared = Math.min(queryCount, titleCount);
+    // Without repeats on one side, Cauchy-Schwarz over the shared tokens bounds the dot product
+    if (!query.repeats && !bucketRepeats[bucket]) {
+      return shared / Math.sqrt((double) queryCount * titleCount);
+    } else if (!bucketRepeats[bucket]) {
+      return Math.sqrt(shared / titleCount);
+    } else if (!query.repeats) {
+      return Math.sqrt(shared / queryCount);
+    }
+    return 1.0;
+  }
+
+  /**
+   * Returns a rough estimate of the heap held by this catalog alone: its titles and index, and
+   * a compact catalog's tokens. A vocabulary's token strings are not counted, as the vocabulary
+   * may be shared.
+   */
+  long estimatedBytes() {
+    return titleBytes() + indexBytes() + (isCompact() ? tokenBytes() : 0);
+  }
+
+  /**
+   * Returns the estimated heap held by the titles: their texts with, per title, the
+   * {@link Title} and its token list, or the arena and token id sequences of a compact catalog.
+   */
+  long titleBytes() {
+    if (isCompact()) {
+      return valueArena.estimatedBytes() + HeapSize.array(sequenceOffsets.length, 4)
+          + HeapSize.array(sequence.length, 4);
+    }
+    long bytes = HeapSize.array(values.length, HeapSize.REFERENCE);
+    for (Title title : titles) {
+      int tokenCount = title.tokens().size();
+      // Title record, its text, and an unmodifiable wrapper around an exactly sized ArrayList
+      bytes += HeapSize.align(HeapSize.OBJECT_HEADER + 2L * HeapSize.REFERENCE)
+          + HeapSize.string(title.value()) + 16 + 24 + HeapSize.array(tokenCount, HeapSize.REFERENCE);
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the estimated heap held by the catalog's distinct tokens: their strings and
+   * vocabulary entries, or the indexed token arena of a compact catalog. A shared vocabulary's
+   * entries are counted in full, though other catalogs use them too.
+   */
+  long tokenBytes() {
+    if (isCompact()) {
+      return tokenArena.estimatedBytes();
+    }
+    long bytes = 0;
+    Set<Integer> counted = new HashSet<>();
+    for (int t = 0; t < ids.length; t++) {
+      if (counted.add(ids[t])) {
+        bytes += HeapSize.string(tokens[t]) + VOCABULARY_ENTRY_BYTES;
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the estimated heap held by the scoring arrays, size buckets and, once built, the
+   * inverted index.
+   */
+  long indexBytes() {
+    Postings index = postings;
+    long postingBytes = index == null ? 0 : HeapSize.align(HeapSize.OBJECT_HEADER + 2L * HeapSize.REFERENCE)
+        + HeapSize.array(index.offsets.length, 4) + HeapSize.array(index.titles.length, 4);
+    SortedTokens sorted = sortedTokens;
+    long sortedBytes = sorted == null ? 0 : HeapSize.align(HeapSize.OBJECT_HEADER + 2L * HeapSize.REFERENCE)
+        + HeapSize.array(sorted.tokens.length, HeapSize.REFERENCE) + HeapSize.array(sorted.ids.length, 4);
+    // A compact catalog decodes its tokens for sorting
+    if (sorted != null && isCompact()) {
+      for (String token : sorted.tokens) {
+        sortedBytes += HeapSize.string(token);
+      }
+    }
+    return postingBytes + sortedBytes + HeapSize.align(HeapSize.OBJECT_HEADER + 21L * HeapSize.REFERENCE)
+        + HeapSize.array(offsets.length, 4) + HeapSize.array(ids.length, 4)
+        + (tokens == null ? 0 : HeapSize.array(tokens.length, HeapSize.REFERENCE))
+        + HeapSize.array(frequencies.length, 4) + HeapSize.array(norms.length, 8)
+        + HeapSize.array(buckets.length, 4) + 3 * HeapSize.array(bucketTokenCounts.length, 4)
+        + HeapSize.array(bucketRepeats.length, 1);
+  }
+
+  private Postings postings() {
+    Postings index = postings;
+    if (index == null) {
+      // Concurrent first calls may each build the index; any of the equal results will do
+      index = new Postings(size(), offsets, ids);
+      postings = index;
+    }
+    return index;
+  }
+
+  private SortedTokens sortedTokens() {
+    SortedTokens sorted = sortedTokens;
+    if (sorted == null) {
+      // As with postings, concurrent first calls may each sort the tokens
+      Map<Integer, String> byId = new HashMap<>();
+      for (int t = 0; t < ids.length; t++) {
+        if (!byId.containsKey(ids[t])) {
+          byId.put(ids[t], tokens != null ? tokens[t] : tokenArena.get(ids[t]));
+        }
+      }
+      sorted = new SortedTokens(byId);
+      sortedTokens = sorted;
+    }
+    return sorted;
+  }
+
+  private int lookup(String token) {
+    return tokenArena != null ? tokenArena.indexOf(token) : vocabulary.lookup(token);
+  }
+
+  private static Title intern(Title title, TokenVocabulary vocabulary) {
+    List<String> tokens = new ArrayList<>(title.tokens().size());
+    for (String token : title.tokens()) {
+      tokens.add(token == null || token.isBlank() ? token : vocabulary.intern(token));
+    }
+    // Not List.copyOf, which rejects null tokens
+    return new Title(title.value(), Collections.unmodifiableList(tokens));
+  }
+
+  private static Map<String, Integer> termFrequency(List<String> tokens) {
+    Map<String, Integer> frequency = new LinkedHashMap<>();
+    for (String token : Utils.filterValid(tokens)) {
+      frequency.merge(token, 1, Integer::sum);
+    }
+    return frequency;
+  }
+
+  /**
+   * Titles per token id, each list in catalog order.
+   */
+  private static final class Postings {
+    private final int[] offsets;
+    private final int[] titles;
+
+    private Postings(int size, int[] titleOffsets, int[] ids) {
+      int maxId = -1;
+      for (int id : ids) {
+        maxId = Math.max(maxId, id);
+      }
+      offsets = new int[maxId + 2];
+      for (int id : ids) {
+        offsets[id + 1]++;
+      }
+      for (int id = 0; id <= maxId; id++) {
+        offsets[id + 1] += offsets[id];
+      }
+      titles = new int[ids.length];
+      int[] next = Arrays.copyOf(offsets, maxId + 1);
+      for (int i = 0; i < size; i++) {
+        for (int t = titleOffsets[i]; t < titleOffsets[i + 1]; t++) {
+          titles[next[ids[t]]++] = i;
+        }
+      }
+    }
+  }
+
+  /**
+   * The catalog's distinct tokens in sorted order, with their ids.
+   */
+  private static final class SortedTokens {
+    private final String[] tokens;
+    private final int[] ids;
+
+    private SortedTokens(Map<Integer, String> byId) {
+      List<Map.Entry<Integer, String>> entries = new ArrayList<>(byId.entrySet());
+      entries.sort(Map.Entry.comparingByValue());
+      tokens = new String[entries.size()];
+      ids = new int[entries.size()];
+      for (int t = 0; t < tokens.length; t++) {
+        tokens[t] = entries.get(t).getValue();
+        ids[t] = entries.get(t).getKey();
+      }
+    }
+  }
+
+  /**
+   * Query tokens resolved to catalog token ids, with their frequencies and the query's norm.
+   * Scoring a query against a compact catalog reuses a view onto its arena, so a query is
+   * scored on one thread at a time.
+   */
+  public static final class Query {
+    // Valid tokens in query order, with their ids or -1 for tokens outside the vocabulary
+    private final String[] tokens;
+    private final int[] tokenIds;
+    private final int distinct;
+    private final boolean repeats;
+    // Distinct tokens in the vocabulary, with their frequencies
+    private final int[] ids;
+    private final int[] frequencies;
+    private final double norm;
+    // Reads a compact catalog's tokens; null otherwise
+    private final StringArena.View view;
+
+    private Query(String[] tokens, int[] tokenIds, int distinct, boolean repeats, int[] ids,
+                  int[] frequencies, double norm, StringArena.View view) {
+      this.tokens = tokens;
+      this.tokenIds = tokenIds;
+      this.distinct = distinct;
+      this.repeats = repeats;
+      this.ids = ids;
+      this.frequencies = frequencies;
+      this.norm = norm;
+      this.view = view;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.zanete.jobtitlenormaliser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Loads job titles and prefixes from UTF-8 text files, one entry per line.
+ *
+ * <p>Blank lines and lines starting with {@code #} are skipped. Files are read once, at
+ * construction, so the provider can be shared freely afterwards.</p>
+ */
+public class FileJobTitleProvider implements JobTitleProvider {
+
+  private final List<String> prefixesToIgnore;
+  private final List<String> normalisedJobTitles;
+
+  /**
+   * Reads the prefix and title files.
+   *
+   * @param prefixesFile file of prefixes to ignore, or null for none
+   * @param titlesFile file of standard, normalised job titles
+   * @throws IOException if either file cannot be read
+   */
+  public FileJobTitleProvider(Path prefixesFile, Path titlesFile) throws IOException {
+    this.prefixesToIgnore = prefixesFile == null ? List.of() : readEntries(prefixesFile);
+    this.normalisedJobTitles = readEntries(titlesFile);
+  }
+
+  private FileJobTitleProvider(List<String> prefixesToIgnore, List<String> normalisedJobTitles) {
+    this.prefixesToIgnore = prefixesToIgnore;
+    this.normalisedJobTitles = normalisedJobTitles;
+  }
+
+  /**
+   * Returns a provider holding only the given contiguous slice of this provider's titles.
+   * Slices for {@code 0..shardCount-1} together cover every title exactly once, in order.
+   *
+   * @param shardIndex the zero-based shard to keep
+   * @param shardCount the total number of shards
+   * @throws IllegalArgumentException if the index is outside {@code 0..shardCount-1}
+   */
+  public FileJobTitleProvider shard(int shardIndex, int shardCount) {
+    if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+      throw new IllegalArgumentException("Invalid shard " + shardIndex + " of " + shardCount);
+    }
+    int size = normalisedJobTitles.size();
+    int from = (int) ((long) size * shardIndex / shardCount);
+    int to = (int) ((long) size * (shardIndex + 1) / shardCount);
+    return new FileJobTitleProvider(prefixesToIgnore, normalisedJobTitles.subList(from, to));
+  }
+
+  @Override
+  public List<String> getJobTitlePrefixesToIgnore() {
+    return prefixesToIgnore;
+  }
+
+  @Override
+  public List<String> getNormalisedJobTitles() {
+    return normalisedJobTitles;
+  }
+
+  private static List<String> readEntries(Path file) throws IOException {
+    return Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+        .map(String::trim)
+        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+        .toList();
+  }
+}
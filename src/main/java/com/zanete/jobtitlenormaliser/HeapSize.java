@@ -0,0 +1,49 @@
+package com.zanete.jobtitlenormaliser;
+
+/**
+ * Rough shallow sizes of common objects on a 64-bit JVM with compressed references: 12-byte
+ * object headers, 16-byte array headers, 4-byte references and 8-byte alignment.
+ */
+final class HeapSize {
+
+  static final int REFERENCE = 4;
+  static final int OBJECT_HEADER = 12;
+
+  private static final int ARRAY_HEADER = 16;
+  // Header, value reference, cached hash, coder and hash-is-zero flag
+  private static final int STRING = 24;
+
+  private HeapSize() {
+  }
+
+  /**
+   * Rounds up to the 8-byte object alignment.
+   */
+  static long align(long bytes) {
+    return (bytes + 7) & ~7L;
+  }
+
+  /**
+   * Returns the size of an array of {@code length} elements of {@code elementBytes} each.
+   */
+  static long array(int length, int elementBytes) {
+    return align(ARRAY_HEADER + (long) length * elementBytes);
+  }
+
+  /**
+   * Returns the size of the string with its backing array, which holds one byte per character
+   * when every character is Latin-1 and two otherwise.
+   */
+  static long string(String value) {
+    return STRING + array(value.length(), isLatin1(value) ? 1 : 2);
+  }
+
+  static boolean isLatin1(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) > 0xFF) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -6,6 +6,7 @@ public interface JobTitleProvider {
 
   /**
    * Common job title prefixes to ignore during preprocessing (e.g. "senior", "lead").
+   * Entries may also be multi-word phrases such as "head of" or "part time".
    */
   List<String> getJobTitlePrefixesToIgnore();
 
@@ -1,16 +1,42 @@
 package com.zanete.jobtitlenormaliser;
 
 
+import com.zanete.jobtitlenormaliser.alias.AliasTable;
+import com.zanete.jobtitlenormaliser.cache.ResultCache;
+import com.zanete.jobtitlenormaliser.jfr.CatalogCompilationEvent;
+import com.zanete.jobtitlenormaliser.jfr.NormaliseEvent;
+import com.zanete.jobtitlenormaliser.matcher.BitParallelFuzzyTokenMatcher;
 import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
 import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
 import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
 import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import com.zanete.jobtitlenormaliser.model.CacheStatistics;
+import com.zanete.jobtitlenormaliser.model.CandidateExplanation;
+import com.zanete.jobtitlenormaliser.model.CascadeStatistics;
+import com.zanete.jobtitlenormaliser.model.Explanation;
 import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import com.zanete.jobtitlenormaliser.model.MatcherScore;
 import com.zanete.jobtitlenormaliser.model.MatcherWithWeight;
+import com.zanete.jobtitlenormaliser.model.MemoryReport;
 import com.zanete.jobtitlenormaliser.model.Title;
+import com.zanete.jobtitlenormaliser.model.TokenAlignment;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Responsible for normalising job titles by comparing input text
@@ -23,6 +49,47 @@ import java.util.Optional;
  * </ul>
  * <p>
  * The final similarity score combines both approaches with configurable weighting.
+ *
+ * <p>The catalog of standard titles is compiled (preprocessed) in parallel when the normaliser
+ * is built. With {@link Builder#compileInBackground(Executor)} the normaliser is returned
+ * immediately and serves requests through a slower path, preprocessing titles per request,
+ * until {@link #catalogCompiled()} completes. The compiled catalog is a {@link CompiledCatalog};
+ * cosine similarity is scored straight from its arrays, together with fuzzy matching in a
+ * single pass when both built-in matchers are configured, and other matchers from its token
+ * lists. Titles in size buckets that cannot reach the threshold against the query are skipped
+ * (see {@link CompiledCatalog#reachableBuckets}).</p>
+ *
+ * <p>{@link #memoryReport()} estimates the heap the normaliser holds for titles, tokens, indexes
+ * and caches. For large catalogs, {@link Builder#compactTokens(boolean)} compiles a
+ * {@linkplain CompiledCatalog#compact(List) compact} catalog, which packs token and title
+ * strings into byte arenas instead of holding a {@code String} each.</p>
+ *
+ * <p>With {@link Builder#cascade(double, double)}, requests are resolved by cheap signals first
+ * and only inputs in an ambiguous band are scored against the whole catalog: a title with
+ * exactly the input's tokens is returned at once; otherwise the cosine similarity of the titles
+ * sharing a token with the input decides whether the best of them is accepted, the input is
+ * left unmatched, or every matcher scores the catalog. {@link #getCascadeStatistics()} counts
+ * the requests resolved by each tier.</p>
+ *
+ * <p>With an {@link AliasTable} configured, the preprocessed input is first looked up among the
+ * confirmed aliases, keyed by {@link AliasTable#key(List)}. A confirmed alias is returned with a
+ * score of {@link #ALIAS_SCORE} without scoring the catalog.</p>
+ *
+ * <p>With a {@link ResultCache} configured, results are memoised by the preprocessed input
+ * in a memory-mapped file that survives restarts. The cache is bound to the normaliser's
+ * {@link #fingerprint()}, so results stored under another catalog or matcher configuration are
+ * discarded rather than served. Requests answered from the cache are served even while the
+ * catalog is still compiling in the background.</p>
+ *
+ * <p>Requests and catalog compilation are reported to Java Flight Recorder as
+ * {@link NormaliseEvent}s and {@link CatalogCompilationEvent}s when a recording enables them,
+ * with the input's size, the titles scored, the best score and which path resolved the
+ * request.</p>
+ *
+ * <p>{@link #explain(String)} returns a per-matcher breakdown of how the best candidates were
+ * scored. Explaining allocates per title, so rather than explaining every request, a sample of
+ * requests can be explained and reported to a listener with
+ * {@link Builder#explainSampling(double, Consumer)}; unsampled requests take the normal path.</p>
  */
 public class Normaliser {
 
@@ -31,19 +98,178 @@ public class Normaliser {
    */
   protected static final double TITLE_MATCH_SCORE_THRESHOLD = 0.75;
 
+  /**
+   * Number of candidates included in sampled explanations.
+   */
+  public static final int DEFAULT_EXPLAIN_CANDIDATES = 5;
+
+  /**
+   * Score given to titles served from the alias table.
+   */
+  public static final double ALIAS_SCORE = 1.0;
+
+  // Guards against rejecting an input whose best title scores exactly the threshold
+  private static final double CASCADE_SLACK = 1e-9;
+
+  // Rough size of a cache entry: map node, key string and cleaned token
+  private static final int TOKEN_CACHE_ENTRY_BYTES = 128;
+  // Rough size of a mask cache entry: map node, key string and masks of a short token
+  private static final int MASK_CACHE_ENTRY_BYTES = 224;
+
+  static final Comparator<MatchedTitle> BY_SCORE = Comparator.comparingDouble(MatchedTitle::overallScore);
+
   private final Preprocessor preprocessor;
   private final Matchers matchers;
-  private final List<Title> preprocessedJobTitles;
+  private final List<String> normalisedJobTitles;
+  // Null for a compact catalog, which has token ids of its own
+  private final TokenVocabulary vocabulary;
+  private final boolean compactTokens;
+  // Null unless aliases are configured
+  private final AliasTable aliasTable;
+  // Null unless a result cache is configured
+  private final ResultCache resultCache;
+  private final String fingerprint;
+  private final CompletableFuture<Void> catalogCompiled;
+  private final double explainSampleRate;
+  // Null unless explain sampling is enabled
+  private final Consumer<Explanation> explainListener;
+  // Same order as matchers, with how each matcher is scored against the compiled catalog
+  private final MatcherWithWeight[] weightedMatchers;
+  private final Scoring[] scorings;
+  private final boolean fused;
+  // Total weights of fuzzy, cosine and other matchers, or null if size filtering is off
+  private final double[] filterWeights;
+  private final boolean cascade;
+  private final double cascadeRejectBelow;
+  private final double cascadeAcceptFrom;
+  // Total weight of cosine matchers and of all others, or NaN if a negative weight makes the
+  // cascade's bound on the best score unsound
+  private final double cascadeCosineWeight;
+  private final double cascadeOtherWeight;
+  private final LongAdder cascadeExact = new LongAdder();
+  private final LongAdder cascadeAccepted = new LongAdder();
+  private final LongAdder cascadeRejected = new LongAdder();
+  private final LongAdder cascadeScored = new LongAdder();
+  // Null until the catalog has been compiled
+  private volatile CompiledCatalog compiledCatalog;
 
   /**
    * Constructs a normaliser with a preconfigured list of job title prefixes.
    */
   public Normaliser(JobTitleProvider jobTitleProvider, Matchers matchers) {
-    preprocessor = new Preprocessor(jobTitleProvider.getJobTitlePrefixesToIgnore());
-    this.matchers = matchers;
-    this.preprocessedJobTitles = jobTitleProvider.getNormalisedJobTitles().stream()
-        .map(title -> new Title(title, preprocessor.preprocess(title)))
-        .toList();
+    this(builder().jobTitleProvider(jobTitleProvider).matchers(matchers));
+  }
+
+  private Normaliser(Builder builder) {
+    preprocessor = new Preprocessor(builder.jobTitleProvider.getJobTitlePrefixesToIgnore(),
+        builder.tokenCacheCapacity);
+    this.matchers = builder.matchers;
+    this.normalisedJobTitles = List.copyOf(builder.jobTitleProvider.getNormalisedJobTitles());
+    this.compactTokens = builder.compactTokens;
+    if (compactTokens) {
+      this.vocabulary = null;
+    } else {
+      this.vocabulary = builder.vocabulary == null ? new TokenVocabulary() : builder.vocabulary;
+    }
+    this.aliasTable = builder.aliasTable;
+    this.explainSampleRate = builder.explainSampleRate;
+    this.explainListener = builder.explainListener;
+    this.weightedMatchers = matchers.getMatchers().toArray(MatcherWithWeight[]::new);
+    this.scorings = scorings(weightedMatchers);
+    this.fused = List.of(scorings).contains(Scoring.FUSED_COSINE);
+    this.filterWeights = builder.sizeFiltering ? filterWeights(weightedMatchers) : null;
+    this.cascade = builder.cascade;
+    this.cascadeRejectBelow = builder.cascadeRejectBelow;
+    this.cascadeAcceptFrom = builder.cascadeAcceptFrom;
+    double[] weights = filterWeights(weightedMatchers);
+    this.cascadeCosineWeight = weights == null ? Double.NaN : weights[1];
+    this.cascadeOtherWeight = weights == null ? Double.NaN : weights[0] + weights[2];
+    this.fingerprint = fingerprint(builder.jobTitleProvider.getJobTitlePrefixesToIgnore(),
+        normalisedJobTitles, weightedMatchers, builder);
+    this.resultCache = builder.resultCache;
+    if (resultCache != null) {
+      resultCache.bind(fingerprint);
+    }
+
+    if (builder.backgroundExecutor == null) {
+      compiledCatalog = compileCatalog(builder.parallelCompilation);
+      catalogCompiled = CompletableFuture.completedFuture(null);
+    } else {
+      catalogCompiled = CompletableFuture.runAsync(
+          () -> compiledCatalog = compileCatalog(builder.parallelCompilation),
+          builder.backgroundExecutor);
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Completes once the catalog has been compiled and requests take the fast path.
+   * Completes exceptionally if background compilation failed; the normaliser then
+   * keeps serving through the slower path.
+   */
+  public CompletableFuture<Void> catalogCompiled() {
+    return catalogCompiled;
+  }
+
+  /**
+   * Returns true once the catalog has been compiled.
+   */
+  public boolean isCatalogCompiled() {
+    return compiledCatalog != null;
+  }
+
+  /**
+   * Returns hit and size counters of the preprocessor's token cleaning cache for string input.
+   */
+  public CacheStatistics getTokenCacheStatistics() {
+    return preprocessor.getTokenCacheStatistics();
+  }
+
+  /**
+   * Returns hit and size counters of the preprocessor's token cleaning cache for UTF-8 input.
+   */
+  public CacheStatistics getUtf8TokenCacheStatistics() {
+    return preprocessor.getUtf8TokenCacheStatistics();
+  }
+
+  /**
+   * Returns a digest of everything that determines this normaliser's results: the catalog,
+   * the prefixes to ignore, the matcher classes and weights, the threshold and the cascade
+   * cutoffs. Matchers are identified by class, so a matcher configured differently under the
+   * same class does not change the fingerprint.
+   */
+  public String fingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * Returns how many requests each tier of the cascade has resolved, all zero unless a cascade
+   * is configured. Requests answered from the alias table or the result cache, or explained,
+   * are not counted.
+   */
+  public CascadeStatistics getCascadeStatistics() {
+    return new CascadeStatistics(cascadeExact.sum(), cascadeAccepted.sum(), cascadeRejected.sum(),
+        cascadeScored.sum());
+  }
+
+  /**
+   * Estimates the heap held by the compiled catalog and the caches, waiting for background
+   * compilation if needed. Token strings of a shared vocabulary are counted in full.
+   */
+  public MemoryReport memoryReport() {
+    CompiledCatalog catalog = compiledCatalog();
+    long cacheBytes = ((long) preprocessor.getTokenCacheStatistics().size()
+        + preprocessor.getUtf8TokenCacheStatistics().size()) * TOKEN_CACHE_ENTRY_BYTES;
+    for (MatcherWithWeight weighted : weightedMatchers) {
+      if (weighted.matcher() instanceof BitParallelFuzzyTokenMatcher bitParallel) {
+        cacheBytes += (long) bitParallel.getMaskCacheStatistics().size() * MASK_CACHE_ENTRY_BYTES;
+      }
+    }
+    return new MemoryReport(catalog.size(), catalog.titleBytes(), catalog.tokenBytes(),
+        catalog.indexBytes(), cacheBytes);
   }
 
   /**
@@ -57,13 +283,569 @@ public class Normaliser {
   }
 
   public Optional<MatchedTitle> normaliseDetailed(String input) {
-    List<String> inputTokens = preprocessor.preprocess(input);
-    return preprocessedJobTitles.stream().map(title -> {
-          double overallScore = matchers.getMatchers().stream()
-              .mapToDouble(matcher -> calculateMatcherScore(matcher, inputTokens, title.tokens())).sum();
+    NormaliseEvent event = new NormaliseEvent();
+    event.begin();
+    List<String> tokens = preprocessor.preprocess(input);
+    Optional<MatchedTitle> match = isSampledForExplain()
+        ? explainSampled(input, tokens, event)
+        : normalise(tokens, event);
+    return commit(event, input == null ? 0 : input.length(), tokens, match);
+  }
+
+  /**
+   * Normalises a slice of UTF-8 encoded bytes without decoding it to a string first.
+   *
+   * @param utf8 UTF-8 encoded job title text
+   * @param offset index of the first byte
+   * @param length number of bytes
+   * @return the best-matching normalised title, or an empty string if none meet the threshold
+   * @see Preprocessor#preprocessUtf8(byte[], int, int)
+   */
+  public String normaliseUtf8(byte[] utf8, int offset, int length) {
+    return normaliseDetailedUtf8(utf8, offset, length).map(MatchedTitle::title).orElse("");
+  }
+
+  public Optional<MatchedTitle> normaliseDetailedUtf8(byte[] utf8, int offset, int length) {
+    NormaliseEvent event = new NormaliseEvent();
+    event.begin();
+    List<String> tokens = preprocessor.preprocessUtf8(utf8, offset, length);
+    Optional<MatchedTitle> match = isSampledForExplain()
+        ? explainSampled(new String(utf8, offset, length, StandardCharsets.UTF_8), tokens, event)
+        : normalise(tokens, event);
+    return commit(event, length, tokens, match);
+  }
+
+  /**
+   * Normalises the UTF-8 encoded bytes between the buffer's position and limit without
+   * decoding them to a string first. The buffer's position is left unchanged.
+   *
+   * @param utf8 UTF-8 encoded job title text
+   * @return the best-matching normalised title, or an empty string if none meet the threshold
+   * @see Preprocessor#preprocessUtf8(ByteBuffer)
+   */
+  public String normaliseUtf8(ByteBuffer utf8) {
+    return normaliseDetailedUtf8(utf8).map(MatchedTitle::title).orElse("");
+  }
+
+  public Optional<MatchedTitle> normaliseDetailedUtf8(ByteBuffer utf8) {
+    NormaliseEvent event = new NormaliseEvent();
+    event.begin();
+    List<String> tokens = preprocessor.preprocessUtf8(utf8);
+    Optional<MatchedTitle> match;
+    if (isSampledForExplain()) {
+      String input = utf8 == null ? null : StandardCharsets.UTF_8.decode(utf8.duplicate()).toString();
+      match = explainSampled(input, tokens, event);
+    } else {
+      match = normalise(tokens, event);
+    }
+    return commit(event, utf8 == null ? 0 : utf8.remaining(), tokens, match);
+  }
+
+  /**
+   * Returns up to {@code k} titles meeting the threshold, best first.
+   * Titles with equal scores keep their catalog order.
+   *
+   * @param input raw job title text
+   * @param k maximum number of titles to return
+   * @return the best-matching titles, or an empty list if none meet the threshold
+   */
+  public List<MatchedTitle> normaliseTopK(String input, int k) {
+    List<String> tokens = preprocessor.preprocess(input);
+    return topMatches(alias(tokens), matches(tokens), k);
+  }
+
+  /**
+   * Cleans and tokenises the input exactly as {@link #normaliseDetailed(String)} does.
+   */
+  public List<String> preprocess(String input) {
+    return preprocessor.preprocess(input);
+  }
+
+  /**
+   * Finds the best match for input that has already been through {@link #preprocess(String)}.
+   * Lets callers tokenise and score in separate stages.
+   *
+   * @param inputTokens preprocessed input tokens
+   * @return the best-matching title, or empty if none meet the threshold
+   */
+  public Optional<MatchedTitle> normalisePreprocessed(List<String> inputTokens) {
+    NormaliseEvent event = new NormaliseEvent();
+    event.begin();
+    return commit(event, -1, inputTokens, normalise(inputTokens, event));
+  }
+
+  /**
+   * Resolves preprocessed input as {@link #normalisePreprocessed(List)} does, through the alias
+   * table, result cache and cascade, with {@code scoreAll} scoring the whole catalog when none
+   * of them resolves it. Lets a caller score the catalog its own way, e.g. in shards.
+   */
+  Optional<MatchedTitle> resolve(List<String> inputTokens, Supplier<Optional<MatchedTitle>> scoreAll) {
+    NormaliseEvent event = new NormaliseEvent();
+    event.begin();
+    return commit(event, -1, inputTokens, normalise(inputTokens, event, scoreAll));
+  }
+
+  /**
+   * Records that the raw title normalises to the given catalog title. Later requests whose
+   * input preprocesses to the same tokens are served from the alias table.
+   *
+   * @param rawTitle raw job title text
+   * @param normalisedTitle one of the catalog's normalised titles
+   * @throws IllegalStateException if no alias table is configured
+   * @throws IllegalArgumentException if the raw title has no tokens or the normalised title is
+   *     not in the catalog
+   */
+  public void confirmAlias(String rawTitle, String normalisedTitle) {
+    if (aliasTable == null) {
+      throw new IllegalStateException("No alias table configured");
+    }
+    List<String> tokens = preprocessor.preprocess(rawTitle);
+    if (tokens.isEmpty()) {
+      throw new IllegalArgumentException("Title has no tokens: " + rawTitle);
+    }
+    if (!normalisedJobTitles.contains(normalisedTitle)) {
+      throw new IllegalArgumentException("Not a catalog title: " + normalisedTitle);
+    }
+    aliasTable.put(AliasTable.key(tokens), normalisedTitle);
+  }
+
+  /**
+   * Returns the confirmed alias for the preprocessed input, if an alias table is configured
+   * and holds one.
+   */
+  Optional<MatchedTitle> alias(List<String> inputTokens) {
+    if (aliasTable == null || inputTokens.isEmpty()) {
+      return Optional.empty();
+    }
+    return aliasTable.get(AliasTable.key(inputTokens)).map(title -> new MatchedTitle(title, ALIAS_SCORE));
+  }
+
+  /**
+   * Explains how the input is normalised, with the {@link #DEFAULT_EXPLAIN_CANDIDATES} best
+   * candidates.
+   *
+   * @see #explain(String, int)
+   */
+  public Explanation explain(String input) {
+    return explain(input, DEFAULT_EXPLAIN_CANDIDATES);
+  }
+
+  /**
+   * Explains how the input is normalised: its tokens, the match {@link #normaliseDetailed(String)}
+   * returns and the best {@code maxCandidates} titles whether or not they meet the threshold,
+   * each with every matcher's raw and weighted score and, if a {@link FuzzyTokenMatcher} is
+   * configured, the title token each input token was aligned with.
+   *
+   * @param input raw job title text
+   * @param maxCandidates maximum number of candidates to include
+   * @return the explanation
+   */
+  public Explanation explain(String input, int maxCandidates) {
+    return explain(input, preprocessor.preprocess(input), maxCandidates);
+  }
+
+  /**
+   * Returns the compiled catalog, waiting for background compilation if needed.
+   */
+  CompiledCatalog compiledCatalog() {
+    catalogCompiled.join();
+    return compiledCatalog;
+  }
+
+  /**
+   * Returns the summed weights of the fuzzy, cosine and other matchers, or null if any weight
+   * is negative.
+   */
+  double[] matcherWeights() {
+    return filterWeights(weightedMatchers);
+  }
+
+  /**
+   * Scores the input tokens against titles {@code from} (inclusive) to {@code to} (exclusive) of
+   * the compiled catalog, keeping matches that meet the threshold in catalog order.
+   */
+  Stream<MatchedTitle> matches(List<String> inputTokens, CompiledCatalog catalog, int from, int to) {
+    return matches(inputTokens, catalog, from, to, null);
+  }
+
+  /**
+   * As {@link #matches(List, CompiledCatalog, int, int)}, counting the titles scored in the
+   * event if it is enabled.
+   */
+  private Stream<MatchedTitle> matches(List<String> inputTokens, CompiledCatalog catalog, int from,
+                                       int to, NormaliseEvent event) {
+    boolean counting = event != null && event.isEnabled();
+    CompiledCatalog.Query query = catalog.query(inputTokens);
+    boolean[] reachable = filterWeights == null ? null : catalog.reachableBuckets(query,
+        filterWeights[0], filterWeights[1], filterWeights[2], TITLE_MATCH_SCORE_THRESHOLD);
+    // The stream is consumed by one thread, one title at a time, so each title's score is
+    // still in matchScore when a title passing the threshold is mapped
+    double[] fusedScores = new double[2];
+    double[] matchScore = new double[1];
+    return IntStream.range(from, to)
+        .filter(i -> reachable == null || reachable[catalog.bucket(i)])
+        .filter(i -> {
+          if (counting) {
+            event.candidatesScored++;
+          }
+          matchScore[0] = score(inputTokens, catalog, query, i, fusedScores);
+          return matchScore[0] >= TITLE_MATCH_SCORE_THRESHOLD;
+        })
+        // Only matches are given a title text, which a compact catalog decodes
+        .mapToObj(i -> new MatchedTitle(catalog.value(i), matchScore[0]));
+  }
+
+  /**
+   * Returns the alias, cached result or best match for the preprocessed input, recording in
+   * the event which of them resolved it.
+   */
+  private Optional<MatchedTitle> normalise(List<String> inputTokens, NormaliseEvent event) {
+    return normalise(inputTokens, event, () -> matches(inputTokens, event).max(BY_SCORE));
+  }
+
+  /**
+   * As {@link #normalise(List, NormaliseEvent)}, with {@code scoreAll} scoring the whole
+   * catalog when neither the alias table, the result cache nor the cascade's cheap tiers
+   * resolve the input.
+   */
+  private Optional<MatchedTitle> normalise(List<String> inputTokens, NormaliseEvent event,
+                                           Supplier<Optional<MatchedTitle>> scoreAll) {
+    Optional<MatchedTitle> alias = alias(inputTokens);
+    if (alias.isPresent()) {
+      event.resolvedBy = "alias";
+      return alias;
+    }
+    if (resultCache == null || inputTokens.isEmpty()) {
+      return best(inputTokens, event, scoreAll);
+    }
+    // Replaced by the tier that scored the input on a miss
+    event.resolvedBy = "cache";
+    return resultCache.get(AliasTable.key(inputTokens), key -> best(inputTokens, event, scoreAll));
+  }
+
+  private Optional<MatchedTitle> best(List<String> inputTokens, NormaliseEvent event,
+                                      Supplier<Optional<MatchedTitle>> scoreAll) {
+    if (cascade) {
+      return cascade(inputTokens, event, scoreAll);
+    }
+    event.resolvedBy = "scored";
+    return scoreAll.get();
+  }
+
+  private static Optional<MatchedTitle> commit(NormaliseEvent event, int inputLength,
+                                               List<String> tokens, Optional<MatchedTitle> match) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.inputLength = inputLength;
+      event.tokenCount = tokens.size();
+      event.bestScore = match.map(MatchedTitle::overallScore).orElse(0.0);
+      event.title = match.map(MatchedTitle::title).orElse(null);
+      event.commit();
+    }
+    return match;
+  }
+
+  /**
+   * Returns title {@code i}'s overall score against the input, with every matcher.
+   */
+  private double score(List<String> inputTokens, CompiledCatalog catalog, CompiledCatalog.Query query,
+                       int i, double[] fusedScores) {
+    if (fused) {
+      catalog.fuzzyAndCosine(query, i, fusedScores);
+    }
+    double overallScore = 0.0;
+    for (int m = 0; m < weightedMatchers.length; m++) {
+      double score = switch (scorings[m]) {
+        case FUSED_FUZZY -> fusedScores[0];
+        case FUSED_COSINE -> fusedScores[1];
+        case COSINE -> catalog.cosine(query, i);
+        case GENERIC -> weightedMatchers[m].matcher().calculateScore(inputTokens, catalog.tokens(i));
+      };
+      overallScore += score * weightedMatchers[m].weight();
+    }
+    return overallScore;
+  }
+
+  /**
+   * Resolves the input through the cascade's tiers, scoring the whole catalog only when the
+   * best cosine similarity among titles sharing a token falls in the ambiguous band.
+   */
+  private Optional<MatchedTitle> cascade(List<String> inputTokens, NormaliseEvent event,
+                                         Supplier<Optional<MatchedTitle>> scoreAll) {
+    CompiledCatalog catalog = compiledCatalog;
+    if (catalog == null) {
+      cascadeScored.increment();
+      event.resolvedBy = "scored";
+      return scoreAll.get();
+    }
+    CompiledCatalog.Query query = catalog.query(inputTokens);
+    double[] fusedScores = new double[2];
+    int best = -1;
+    double bestCosine = 0.0;
+    boolean exactTried = false;
+    for (int i : catalog.candidates(query)) {
+      // Titles with the same tokens score the same, so only the first is tried
+      if (!exactTried && catalog.sameTokens(query, i)) {
+        exactTried = true;
+        event.candidatesScored++;
+        double score = score(inputTokens, catalog, query, i, fusedScores);
+        if (score >= TITLE_MATCH_SCORE_THRESHOLD) {
+          cascadeExact.increment();
+          event.resolvedBy = "exact";
+          return Optional.of(new MatchedTitle(catalog.value(i), score));
+        }
+      }
+      double cosine = catalog.cosine(query, i);
+      if (cosine > bestCosine) {
+        best = i;
+        bestCosine = cosine;
+      }
+    }
+
+    // Every other title has a cosine similarity of zero, so no title scores above the bound
+    double bound = cascadeOtherWeight + cascadeCosineWeight * bestCosine;
+    if (bestCosine < cascadeRejectBelow || bound + CASCADE_SLACK < TITLE_MATCH_SCORE_THRESHOLD) {
+      cascadeRejected.increment();
+      event.resolvedBy = "rejected";
+      return Optional.empty();
+    }
+    if (best >= 0 && bestCosine >= cascadeAcceptFrom) {
+      event.candidatesScored++;
+      double score = score(inputTokens, catalog, query, best, fusedScores);
+      if (score >= TITLE_MATCH_SCORE_THRESHOLD) {
+        cascadeAccepted.increment();
+        event.resolvedBy = "accepted";
+        return Optional.of(new MatchedTitle(catalog.value(best), score));
+      }
+    }
+    cascadeScored.increment();
+    event.resolvedBy = "scored";
+    return scoreAll.get();
+  }
+
+  /**
+   * Scores the input tokens against each title, keeping matches that meet the threshold
+   * in catalog order.
+   */
+  Stream<MatchedTitle> matches(List<String> inputTokens, Stream<Title> titles) {
+    return titles.map(title -> {
+          double overallScore = 0.0;
+          for (MatcherWithWeight matcher : weightedMatchers) {
+            overallScore += calculateMatcherScore(matcher, inputTokens, title.tokens());
+          }
           return new MatchedTitle(title.value(), overallScore);
-        }).filter(match -> match.overallScore() >= TITLE_MATCH_SCORE_THRESHOLD)
-        .max(Comparator.comparingDouble(MatchedTitle::overallScore));
+        }).filter(match -> match.overallScore() >= TITLE_MATCH_SCORE_THRESHOLD);
+  }
+
+  /**
+   * Orders matches best first (stable, so ties keep catalog order) and keeps the first k.
+   */
+  static List<MatchedTitle> topMatches(Stream<MatchedTitle> matches, int k) {
+    return matches.sorted(BY_SCORE.reversed()).limit(k).toList();
+  }
+
+  /**
+   * As {@link #topMatches(Stream, int)}, with the alias, if any, first and its title dropped
+   * from the scored matches.
+   */
+  static List<MatchedTitle> topMatches(Optional<MatchedTitle> alias, Stream<MatchedTitle> matches, int k) {
+    if (alias.isEmpty()) {
+      return topMatches(matches, k);
+    }
+    String aliased = alias.get().title();
+    return Stream.concat(alias.stream(),
+            matches.filter(match -> !match.title().equals(aliased)).sorted(BY_SCORE.reversed()))
+        .limit(k)
+        .toList();
+  }
+
+  private boolean isSampledForExplain() {
+    return explainListener != null && ThreadLocalRandom.current().nextDouble() < explainSampleRate;
+  }
+
+  private Optional<MatchedTitle> explainSampled(String input, List<String> tokens, NormaliseEvent event) {
+    // Aliased requests involve no scoring to explain
+    Optional<MatchedTitle> alias = alias(tokens);
+    if (alias.isPresent()) {
+      event.resolvedBy = "alias";
+      return alias;
+    }
+    // The result takes the normal path, through the cascade and result cache, so sampling
+    // cannot change it; only the candidates are scored against the whole catalog
+    Optional<MatchedTitle> match = normalise(tokens, event);
+    Explanation explanation = explain(input, tokens, DEFAULT_EXPLAIN_CANDIDATES);
+    explainListener.accept(new Explanation(input, tokens, match, explanation.candidates()));
+    return match;
+  }
+
+  private Explanation explain(String input, List<String> inputTokens, int maxCandidates) {
+    List<CandidateExplanation> candidates = jobTitles()
+        .map(title -> explainCandidate(inputTokens, title))
+        .sorted(Comparator.comparingDouble(CandidateExplanation::overallScore).reversed())
+        .toList();
+    // Sorting is stable, so the first candidate is the one max(BY_SCORE) would pick
+    Optional<MatchedTitle> match = alias(inputTokens).or(() -> candidates.stream()
+        .findFirst()
+        .filter(candidate -> candidate.overallScore() >= TITLE_MATCH_SCORE_THRESHOLD)
+        .map(candidate -> new MatchedTitle(candidate.title(), candidate.overallScore())));
+    return new Explanation(input, inputTokens, match,
+        candidates.subList(0, Math.min(maxCandidates, candidates.size())));
+  }
+
+  private CandidateExplanation explainCandidate(List<String> inputTokens, Title title) {
+    List<MatcherScore> scores = matchers.getMatchers().stream()
+        .map(matcher -> {
+          double rawScore = matcher.matcher().calculateScore(inputTokens, title.tokens());
+          return new MatcherScore(matcher.matcher().getClass().getSimpleName(), matcher.weight(),
+              rawScore, rawScore * matcher.weight());
+        })
+        .toList();
+    List<TokenAlignment> alignments = matchers.getMatchers().stream()
+        .map(MatcherWithWeight::matcher)
+        .filter(FuzzyTokenMatcher.class::isInstance)
+        .findFirst()
+        .map(fuzzy -> ((FuzzyTokenMatcher) fuzzy).align(inputTokens, title.tokens()))
+        .orElse(List.of());
+    // Summed the same way as matches() so the scores are identical
+    double overallScore = 0.0;
+    for (MatcherScore score : scores) {
+      overallScore += score.weightedScore();
+    }
+    return new CandidateExplanation(title.value(), title.tokens(), overallScore, scores, alignments);
+  }
+
+  private Stream<MatchedTitle> matches(List<String> inputTokens) {
+    return matches(inputTokens, (NormaliseEvent) null);
+  }
+
+  private Stream<MatchedTitle> matches(List<String> inputTokens, NormaliseEvent event) {
+    CompiledCatalog compiled = compiledCatalog;
+    if (compiled != null) {
+      return matches(inputTokens, compiled, 0, compiled.size(), event);
+    }
+    if (event != null) {
+      event.candidatesScored = normalisedJobTitles.size();
+    }
+    return matches(inputTokens, jobTitles());
+  }
+
+  private Stream<Title> jobTitles() {
+    CompiledCatalog compiled = compiledCatalog;
+    if (compiled != null) {
+      return compiled.titles().stream();
+    }
+    // Catalog still compiling in the background: preprocess each title on the fly
+    return normalisedJobTitles.stream().map(this::compileTitle);
+  }
+
+  private CompiledCatalog compileCatalog(boolean parallel) {
+    CatalogCompilationEvent event = new CatalogCompilationEvent();
+    event.begin();
+    Stream<String> titles = parallel
+        ? normalisedJobTitles.parallelStream()
+        : normalisedJobTitles.stream();
+    List<Title> compiled = titles.map(this::compileTitle).toList();
+    CompiledCatalog catalog = compactTokens
+        ? CompiledCatalog.compact(compiled)
+        : new CompiledCatalog(compiled, vocabulary);
+    event.end();
+    if (event.shouldCommit()) {
+      event.titles = catalog.size();
+      event.vocabularySize = catalog.vocabularySize();
+      event.parallel = parallel;
+      event.compact = catalog.isCompact();
+      event.estimatedBytes = catalog.estimatedBytes();
+      event.commit();
+    }
+    return catalog;
+  }
+
+  private Title compileTitle(String title) {
+    return new Title(title, preprocessor.preprocess(title));
+  }
+
+  /**
+   * Built-in fuzzy and cosine matchers are scored from the compiled catalog's arrays, together
+   * in one pass when both are configured. Subclasses may override calculateScore, so only the
+   * exact classes are replaced; any other matcher is called with the title's tokens.
+   */
+  private static Scoring[] scorings(MatcherWithWeight[] weightedMatchers) {
+    int fuzzy = -1;
+    int cosine = -1;
+    for (int i = 0; i < weightedMatchers.length; i++) {
+      Class<?> type = weightedMatchers[i].matcher().getClass();
+      if (type == FuzzyTokenMatcher.class && fuzzy < 0) {
+        fuzzy = i;
+      } else if (type == CosineSimilarityMatcher.class && cosine < 0) {
+        cosine = i;
+      }
+    }
+    Scoring[] scorings = new Scoring[weightedMatchers.length];
+    for (int i = 0; i < scorings.length; i++) {
+      Class<?> type = weightedMatchers[i].matcher().getClass();
+      if (fuzzy >= 0 && cosine >= 0 && (i == fuzzy || i == cosine)) {
+        scorings[i] = i == fuzzy ? Scoring.FUSED_FUZZY : Scoring.FUSED_COSINE;
+      } else {
+        scorings[i] = type == CosineSimilarityMatcher.class ? Scoring.COSINE : Scoring.GENERIC;
+      }
+    }
+    return scorings;
+  }
+
+  /**
+   * Returns the total weights of fuzzy, cosine and other matchers for bounding scores by title
+   * size, or null if a negative weight makes the bound unsound.
+   */
+  private static double[] filterWeights(MatcherWithWeight[] weightedMatchers) {
+    double[] weights = new double[3];
+    for (MatcherWithWeight weighted : weightedMatchers) {
+      if (weighted.weight() < 0) {
+        return null;
+      }
+      Class<?> type = weighted.matcher().getClass();
+      if (type == FuzzyTokenMatcher.class || type == BitParallelFuzzyTokenMatcher.class) {
+        weights[0] += weighted.weight();
+      } else if (type == CosineSimilarityMatcher.class) {
+        weights[1] += weighted.weight();
+      } else {
+        weights[2] += weighted.weight();
+      }
+    }
+    return weights;
+  }
+
+  private static String fingerprint(List<String> prefixes, List<String> titles,
+                                    MatcherWithWeight[] weightedMatchers, Builder builder) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    Consumer<Object> field = value -> {
+      byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+      // Length-prefixed, so adjacent fields cannot run into each other
+      digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+      digest.update(bytes);
+    };
+    field.accept(prefixes.size());
+    prefixes.forEach(field);
+    field.accept(titles.size());
+    titles.forEach(field);
+    for (MatcherWithWeight weighted : weightedMatchers) {
+      field.accept(weighted.matcher().getClass().getName());
+      field.accept(weighted.weight());
+    }
+    field.accept(TITLE_MATCH_SCORE_THRESHOLD);
+    field.accept(builder.cascade ? builder.cascadeRejectBelow + "-" + builder.cascadeAcceptFrom : "");
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private enum Scoring {
+    GENERIC,
+    COSINE,
+    FUSED_FUZZY,
+    FUSED_COSINE
   }
 
   private double calculateMatcherScore(MatcherWithWeight matcherWithWeight,
@@ -73,6 +855,185 @@ public class Normaliser {
     return score * weight;
   }
 
+  public static class Builder {
+    private JobTitleProvider jobTitleProvider;
+    private Matchers matchers;
+    private boolean parallelCompilation = true;
+    private Executor backgroundExecutor;
+    private int tokenCacheCapacity = Preprocessor.DEFAULT_TOKEN_CACHE_CAPACITY;
+    private double explainSampleRate;
+    private Consumer<Explanation> explainListener;
+    private TokenVocabulary vocabulary;
+    private AliasTable aliasTable;
+    private boolean sizeFiltering = true;
+    private boolean compactTokens;
+    private boolean cascade;
+    private ResultCache resultCache;
+    private double cascadeRejectBelow;
+    private double cascadeAcceptFrom;
+
+    /**
+     * Sets the source of standard titles and prefixes to ignore.
+     */
+    public Builder jobTitleProvider(JobTitleProvider jobTitleProvider) {
+      this.jobTitleProvider = jobTitleProvider;
+      return this;
+    }
+
+    /**
+     * Sets the weighted matchers used to score titles.
+     */
+    public Builder matchers(Matchers matchers) {
+      this.matchers = matchers;
+      return this;
+    }
+
+    /**
+     * Whether the catalog is compiled across all cores (default) or on a single thread.
+     */
+    public Builder parallelCompilation(boolean parallelCompilation) {
+      this.parallelCompilation = parallelCompilation;
+      return this;
+    }
+
+    /**
+     * Compiles the catalog on the given executor instead of the building thread, so
+     * {@link #build()} returns immediately.
+     */
+    public Builder compileInBackground(Executor executor) {
+      this.backgroundExecutor = executor;
+      return this;
+    }
+
+    /**
+     * Sets how many distinct split tokens the preprocessor caches cleaned forms for,
+     * or 0 to disable the cache.
+     */
+    public Builder tokenCacheCapacity(int tokenCacheCapacity) {
+      this.tokenCacheCapacity = tokenCacheCapacity;
+      return this;
+    }
+
+    /**
+     * Compiles the catalog against a vocabulary shared with other normalisers, so they share
+     * token strings and ids. By default each normaliser has a vocabulary of its own.
+     */
+    public Builder vocabulary(TokenVocabulary vocabulary) {
+      this.vocabulary = vocabulary;
+      return this;
+    }
+
+    /**
+     * Serves confirmed aliases from the table before scoring the catalog. The normaliser does
+     * not close the table.
+     */
+    public Builder aliasTable(AliasTable aliasTable) {
+      this.aliasTable = aliasTable;
+      return this;
+    }
+
+    /**
+     * Memoises results in a persistent cache, bound to this normaliser's
+     * {@linkplain Normaliser#fingerprint() fingerprint} when it is built: results stored under
+     * another configuration are discarded. The normaliser does not close the cache.
+     */
+    public Builder resultCache(ResultCache resultCache) {
+      this.resultCache = resultCache;
+      return this;
+    }
+
+    /**
+     * Whether titles whose size alone rules out reaching the threshold are skipped without
+     * scoring (default). Results are the same either way.
+     */
+    public Builder sizeFiltering(boolean sizeFiltering) {
+      this.sizeFiltering = sizeFiltering;
+      return this;
+    }
+
+    /**
+     * Whether the catalog packs its token and title strings into byte arenas rather than
+     * holding a {@code String} each (default false). Results are the same either way;
+     * matchers other than the built-in fuzzy and cosine ones are slower, as title tokens are
+     * decoded for them. A compact catalog has token ids of its own, so it cannot share a
+     * {@link #vocabulary(TokenVocabulary) vocabulary}.
+     */
+    public Builder compactTokens(boolean compactTokens) {
+      this.compactTokens = compactTokens;
+      return this;
+    }
+
+    /**
+     * Resolves requests through a cascade of cheaper tiers before scoring the whole catalog
+     * with every matcher:
+     * <ol>
+     *   <li>A title with exactly the input's tokens, in any order, is returned if it meets
+     *   the threshold.</li>
+     *   <li>Among the titles sharing a token with the input, found through an inverted index,
+     *   the one with the best cosine similarity is found. Below {@code rejectBelow}, or when
+     *   no title could reach the threshold even with perfect scores from the other matchers,
+     *   the input is left unmatched. At or above {@code acceptFrom}, that title is returned
+     *   if it meets the threshold.</li>
+     *   <li>Otherwise every matcher scores the catalog, as without a cascade.</li>
+     * </ol>
+     * Returned scores are always the full weighted score of the returned title. Rejecting
+     * below 0.0 and accepting from 1.0 return the same results as without a cascade, as long
+     * as every matcher scores identical token lists 1.0; raising the reject cutoff or lowering
+     * the accept cutoff trades accuracy in the band for less scoring. Not applied to
+     * {@code normaliseTopK} or explanations.
+     *
+     * @param rejectBelow best cosine similarity below which the input is left unmatched
+     * @param acceptFrom best cosine similarity from which that title is accepted
+     * @throws IllegalArgumentException unless {@code 0.0 <= rejectBelow <= acceptFrom <= 1.0}
+     */
+    public Builder cascade(double rejectBelow, double acceptFrom) {
+      if (!(rejectBelow >= 0.0 && rejectBelow <= acceptFrom && acceptFrom <= 1.0)) {
+        throw new IllegalArgumentException(
+            "Cutoffs must satisfy 0.0 <= rejectBelow <= acceptFrom <= 1.0: " + rejectBelow + ", " + acceptFrom);
+      }
+      this.cascade = true;
+      this.cascadeRejectBelow = rejectBelow;
+      this.cascadeAcceptFrom = acceptFrom;
+      return this;
+    }
+
+    /**
+     * Explains a random sample of requests made through the {@code normaliseDetailed} and
+     * {@code normalise} methods, passing each explanation to the listener on the requesting
+     * thread. Sampled requests return the same result as unsampled ones, resolved through the
+     * cascade and result cache when configured; the explanation's candidates are scored against
+     * the whole catalog with every matcher, so with a lossy cascade the best candidate may differ
+     * from the result.
+     *
+     * @param sampleRate share of requests to explain, between 0.0 and 1.0
+     * @param listener receives the explanations
+     * @throws IllegalArgumentException if the sample rate is outside 0.0 to 1.0
+     */
+    public Builder explainSampling(double sampleRate, Consumer<Explanation> listener) {
+      if (!(sampleRate >= 0.0 && sampleRate <= 1.0)) {
+        throw new IllegalArgumentException("Sample rate must be between 0.0 and 1.0: " + sampleRate);
+      }
+      this.explainSampleRate = sampleRate;
+      this.explainListener = Objects.requireNonNull(listener, "listener");
+      return this;
+    }
+
+    /**
+     * Constructs the {@link Normaliser}.
+     *
+     * @throws NullPointerException if the job title provider or matchers are missing
+     * @throws IllegalStateException if compact tokens are combined with a shared vocabulary
+     */
+    public Normaliser build() {
+      Objects.requireNonNull(jobTitleProvider, "jobTitleProvider");
+      Objects.requireNonNull(matchers, "matchers");
+      if (compactTokens && vocabulary != null) {
+        throw new IllegalStateException("A compact catalog cannot share a vocabulary");
+      }
+      return new Normaliser(this);
+    }
+  }
+
   public static void main(String[] args) throws InvalidWeightsException {
     Normaliser normaliser = new Normaliser(new LocalJobTitleProvider(), Matchers.builder()
         .addMatcher(new FuzzyTokenMatcher(), 0.4)
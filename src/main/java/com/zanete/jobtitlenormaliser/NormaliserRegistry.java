@@ -0,0 +1,261 @@
+package com.zanete.jobtitlenormaliser;
+
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts one {@link Normaliser} per tenant catalog, sharing what the tenants have in common and
+ * keeping the compiled catalogs within a memory budget.
+ *
+ * <p>Every tenant is compiled against one shared {@link TokenVocabulary}, so a token appearing
+ * in many taxonomies is held once, and is scored by one shared {@link Matchers} instance, so
+ * matcher caches such as the token masks of a
+ * {@link com.zanete.jobtitlenormaliser.matcher.BitParallelFuzzyTokenMatcher} are filled once
+ * for all tenants. Each tenant keeps its own preprocessor, since prefixes to ignore differ
+ * between taxonomies.</p>
+ *
+ * <p>Tenants are registered cold and compiled on first use. When the estimated size of the
+ * loaded catalogs exceeds the budget, the least recently used tenants are unloaded until it
+ * fits again; an unloaded tenant is recompiled on its next request. The tenant just loaded is
+ * never unloaded to make room for itself, so a single catalog larger than the budget still
+ * serves. Normalisers handed out before their tenant was unloaded keep working.</p>
+ *
+ * <p>Thread-safe. Concurrent first requests for a cold tenant compile it once.</p>
+ */
+public class NormaliserRegistry {
+
+  /**
+   * Default estimated heap for loaded catalogs.
+   */
+  public static final long DEFAULT_MEMORY_BUDGET_BYTES = 256L * 1024 * 1024;
+
+  /**
+   * Default size of each tenant's preprocessor token cache, smaller than a standalone
+   * normaliser's as there are many tenants.
+   */
+  public static final int DEFAULT_TENANT_TOKEN_CACHE_CAPACITY = 5_000;
+
+  private final Matchers matchers;
+  private final long memoryBudgetBytes;
+  private final int tokenCacheCapacity;
+  private final TokenVocabulary vocabulary = new TokenVocabulary();
+  private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+  private final AtomicLong clock = new AtomicLong();
+  // Guarded by this
+  private long loadedBytes;
+
+  private NormaliserRegistry(Builder builder) {
+    this.matchers = builder.matchers;
+    this.memoryBudgetBytes = builder.memoryBudgetBytes;
+    this.tokenCacheCapacity = builder.tokenCacheCapacity;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Registers a tenant's catalog without compiling it, replacing any catalog already registered
+   * under the id.
+   */
+  public void register(String tenantId, JobTitleProvider jobTitleProvider) {
+    Objects.requireNonNull(jobTitleProvider, "jobTitleProvider");
+    Tenant previous = tenants.put(tenantId, new Tenant(jobTitleProvider));
+    if (previous != null) {
+      unload(previous);
+    }
+  }
+
+  /**
+   * Removes a tenant, releasing its compiled catalog.
+   *
+   * @return true if the tenant was registered
+   */
+  public boolean unregister(String tenantId) {
+    Tenant tenant = tenants.remove(tenantId);
+    if (tenant != null) {
+      unload(tenant);
+    }
+    return tenant != null;
+  }
+
+  /**
+   * Returns the ids of the registered tenants.
+   */
+  public Set<String> tenantIds() {
+    return Set.copyOf(tenants.keySet());
+  }
+
+  /**
+   * Returns true if the tenant's catalog is currently compiled.
+   *
+   * @throws IllegalArgumentException if the tenant is not registered
+   */
+  public boolean isLoaded(String tenantId) {
+    return tenant(tenantId).normaliser != null;
+  }
+
+  /**
+   * Returns the estimated heap held by the compiled catalogs of the loaded tenants.
+   */
+  public synchronized long getLoadedBytes() {
+    return loadedBytes;
+  }
+
+  /**
+   * Returns the vocabulary shared by all tenants.
+   */
+  public TokenVocabulary vocabulary() {
+    return vocabulary;
+  }
+
+  /**
+   * Normalises the input against the tenant's catalog, as {@link Normaliser#normalise(String)}.
+   *
+   * @throws IllegalArgumentException if the tenant is not registered
+   */
+  public String normalise(String tenantId, String input) {
+    return normaliser(tenantId).normalise(input);
+  }
+
+  /**
+   * Normalises the input against the tenant's catalog,
+   * as {@link Normaliser#normaliseDetailed(String)}.
+   *
+   * @throws IllegalArgumentException if the tenant is not registered
+   */
+  public Optional<MatchedTitle> normaliseDetailed(String tenantId, String input) {
+    return normaliser(tenantId).normaliseDetailed(input);
+  }
+
+  /**
+   * Returns the tenant's normaliser, compiling its catalog first if it is not loaded.
+   *
+   * @throws IllegalArgumentException if the tenant is not registered
+   */
+  public Normaliser normaliser(String tenantId) {
+    Tenant tenant = tenant(tenantId);
+    tenant.lastUsed = clock.incrementAndGet();
+    Normaliser normaliser = tenant.normaliser;
+    return normaliser != null ? normaliser : load(tenantId, tenant);
+  }
+
+  private Tenant tenant(String tenantId) {
+    Tenant tenant = tenants.get(tenantId);
+    if (tenant == null) {
+      throw new IllegalArgumentException("Unknown tenant: " + tenantId);
+    }
+    return tenant;
+  }
+
+  private Normaliser load(String tenantId, Tenant tenant) {
+    synchronized (tenant) {
+      Normaliser normaliser = tenant.normaliser;
+      if (normaliser != null) {
+        return normaliser;
+      }
+      normaliser = Normaliser.builder()
+          .jobTitleProvider(tenant.jobTitleProvider)
+          .matchers(matchers)
+          .vocabulary(vocabulary)
+          .tokenCacheCapacity(tokenCacheCapacity)
+          .build();
+      long bytes = normaliser.compiledCatalog().estimatedBytes();
+      synchronized (this) {
+        // Unregistered or replaced while compiling: serve this request without keeping it
+        if (tenants.get(tenantId) != tenant) {
+          return normaliser;
+        }
+        tenant.normaliser = normaliser;
+        tenant.bytes = bytes;
+        loadedBytes += bytes;
+        evictOver(tenant);
+      }
+      return normaliser;
+    }
+  }
+
+  private synchronized void evictOver(Tenant keep) {
+    while (loadedBytes > memoryBudgetBytes) {
+      Optional<Tenant> coldest = tenants.values().stream()
+          .filter(tenant -> tenant != keep && tenant.normaliser != null)
+          .min(Comparator.comparingLong(tenant -> tenant.lastUsed));
+      if (coldest.isEmpty()) {
+        return;
+      }
+      unload(coldest.get());
+    }
+  }
+
+  private synchronized void unload(Tenant tenant) {
+    if (tenant.normaliser != null) {
+      tenant.normaliser = null;
+      loadedBytes -= tenant.bytes;
+      tenant.bytes = 0;
+    }
+  }
+
+  private static final class Tenant {
+    private final JobTitleProvider jobTitleProvider;
+    private volatile Normaliser normaliser;
+    // Guarded by the registry
+    private long bytes;
+    private volatile long lastUsed;
+
+    private Tenant(JobTitleProvider jobTitleProvider) {
+      this.jobTitleProvider = jobTitleProvider;
+    }
+  }
+
+  public static class Builder {
+    private Matchers matchers;
+    private long memoryBudgetBytes = DEFAULT_MEMORY_BUDGET_BYTES;
+    private int tokenCacheCapacity = DEFAULT_TENANT_TOKEN_CACHE_CAPACITY;
+
+    /**
+     * Sets the weighted matchers shared by every tenant.
+     */
+    public Builder matchers(Matchers matchers) {
+      this.matchers = matchers;
+      return this;
+    }
+
+    /**
+     * Sets the estimated heap the loaded catalogs may hold before cold tenants are unloaded.
+     *
+     * @throws IllegalArgumentException if the budget is negative
+     */
+    public Builder memoryBudgetBytes(long memoryBudgetBytes) {
+      if (memoryBudgetBytes < 0) {
+        throw new IllegalArgumentException("Memory budget must not be negative: " + memoryBudgetBytes);
+      }
+      this.memoryBudgetBytes = memoryBudgetBytes;
+      return this;
+    }
+
+    /**
+     * Sets the size of each tenant's preprocessor token cache, or 0 to disable it.
+     */
+    public Builder tokenCacheCapacity(int tokenCacheCapacity) {
+      this.tokenCacheCapacity = tokenCacheCapacity;
+      return this;
+    }
+
+    /**
+     * Constructs the {@link NormaliserRegistry}.
+     *
+     * @throws NullPointerException if the matchers are missing
+     */
+    public NormaliserRegistry build() {
+      Objects.requireNonNull(matchers, "matchers");
+      return new NormaliserRegistry(this);
+    }
+  }
+}
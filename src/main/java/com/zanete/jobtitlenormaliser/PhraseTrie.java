@@ -0,0 +1,101 @@
+package com.zanete.jobtitlenormaliser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token-level trie of phrases to strip from a token stream (e.g. "senior", "head of",
+ * "vice president of").
+ *
+ * <p>Each edge is a whole token, so lookups cost one hash probe per token rather than a
+ * scan of the phrase list. {@link #removeFrom(List)} walks the token stream once; at every
+ * position it follows the trie as far as the tokens allow and drops the longest phrase that
+ * ends there. Because phrases are only a few tokens deep, the walk from each position is
+ * bounded by the longest phrase, keeping the pass linear in practice.</p>
+ */
+class PhraseTrie {
+
+  private final Node root = new Node();
+  private boolean singleTokenOnly = true;
+
+  /**
+   * Compiles the given phrases, each already split into cleaned tokens.
+   * Empty phrases are ignored.
+   */
+  PhraseTrie(List<List<String>> phrases) {
+    for (List<String> phrase : phrases) {
+      if (phrase.isEmpty()) {
+        continue;
+      }
+      Node node = root;
+      for (String token : phrase) {
+        node = node.children.computeIfAbsent(token, key -> new Node());
+      }
+      node.terminal = true;
+      singleTokenOnly &= phrase.size() == 1;
+    }
+  }
+
+  /**
+   * Returns true if every phrase is a single token, in which case removing phrases is the same
+   * as dropping each token found by {@link #containsToken(String)}.
+   */
+  boolean isSingleTokenOnly() {
+    return singleTokenOnly;
+  }
+
+  /**
+   * Returns true if the token on its own is a phrase.
+   */
+  boolean containsToken(String token) {
+    Node node = root.children.get(token);
+    return node != null && node.terminal;
+  }
+
+  /**
+   * Returns the tokens with every occurrence of a known phrase removed.
+   * Overlapping matches are resolved leftmost-longest.
+   *
+   * @param tokens cleaned, non-blank tokens
+   * @return a new list without the matched phrases
+   */
+  List<String> removeFrom(List<String> tokens) {
+    if (root.children.isEmpty()) {
+      return tokens;
+    }
+    List<String> kept = new ArrayList<>(tokens.size());
+    int position = 0;
+    while (position < tokens.size()) {
+      int matchLength = longestMatchAt(tokens, position);
+      if (matchLength > 0) {
+        position += matchLength;
+      } else {
+        kept.add(tokens.get(position));
+        position++;
+      }
+    }
+    return kept;
+  }
+
+  private int longestMatchAt(List<String> tokens, int start) {
+    Node node = root;
+    int longest = 0;
+    for (int i = start; i < tokens.size(); i++) {
+      node = node.children.get(tokens.get(i));
+      if (node == null) {
+        break;
+      }
+      if (node.terminal) {
+        longest = i - start + 1;
+      }
+    }
+    return longest;
+  }
+
+  private static final class Node {
+    private final Map<String, Node> children = new HashMap<>(4);
+    private boolean terminal;
+  }
+}
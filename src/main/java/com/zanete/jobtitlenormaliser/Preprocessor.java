@@ -1,35 +1,86 @@
 package com.zanete.jobtitlenormaliser;
 
 
+import com.zanete.jobtitlenormaliser.cache.BoundedCache;
+import com.zanete.jobtitlenormaliser.model.CacheStatistics;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.Normalizer;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
  * String preprocessor responsible for cleaning and tokenising job titles.
  *
- * <p>Pipeline (single stream with a boolean prefix check):
+ * <p>Pipeline:
  * <ol>
- *   <li>Unicode normalise, lowercase and trim</li>
+ *   <li>Unicode normalise (skipped for pure ASCII input), lowercase and trim</li>
  *   <li>Split using common separators</li>
- *   <li>Remove accents and punctuation</li>
- *   <li>Filter out blank tokens and common prefixes via {@link #isCommonPrefix(String)}</li>
+ *   <li>Remove accents (non-ASCII tokens only) and punctuation</li>
+ *   <li>Filter out blank tokens</li>
+ *   <li>Remove ignored phrases (single- or multi-word, e.g. "senior", "head of")</li>
+ *   <li>Remove duplicate tokens</li>
  * </ol>
+ *
+ * <p>Ignored phrases are tokenised with the same pipeline and compiled into a
+ * {@link PhraseTrie} at construction, so they are removed in one pass over the tokens.</p>
+ *
+ * <p>Job titles reuse a small vocabulary, so cleaning results are memoised per split token in a
+ * bounded {@link BoundedCache}: after warm-up, cleaning a token is a single map lookup. The cache
+ * maps each split token to its cleaned form, or to an empty string when the token is dropped.
+ * When every ignored phrase is a single word, ignored tokens are dropped by the cache too and
+ * the phrase pass is skipped.</p>
+ *
+ * <p>UTF-8 input can be preprocessed straight from bytes. Pure ASCII input is split in place and
+ * each token is looked up in a second cache keyed by byte ranges, so a warm lookup creates no
+ * strings; input containing multi-byte characters is decoded and takes the string path, since
+ * it needs Unicode normalisation anyway.</p>
  */
 public class Preprocessor {
 
+  /**
+   * Default number of split tokens whose cleaned form is cached.
+   */
+  public static final int DEFAULT_TOKEN_CACHE_CAPACITY = 50_000;
+
   // Splits text on whitespace and common punctuation while preserving
   // characters used in technology names such as C#, C++, and .NET.
   // The separators include: spaces, commas, slashes, semicolons, colons,
   // quotes, parentheses, brackets, braces, exclamation marks, question marks,
   // at signs, underscores, and dashes — but NOT '+', '#', or '.'.
   private static final String COMMON_TEXT_SEPARATORS_REGEX = "[\\s,\\/;:'\"()\\[\\]{}!?@_\\-]+";
+  private static final Pattern COMMON_TEXT_SEPARATORS = Pattern.compile(COMMON_TEXT_SEPARATORS_REGEX);
 
-  private final List<String> jobTitlePrefixes;
+  // Cached value for tokens that are blank after cleaning or ignored outright
+  private static final String DROPPED = "";
+
+  private final PhraseTrie ignoredPhrases;
+  private final boolean dropIgnoredWhileCleaning;
+  // Null when caching is disabled
+  private final BoundedCache<String, String> tokenCache;
+  private final BoundedCache<Utf8Token, String> byteTokenCache;
 
   public Preprocessor(List<String> jobTitlePrefixes) {
-    this.jobTitlePrefixes = jobTitlePrefixes;
+    this(jobTitlePrefixes, DEFAULT_TOKEN_CACHE_CAPACITY);
+  }
+
+  /**
+   * Creates a preprocessor with a token cache of the given capacity.
+   *
+   * @param jobTitlePrefixes words and phrases to ignore
+   * @param tokenCacheCapacity number of split tokens to cache, or 0 to disable caching
+   * @throws IllegalArgumentException if the capacity is negative or 1
+   */
+  public Preprocessor(List<String> jobTitlePrefixes, int tokenCacheCapacity) {
+    this.ignoredPhrases = new PhraseTrie(jobTitlePrefixes.stream()
+        .map(phrase -> tokenise(phrase, false))
+        .toList());
+    this.dropIgnoredWhileCleaning = ignoredPhrases.isSingleTokenOnly();
+    this.tokenCache = tokenCacheCapacity == 0 ? null : new BoundedCache<>(tokenCacheCapacity);
+    this.byteTokenCache = tokenCacheCapacity == 0 ? null : new BoundedCache<>(tokenCacheCapacity);
   }
 
   /**
@@ -43,18 +94,178 @@ public class Preprocessor {
       return List.of();
     }
 
-    String normalised = Normalizer.normalize(input, Normalizer.Form.NFD)
-        .toLowerCase()
-        .trim();
+    return removeIgnoredAndDuplicates(tokenise(input, true));
+  }
+
+  /**
+   * Cleans and tokenises a slice of UTF-8 encoded bytes, with the same result as decoding them
+   * and calling {@link #preprocess(String)}.
+   *
+   * @param utf8 UTF-8 encoded input
+   * @param offset index of the first byte
+   * @param length number of bytes
+   * @return a list of cleaned, normalised tokens (words)
+   * @throws IndexOutOfBoundsException if the slice is outside the array
+   */
+  public List<String> preprocessUtf8(byte[] utf8, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, utf8.length);
+    return preprocessUtf8(ByteBuffer.wrap(utf8, offset, length));
+  }
 
-    return Arrays.stream(normalised.split(COMMON_TEXT_SEPARATORS_REGEX))
-        .map(this::removeAccents)
-        .map(this::removePunctuation)
-        .filter(token -> !isCommonPrefix(token))
+  /**
+   * Cleans and tokenises the UTF-8 encoded bytes between the buffer's position and limit,
+   * with the same result as decoding them and calling {@link #preprocess(String)}. The buffer's
+   * position is left unchanged, and it may be direct.
+   *
+   * @param utf8 UTF-8 encoded input
+   * @return a list of cleaned, normalised tokens (words)
+   */
+  public List<String> preprocessUtf8(ByteBuffer utf8) {
+    if (utf8 == null || !utf8.hasRemaining()) {
+      return List.of();
+    }
+    int start = utf8.position();
+    int end = utf8.limit();
+    if (!isAscii(utf8, start, end)) {
+      return preprocess(StandardCharsets.UTF_8.decode(utf8.duplicate()).toString());
+    }
+
+    List<String> tokens = new ArrayList<>();
+    int tokenStart = start;
+    for (int i = start; i <= end; i++) {
+      if (i == end || isSeparator(utf8.get(i))) {
+        if (i > tokenStart) {
+          String cleaned = cleanCached(new Utf8Token(utf8, tokenStart, i - tokenStart));
+          if (!isBlank(cleaned)) {
+            tokens.add(cleaned);
+          }
+        }
+        tokenStart = i + 1;
+      }
+    }
+    return removeIgnoredAndDuplicates(tokens);
+  }
+
+  /**
+   * Returns hit and size counters of the token cleaning cache for string input, or all zeros if
+   * it is disabled.
+   */
+  public CacheStatistics getTokenCacheStatistics() {
+    return tokenCache == null ? new CacheStatistics(0, 0, 0, 0) : tokenCache.getStatistics();
+  }
+
+  /**
+   * Returns hit and size counters of the token cleaning cache for UTF-8 input, or all zeros if
+   * it is disabled. It is separate from the string cache and has the same capacity.
+   */
+  public CacheStatistics getUtf8TokenCacheStatistics() {
+    return byteTokenCache == null ? new CacheStatistics(0, 0, 0, 0) : byteTokenCache.getStatistics();
+  }
+
+  private List<String> removeIgnoredAndDuplicates(List<String> tokens) {
+    if (!dropIgnoredWhileCleaning) {
+      tokens = ignoredPhrases.removeFrom(tokens);
+    }
+    return tokens.stream()
         .distinct()
         .collect(Collectors.toList());
   }
 
+  /**
+   * Normalises, splits and cleans the input, keeping blank-free tokens in order.
+   *
+   * @param cached whether to go through the token cache, which also drops ignored words
+   *               when every ignored phrase is a single word
+   */
+  private List<String> tokenise(String input, boolean cached) {
+    if (input == null || input.isBlank()) {
+      return List.of();
+    }
+
+    // Pure ASCII text has no decomposable characters, so NFD would return it unchanged
+    String decomposed = isAscii(input) ? input : Normalizer.normalize(input, Normalizer.Form.NFD);
+    String normalised = decomposed
+        .toLowerCase()
+        .trim();
+
+    String[] splitTokens = COMMON_TEXT_SEPARATORS.split(normalised);
+    List<String> tokens = new ArrayList<>(splitTokens.length);
+    for (String splitToken : splitTokens) {
+      String cleaned = cached ? cleanCached(splitToken) : clean(splitToken);
+      if (!isBlank(cleaned)) {
+        tokens.add(cleaned);
+      }
+    }
+    return tokens;
+  }
+
+  private String cleanCached(String splitToken) {
+    if (tokenCache == null) {
+      return cleanOrDrop(splitToken);
+    }
+    return tokenCache.get(splitToken, this::cleanOrDrop);
+  }
+
+  private String cleanCached(Utf8Token splitToken) {
+    if (byteTokenCache == null) {
+      return cleanOrDrop(splitToken.toLowerCaseString());
+    }
+    return byteTokenCache.get(splitToken, Utf8Token::copy,
+        token -> cleanOrDrop(token.toLowerCaseString()));
+  }
+
+  private String cleanOrDrop(String splitToken) {
+    String cleaned = clean(splitToken);
+    boolean ignored = dropIgnoredWhileCleaning && ignoredPhrases.containsToken(cleaned);
+    return isBlank(cleaned) || ignored ? DROPPED : cleaned;
+  }
+
+  private String clean(String splitToken) {
+    // Combining marks are never ASCII, so only non-ASCII tokens can carry accents
+    String unaccented = isAscii(splitToken) ? splitToken : removeAccents(splitToken);
+    return removePunctuation(unaccented);
+  }
+
+  /**
+   * Returns true if every character is 7-bit ASCII.
+   */
+  static boolean isAscii(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isAscii(ByteBuffer bytes, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (bytes.get(i) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if the byte is one of {@link #COMMON_TEXT_SEPARATORS_REGEX}.
+   */
+  private static boolean isSeparator(byte b) {
+    return isSeparator((char) b);
+  }
+
+  /**
+   * Returns true if the character is one of {@link #COMMON_TEXT_SEPARATORS_REGEX}, so that text
+   * on either side of it is tokenised separately.
+   */
+  static boolean isSeparator(char c) {
+    return switch (c) {
+      case ' ', '\t', '\n', 0x0B, '\f', '\r', ',', '/', ';', ':', '\'', '"', '(', ')', '[', ']',
+          '{', '}', '!', '?', '@', '_', '-' -> true;
+      default -> false;
+    };
+  }
+
   /**
    * Removes accents (diacritics) from characters, e.g. "résumé" → "resume".
    */
@@ -94,14 +305,9 @@ public class Preprocessor {
   }
 
   /**
-   * Returns true if the token is considered a prefix to filter out.
-   * This also treats null/blank tokens as "common prefixes" so they are removed
-   * by the single stream pipeline.
-   *
-   * @param token candidate token (already lowercased)
-   * @return true if token is blank or present in the prefix list
+   * Returns true if the token is null or blank and should be dropped.
    */
-  private boolean isCommonPrefix(String token) {
-    return token == null || token.isBlank() || jobTitlePrefixes.contains(token);
+  private boolean isBlank(String token) {
+    return token == null || token.isBlank();
   }
 }
\ No newline at end of file
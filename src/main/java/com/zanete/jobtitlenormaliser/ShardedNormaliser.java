@@ -0,0 +1,143 @@
+package com.zanete.jobtitlenormaliser;
+
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Scatter-gather wrapper that scores a single query across shards of a {@link Normaliser}'s
+ * compiled catalog in parallel.
+ *
+ * <p>The catalog is split into contiguous shards of roughly equal size. Each query is
+ * preprocessed once; the calling thread scores the first shard itself while the remaining
+ * shards are scored on the executor. Shard-local results are merged in shard order, so titles
+ * with equal scores resolve exactly as they would in the unsharded {@link Normaliser}.</p>
+ *
+ * <p>Requests resolve as the wrapped normaliser's do: {@link #normaliseDetailed(String)} goes
+ * through its alias table, result cache and cascade, and only scores the catalog in shards when
+ * none of them resolves the input; {@link #normaliseTopK(String, int)}, like
+ * {@link Normaliser#normaliseTopK(String, int)}, consults only the alias table before scoring.
+ * Explain sampling does not apply to sharded requests.</p>
+ *
+ * <p>Sharding pays off for large catalogs when there are idle cores; with small catalogs the
+ * hand-off costs more than the scan it saves.</p>
+ */
+public class ShardedNormaliser {
+
+  private final Normaliser normaliser;
+  private final CompiledCatalog catalog;
+  private final int[] shards;
+  private final Executor executor;
+
+  /**
+   * Shards the normaliser's catalog, scoring shards on the common fork-join pool.
+   */
+  public ShardedNormaliser(Normaliser normaliser, int shardCount) {
+    this(normaliser, shardCount, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Shards the normaliser's catalog, scoring shards on the given executor.
+   * Waits for the catalog to be compiled if it is still compiling in the background.
+   *
+   * @param normaliser the normaliser whose catalog and matchers are used
+   * @param shardCount number of shards (at least 1)
+   * @param executor executor for all but the first shard
+   * @throws IllegalArgumentException if shardCount is less than 1
+   */
+  public ShardedNormaliser(Normaliser normaliser, int shardCount, Executor executor) {
+    if (shardCount < 1) {
+      throw new IllegalArgumentException("Shard count must be at least 1: " + shardCount);
+    }
+    this.normaliser = normaliser;
+    this.executor = executor;
+    this.catalog = normaliser.compiledCatalog();
+    this.shards = partition(catalog.size(), shardCount);
+  }
+
+  /**
+   * Returns the number of non-empty shards the catalog was split into.
+   */
+  public int getShardCount() {
+    return shards.length - 1;
+  }
+
+  /**
+   * Attempts to normalise a given input title, as {@link Normaliser#normalise(String)}.
+   */
+  public String normalise(String input) {
+    return normaliseDetailed(input).map(MatchedTitle::title).orElse("");
+  }
+
+  /**
+   * Returns the best match across all shards, as {@link Normaliser#normaliseDetailed(String)}.
+   */
+  public Optional<MatchedTitle> normaliseDetailed(String input) {
+    List<String> inputTokens = normaliser.preprocess(input);
+    return normaliser.resolve(inputTokens, () ->
+        gather((from, to) -> normaliser.matches(inputTokens, catalog, from, to).max(Normaliser.BY_SCORE)
+            .map(List::of)
+            .orElse(List.of()))
+            .stream()
+            .max(Normaliser.BY_SCORE));
+  }
+
+  /**
+   * Returns up to {@code k} best matches across all shards,
+   * as {@link Normaliser#normaliseTopK(String, int)}.
+   */
+  public List<MatchedTitle> normaliseTopK(String input, int k) {
+    List<String> inputTokens = normaliser.preprocess(input);
+    List<MatchedTitle> merged =
+        gather((from, to) -> Normaliser.topMatches(normaliser.matches(inputTokens, catalog, from, to), k));
+    return Normaliser.topMatches(normaliser.alias(inputTokens), merged.stream(), k);
+  }
+
+  /**
+   * Runs the shard task over every shard and concatenates the results in shard order.
+   */
+  private List<MatchedTitle> gather(ShardTask task) {
+    int shardCount = shards.length - 1;
+    List<CompletableFuture<List<MatchedTitle>>> pending = new ArrayList<>(Math.max(shardCount - 1, 0));
+    for (int i = 1; i < shardCount; i++) {
+      int from = shards[i];
+      int to = shards[i + 1];
+      pending.add(CompletableFuture.supplyAsync(() -> task.score(from, to), executor));
+    }
+
+    List<MatchedTitle> merged = new ArrayList<>();
+    if (shardCount > 0) {
+      merged.addAll(task.score(shards[0], shards[1]));
+    }
+    for (CompletableFuture<List<MatchedTitle>> shardResult : pending) {
+      merged.addAll(shardResult.join());
+    }
+    return merged;
+  }
+
+  /**
+   * Returns shard boundaries: shard {@code i} covers titles {@code bounds[i]} (inclusive) to
+   * {@code bounds[i + 1]} (exclusive).
+   */
+  private static int[] partition(int titleCount, int shardCount) {
+    int count = Math.min(shardCount, titleCount);
+    if (count == 0) {
+      // An empty catalog has no shards
+      return new int[] {0};
+    }
+    int[] bounds = new int[count + 1];
+    for (int i = 0; i <= count; i++) {
+      bounds[i] = (int) ((long) titleCount * i / count);
+    }
+    return bounds;
+  }
+
+  @FunctionalInterface
+  private interface ShardTask {
+    List<MatchedTitle> score(int from, int to);
+  }
+}
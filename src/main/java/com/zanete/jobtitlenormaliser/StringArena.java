@@ -0,0 +1,187 @@
+package com.zanete.jobtitlenormaliser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Strings packed one byte per character into a single array, with each string's start in an
+ * offsets array, instead of a {@code String} and backing array each. Strings with characters
+ * beyond Latin-1 are rare in preprocessed titles and are kept as {@code String}s on the side.
+ *
+ * <p>An arena built with an index also finds a string's position from its content, through an
+ * open-addressing table of positions probed by the string's hash code, so lookups need neither
+ * a map entry nor a {@code String} per stored string.</p>
+ *
+ * <p>Immutable and thread-safe; a {@link View} is not and belongs to one thread.</p>
+ */
+final class StringArena {
+
+  private final byte[] bytes;
+  private final int[] offsets;
+  // Null unless some string is beyond Latin-1; otherwise null except at those positions
+  private final String[] wide;
+  // Null unless indexed
+  private final int[] hashes;
+  // Position + 1 of the string in each slot, or 0 for an empty slot; null unless indexed
+  private final int[] slots;
+
+  StringArena(List<String> strings, boolean indexed) {
+    int size = strings.size();
+    offsets = new int[size + 1];
+    String[] wideStrings = null;
+    int length = 0;
+    for (int i = 0; i < size; i++) {
+      String string = strings.get(i);
+      if (HeapSize.isLatin1(string)) {
+        length += string.length();
+      } else {
+        wideStrings = wideStrings == null ? new String[size] : wideStrings;
+        wideStrings[i] = string;
+      }
+      offsets[i + 1] = length;
+    }
+    wide = wideStrings;
+    bytes = new byte[length];
+    for (int i = 0; i < size; i++) {
+      if (wide == null || wide[i] == null) {
+        byte[] encoded = strings.get(i).getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(encoded, 0, bytes, offsets[i], encoded.length);
+      }
+    }
+
+    if (!indexed) {
+      hashes = null;
+      slots = null;
+      return;
+    }
+    hashes = new int[size];
+    slots = new int[Integer.highestOneBit(Math.max(size, 1) * 2 - 1) * 2];
+    for (int i = 0; i < size; i++) {
+      hashes[i] = strings.get(i).hashCode();
+      int slot = hashes[i] & (slots.length - 1);
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & (slots.length - 1);
+      }
+      slots[slot] = i + 1;
+    }
+  }
+
+  int size() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Returns string {@code i} as a new {@code String}.
+   */
+  String get(int i) {
+    if (wide != null && wide[i] != null) {
+      return wide[i];
+    }
+    return new String(bytes, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Returns string {@code i} without copying it: the view, pointed at it, or a side
+   * {@code String}.
+   */
+  CharSequence get(int i, View view) {
+    if (wide != null && wide[i] != null) {
+      return wide[i];
+    }
+    view.offset = offsets[i];
+    view.length = offsets[i + 1] - offsets[i];
+    return view;
+  }
+
+  /**
+   * Returns the position of the string, or -1 if it is not in the arena.
+   *
+   * @throws IllegalStateException if the arena was built without an index
+   */
+  int indexOf(String string) {
+    if (slots == null) {
+      throw new IllegalStateException("Arena has no index");
+    }
+    int hash = string.hashCode();
+    for (int slot = hash & (slots.length - 1); slots[slot] != 0; slot = (slot + 1) & (slots.length - 1)) {
+      int i = slots[slot] - 1;
+      if (hashes[i] == hash && contentEquals(i, string)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns a view for reading strings without copying them.
+   */
+  View view() {
+    return new View();
+  }
+
+  /**
+   * Returns the heap held by the arena: its arrays, side strings and index.
+   */
+  long estimatedBytes() {
+    long size = HeapSize.align(HeapSize.OBJECT_HEADER + 5L * HeapSize.REFERENCE)
+        + HeapSize.array(bytes.length, 1) + HeapSize.array(offsets.length, 4);
+    if (wide != null) {
+      size += HeapSize.array(wide.length, HeapSize.REFERENCE);
+      for (String string : wide) {
+        size += string == null ? 0 : HeapSize.string(string);
+      }
+    }
+    if (slots != null) {
+      size += HeapSize.array(hashes.length, 4) + HeapSize.array(slots.length, 4);
+    }
+    return size;
+  }
+
+  private boolean contentEquals(int i, String string) {
+    if (wide != null && wide[i] != null) {
+      return wide[i].equals(string);
+    }
+    int offset = offsets[i];
+    int length = offsets[i + 1] - offset;
+    if (length != string.length()) {
+      return false;
+    }
+    for (int c = 0; c < length; c++) {
+      if ((bytes[offset + c] & 0xFF) != string.charAt(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A reusable window onto one Latin-1 string of the arena.
+   */
+  final class View implements CharSequence {
+    private int offset;
+    private int length;
+
+    private View() {
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) (bytes[offset + index] & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+      return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.zanete.jobtitlenormaliser;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned token vocabulary assigning each distinct token a dense integer id.
+ *
+ * <p>A vocabulary can be shared by several {@link CompiledCatalog}s, for example every tenant of
+ * a {@link NormaliserRegistry}: catalogs then hold one canonical string per token instead of a
+ * copy each, and token ids mean the same thing in every catalog.</p>
+ *
+ * <p>Tokens are never removed, so a shared vocabulary grows to the union of all catalogs it has
+ * compiled. Job title vocabularies are small next to the catalogs themselves.</p>
+ *
+ * <p>Thread-safe.</p>
+ */
+public final class TokenVocabulary {
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the id of the token, assigning the next id if it is new.
+   */
+  public int id(String token) {
+    return entry(token).id;
+  }
+
+  /**
+   * Returns the canonical instance of the token, adding it if it is new.
+   */
+  public String intern(String token) {
+    return entry(token).token;
+  }
+
+  /**
+   * Returns the id of the token, or -1 if it is not in the vocabulary.
+   */
+  public int lookup(String token) {
+    Entry entry = entries.get(token);
+    return entry == null ? -1 : entry.id;
+  }
+
+  /**
+   * Returns the number of distinct tokens.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  private Entry entry(String token) {
+    Entry entry = entries.get(token);
+    if (entry != null) {
+      return entry;
+    }
+    synchronized (entries) {
+      // Ids are assigned under the lock so they stay dense
+      return entries.computeIfAbsent(token, key -> new Entry(key, entries.size()));
+    }
+  }
+
+  private static final class Entry {
+    private final String token;
+    private final int id;
+
+    private Entry(String token, int id) {
+      this.token = token;
+      this.id = id;
+    }
+  }
+}
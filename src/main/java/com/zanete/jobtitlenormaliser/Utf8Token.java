@@ -0,0 +1,86 @@
+package com.zanete.jobtitlenormaliser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ASCII token addressed as a range of bytes, compared and hashed case-insensitively.
+ *
+ * <p>Used as a token cache key on the byte input path: a probe is a view over the caller's
+ * buffer, so looking a token up allocates no characters. Only {@link #copy()} should be stored,
+ * so the cache never pins a caller's buffer.</p>
+ */
+final class Utf8Token {
+
+  private final ByteBuffer bytes;
+  private final int offset;
+  private final int length;
+  private final int hash;
+
+  /**
+   * Creates a view over {@code length} bytes of the buffer starting at absolute index
+   * {@code offset}. The bytes must be ASCII.
+   */
+  Utf8Token(ByteBuffer bytes, int offset, int length) {
+    this.bytes = bytes;
+    this.offset = offset;
+    this.length = length;
+    int h = 1;
+    for (int i = 0; i < length; i++) {
+      h = 31 * h + toLowerAscii(bytes.get(offset + i));
+    }
+    this.hash = h;
+  }
+
+  /**
+   * Returns a lowercase copy of the token that does not reference the original buffer.
+   */
+  Utf8Token copy() {
+    return new Utf8Token(ByteBuffer.wrap(lowercaseBytes()), 0, length);
+  }
+
+  /**
+   * Decodes the token to a lowercase string.
+   */
+  String toLowerCaseString() {
+    return new String(lowercaseBytes(), StandardCharsets.US_ASCII);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof Utf8Token token) || token.length != length || token.hash != hash) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (toLowerAscii(bytes.get(offset + i)) != toLowerAscii(token.bytes.get(token.offset + i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return toLowerCaseString();
+  }
+
+  private byte[] lowercaseBytes() {
+    byte[] lowercase = new byte[length];
+    for (int i = 0; i < length; i++) {
+      lowercase[i] = toLowerAscii(bytes.get(offset + i));
+    }
+    return lowercase;
+  }
+
+  private static byte toLowerAscii(byte b) {
+    return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+  }
+}
@@ -0,0 +1,414 @@
+package com.zanete.jobtitlenormaliser.alias;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent map from canonical (preprocessed) job title keys to confirmed normalised titles,
+ * held in a memory-mapped file.
+ *
+ * <p>The file is an open-addressing hash table followed by an append-only record area:
+ * <pre>
+ *   header   magic, version, slot count, entry count, end of records
+ *   slots    slot count x (record offset, key hash), probed linearly
+ *   records  key length, value length, UTF-8 key, UTF-8 value, CRC-32
+ * </pre>
+ * A lookup hashes the key, probes a few slots and compares one record, so it costs the same
+ * whatever the table's size. Writing a key appends a record and then points its slot at it;
+ * rewriting a key appends a new record and repoints the slot, leaving the old record behind
+ * until {@link #compact()}.</p>
+ *
+ * <p>Crash safety rests on the record checksums rather than on write ordering: a slot whose
+ * record is incomplete, corrupt or beyond the recorded end is treated as unusable, so after a
+ * crash a key may be missing but is never mapped to a wrong or garbled title. Growing the slot
+ * array and compacting write a new file and atomically rename it over the old one, so either
+ * the old or the new table survives a crash. {@link #put(String, String)} forces its writes to
+ * disk before returning; {@link #putAll(Map)} forces once at the end.</p>
+ *
+ * <p>Thread-safe: lookups run concurrently, writes exclusively. Only one process may have a
+ * table open for writing. The file must stay under 2 GiB, the limit of a single mapping.</p>
+ */
+public class AliasTable implements AutoCloseable {
+
+  static final int MAGIC = 0x414C4954;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 32;
+  static final int SLOT_SIZE = 16;
+  private static final int RECORD_OVERHEAD = 12;
+  private static final int MIN_SLOTS = 1024;
+  private static final double MAX_LOAD = 0.5;
+  private static final int MIN_GROWTH = 4096;
+
+  private static final int SLOT_COUNT_OFFSET = 8;
+  private static final int ENTRY_COUNT_OFFSET = 12;
+  private static final int DATA_END_OFFSET = 16;
+
+  private final Path path;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // Guarded by lock
+  private FileChannel channel;
+  private MappedByteBuffer buffer;
+  private int slotCount;
+  private int entryCount;
+  private long dataEnd;
+
+  private AliasTable(Path path) throws IOException {
+    this.path = path;
+    map();
+  }
+
+  /**
+   * Opens the table at the given path, creating an empty one if the file does not exist.
+   *
+   * @throws IOException if the file cannot be read or is not an alias table
+   */
+  public static AliasTable open(Path path) throws IOException {
+    if (!Files.exists(path)) {
+      write(path, MIN_SLOTS, mappings -> { });
+    }
+    return new AliasTable(path);
+  }
+
+  /**
+   * Returns the key under which a preprocessed title's aliases are stored: its tokens joined
+   * by single spaces.
+   */
+  public static String key(List<String> tokens) {
+    return String.join(" ", tokens);
+  }
+
+  /**
+   * Returns the normalised title confirmed for the key, if any.
+   */
+  public Optional<String> get(String key) {
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    int hash = hash(keyBytes);
+    lock.readLock().lock();
+    try {
+      int slot = find(keyBytes, hash);
+      long offset = slot < 0 ? 0 : buffer.getLong(slotPosition(slot));
+      return offset == 0 ? Optional.empty() : Optional.of(value(offset));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Maps the key to the normalised title, replacing any earlier mapping, and forces the change
+   * to disk.
+   *
+   * @throws UncheckedIOException if the table cannot be written
+   */
+  public void put(String key, String value) {
+    putAll(Map.of(key, value));
+  }
+
+  /**
+   * Maps every key to its normalised title, replacing earlier mappings, and forces the changes
+   * to disk once at the end. Suited to bulk loads.
+   *
+   * @throws UncheckedIOException if the table cannot be written
+   */
+  public void putAll(Map<String, String> aliases) {
+    lock.writeLock().lock();
+    try {
+      for (Map.Entry<String, String> alias : aliases.entrySet()) {
+        append(alias.getKey(), alias.getValue());
+      }
+      buffer.force();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of keys with a readable mapping.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return entryCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the size of the table file in bytes.
+   */
+  public long fileSize() throws IOException {
+    lock.readLock().lock();
+    try {
+      return channel.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Passes every readable mapping to the consumer, in slot order.
+   */
+  public void forEach(BiConsumer<String, String> consumer) {
+    lock.readLock().lock();
+    try {
+      visit(consumer);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Rewrites the table with only its current mappings, dropping superseded and unreadable
+   * records and sizing the slot array to the number of keys.
+   */
+  public void compact() throws IOException {
+    lock.writeLock().lock();
+    try {
+      rebuild(slotsFor(entryCount));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.writeLock().lock();
+    try {
+      buffer.force();
+      channel.close();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void append(String key, String value) throws IOException {
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+    int hash = hash(keyBytes);
+    int slot = find(keyBytes, hash);
+    boolean newKey = slot < 0;
+    if (newKey && entryCount + 1 > slotCount * MAX_LOAD) {
+      rebuild(slotCount * 2);
+      slot = find(keyBytes, hash);
+    }
+    int recordSize = RECORD_OVERHEAD + keyBytes.length + valueBytes.length;
+    if (dataEnd + recordSize > buffer.capacity()) {
+      grow(dataEnd + recordSize);
+    }
+
+    long offset = dataEnd;
+    int position = (int) offset;
+    buffer.putInt(position, keyBytes.length);
+    buffer.putInt(position + 4, valueBytes.length);
+    buffer.put(position + 8, keyBytes);
+    buffer.put(position + 8 + keyBytes.length, valueBytes);
+    buffer.putInt(position + 8 + keyBytes.length + valueBytes.length,
+        checksum(position, 8 + keyBytes.length + valueBytes.length));
+    dataEnd += recordSize;
+    buffer.putLong(DATA_END_OFFSET, dataEnd);
+
+    // The slot is written last: until then the new record is simply unreferenced
+    int slotPosition = slotPosition(slot < 0 ? -slot - 1 : slot);
+    buffer.putInt(slotPosition + 8, hash);
+    buffer.putLong(slotPosition, offset);
+    if (newKey) {
+      buffer.putInt(ENTRY_COUNT_OFFSET, ++entryCount);
+    }
+  }
+
+  /**
+   * Returns the slot holding a readable record of the key, or {@code -(slot + 1)} for the slot a
+   * new mapping of it should take.
+   */
+  private int find(byte[] keyBytes, int hash) {
+    int mask = slotCount - 1;
+    int reusable = -1;
+    for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+      int position = slotPosition(slot);
+      long offset = buffer.getLong(position);
+      if (offset == 0) {
+        return -(reusable >= 0 ? reusable : slot) - 1;
+      }
+      if (buffer.getInt(position + 8) == hash) {
+        if (!isReadable(offset)) {
+          // Left by a crash, most likely while rewriting this very key. Probing continues,
+          // as the slot may also have been taken for the key later
+          reusable = reusable >= 0 ? reusable : slot;
+        } else if (keyEquals(offset, keyBytes)) {
+          return slot;
+        }
+      }
+    }
+  }
+
+  private boolean isReadable(long offset) {
+    long dataStart = dataStart(slotCount);
+    if (offset < dataStart || offset + RECORD_OVERHEAD > dataEnd) {
+      return false;
+    }
+    int position = (int) offset;
+    long keyLength = buffer.getInt(position);
+    long valueLength = buffer.getInt(position + 4);
+    if (keyLength < 0 || valueLength < 0 || offset + RECORD_OVERHEAD + keyLength + valueLength > dataEnd) {
+      return false;
+    }
+    int length = (int) (8 + keyLength + valueLength);
+    return buffer.getInt(position + length) == checksum(position, length);
+  }
+
+  private boolean keyEquals(long offset, byte[] keyBytes) {
+    int position = (int) offset;
+    if (buffer.getInt(position) != keyBytes.length) {
+      return false;
+    }
+    for (int i = 0; i < keyBytes.length; i++) {
+      if (buffer.get(position + 8 + i) != keyBytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String key(long offset) {
+    int position = (int) offset;
+    byte[] bytes = new byte[buffer.getInt(position)];
+    buffer.get(position + 8, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private String value(long offset) {
+    int position = (int) offset;
+    int keyLength = buffer.getInt(position);
+    byte[] bytes = new byte[buffer.getInt(position + 4)];
+    buffer.get(position + 8 + keyLength, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private void visit(BiConsumer<String, String> consumer) {
+    for (int slot = 0; slot < slotCount; slot++) {
+      long offset = buffer.getLong(slotPosition(slot));
+      if (offset != 0 && isReadable(offset)) {
+        consumer.accept(key(offset), value(offset));
+      }
+    }
+  }
+
+  private int checksum(int position, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(buffer.slice(position, length));
+    return (int) crc.getValue();
+  }
+
+  private void grow(long required) throws IOException {
+    if (required > Integer.MAX_VALUE) {
+      throw new IOException("Alias table would exceed 2 GiB: " + path);
+    }
+    buffer.force();
+    // Doubles the record area, leaving the slot array out of the growth
+    long recordArea = buffer.capacity() - dataStart(slotCount);
+    long size = Math.min(Math.max(required, buffer.capacity() + Math.max(recordArea, MIN_GROWTH)),
+        Integer.MAX_VALUE);
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+  }
+
+  private void rebuild(int newSlotCount) throws IOException {
+    Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    write(temporary, newSlotCount, this::visit);
+    buffer.force();
+    channel.close();
+    Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    map();
+  }
+
+  private void map() throws IOException {
+    channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      channel.close();
+      throw new IOException("Not an alias table: " + path);
+    }
+    slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+    // A crash while growing can leave the recorded end past the mapped file
+    dataEnd = Math.min(buffer.getLong(DATA_END_OFFSET), buffer.capacity());
+    if (slotCount < MIN_SLOTS || Integer.bitCount(slotCount) != 1 || dataEnd < dataStart(slotCount)) {
+      channel.close();
+      throw new IOException("Corrupt alias table header: " + path);
+    }
+    // Recounted rather than trusted, as records lost in a crash may still be counted
+    int[] readable = new int[1];
+    visit((key, value) -> readable[0]++);
+    entryCount = readable[0];
+  }
+
+  /**
+   * Writes a table with the given slot count holding the mappings the source passes on, and
+   * forces it to disk.
+   */
+  private static void write(Path target, int slotCount, Consumer<BiConsumer<String, String>> source)
+      throws IOException {
+    try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      long dataStart = dataStart(slotCount);
+      MappedByteBuffer header = out.map(FileChannel.MapMode.READ_WRITE, 0, dataStart);
+      header.putInt(0, MAGIC);
+      header.putInt(4, VERSION);
+      header.putInt(SLOT_COUNT_OFFSET, slotCount);
+      header.putLong(DATA_END_OFFSET, dataStart);
+      header.force();
+    }
+    AliasTable table = new AliasTable(target);
+    try {
+      source.accept((key, value) -> {
+        try {
+          table.append(key, value);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } finally {
+      table.close();
+    }
+  }
+
+  private static int slotsFor(int entries) {
+    int slots = MIN_SLOTS;
+    while (entries > slots * MAX_LOAD) {
+      slots *= 2;
+    }
+    return slots;
+  }
+
+  private static long dataStart(int slotCount) {
+    return HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+  }
+
+  private static int slotPosition(int slot) {
+    return HEADER_SIZE + slot * SLOT_SIZE;
+  }
+
+  private static int hash(byte[] keyBytes) {
+    int hash = 1;
+    for (byte b : keyBytes) {
+      hash = 31 * hash + b;
+    }
+    // Spread the high bits into the low bits used to pick a slot
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -0,0 +1,88 @@
+package com.zanete.jobtitlenormaliser.alias;
+
+import com.zanete.jobtitlenormaliser.FileJobTitleProvider;
+import com.zanete.jobtitlenormaliser.JobTitleProvider;
+import com.zanete.jobtitlenormaliser.Preprocessor;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line tooling to bulk-load and compact an {@link AliasTable}.
+ *
+ * <p>Usage:
+ * <pre>
+ *   AliasTableTool load &lt;table&gt; &lt;aliasesFile&gt; &lt;titlesFile&gt; &lt;prefixesFile&gt;
+ *   AliasTableTool compact &lt;table&gt;
+ * </pre>
+ * The aliases file is UTF-8 text with one {@code raw title<TAB>normalised title} pair per line;
+ * blank lines and lines starting with {@code #} are skipped. Raw titles are keyed exactly as
+ * a {@code Normaliser} over the same titles and prefixes keys its input.</p>
+ */
+public final class AliasTableTool {
+
+  private AliasTableTool() {
+  }
+
+  /**
+   * Loads every alias in the file into the table, forcing the table to disk once at the end.
+   *
+   * @return the number of aliases loaded
+   * @throws IllegalArgumentException if a line is malformed, its raw title has no tokens or its
+   *     normalised title is not one of the provider's titles; nothing is loaded then
+   */
+  public static int bulkLoad(AliasTable table, JobTitleProvider jobTitleProvider, Path aliasesFile)
+      throws IOException {
+    Preprocessor preprocessor = new Preprocessor(jobTitleProvider.getJobTitlePrefixesToIgnore());
+    Set<String> titles = new HashSet<>(jobTitleProvider.getNormalisedJobTitles());
+    Map<String, String> aliases = new LinkedHashMap<>();
+    List<String> lines = Files.readAllLines(aliasesFile, StandardCharsets.UTF_8);
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i);
+      if (line.isBlank() || line.startsWith("#")) {
+        continue;
+      }
+      String[] fields = line.split("\t", -1);
+      if (fields.length != 2) {
+        throw new IllegalArgumentException("Line " + (i + 1) + ": expected raw and normalised title separated by a tab");
+      }
+      List<String> tokens = preprocessor.preprocess(fields[0]);
+      if (tokens.isEmpty()) {
+        throw new IllegalArgumentException("Line " + (i + 1) + ": raw title has no tokens: " + fields[0]);
+      }
+      String normalised = fields[1].strip();
+      if (!titles.contains(normalised)) {
+        throw new IllegalArgumentException("Line " + (i + 1) + ": not a catalog title: " + normalised);
+      }
+      aliases.put(AliasTable.key(tokens), normalised);
+    }
+    table.putAll(aliases);
+    return aliases.size();
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length == 5 && args[0].equals("load")) {
+      FileJobTitleProvider provider = new FileJobTitleProvider(Path.of(args[4]), Path.of(args[3]));
+      try (AliasTable table = AliasTable.open(Path.of(args[1]))) {
+        int loaded = bulkLoad(table, provider, Path.of(args[2]));
+        System.out.printf("Loaded %d aliases, %d in table%n", loaded, table.size());
+      }
+    } else if (args.length == 2 && args[0].equals("compact")) {
+      try (AliasTable table = AliasTable.open(Path.of(args[1]))) {
+        long before = table.fileSize();
+        table.compact();
+        System.out.printf("Compacted %d aliases from %,d to %,d bytes%n", table.size(), before, table.fileSize());
+      }
+    } else {
+      System.err.println("Usage: AliasTableTool load <table> <aliasesFile> <titlesFile> <prefixesFile>");
+      System.err.println("       AliasTableTool compact <table>");
+      System.exit(2);
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.zanete.jobtitlenormaliser.cache;
+
+import com.zanete.jobtitlenormaliser.model.CacheStatistics;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe memoisation cache holding a bounded number of entries.
+ *
+ * <p>Entries live in two generations. New entries go into the current generation; when it is
+ * full it becomes the previous generation and the old previous generation is dropped. A hit in
+ * the previous generation copies the entry forward, so frequently used keys survive rotations
+ * while keys not used for a whole generation are evicted. This approximates LRU without any
+ * per-access bookkeeping beyond a hash lookup.</p>
+ *
+ * <p>Values are computed outside any lock, so two threads missing on the same key may both
+ * compute it; the function must therefore be side-effect free. For the same reason concurrent
+ * writers can overshoot a generation by a few entries before it rotates.</p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> {
+
+  private final int capacity;
+  private final int generationCapacity;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private volatile Map<K, V> current = new ConcurrentHashMap<>();
+  private volatile Map<K, V> previous = Map.of();
+
+  /**
+   * Creates a cache holding up to {@code capacity} entries.
+   *
+   * @param capacity maximum number of entries (at least 2)
+   * @throws IllegalArgumentException if capacity is less than 2
+   */
+  public BoundedCache(int capacity) {
+    if (capacity < 2) {
+      throw new IllegalArgumentException("Cache capacity must be at least 2: " + capacity);
+    }
+    this.capacity = capacity;
+    this.generationCapacity = capacity / 2;
+  }
+
+  /**
+   * Returns the cached value for the key, computing and caching it on a miss.
+   */
+  public V get(K key, Function<? super K, ? extends V> compute) {
+    return get(key, UnaryOperator.identity(), compute);
+  }
+
+  /**
+   * Returns the cached value for the key, computing and caching it on a miss. The key passed in
+   * is only used for the lookup; whenever an entry is written it is stored under
+   * {@code keyToStore.apply(key)}, which must be equal to the key. This lets callers probe with
+   * a cheap view, such as a slice of a reusable buffer, and store an independent copy.
+   */
+  public V get(K key, UnaryOperator<K> keyToStore, Function<? super K, ? extends V> compute) {
+    V value = current.get(key);
+    if (value != null) {
+      hits.increment();
+      return value;
+    }
+    value = previous.get(key);
+    if (value != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+      value = compute.apply(key);
+    }
+    put(keyToStore.apply(key), value);
+    return value;
+  }
+
+  /**
+   * Removes every entry and resets the counters.
+   */
+  public synchronized void clear() {
+    current = new ConcurrentHashMap<>();
+    previous = Map.of();
+    hits.reset();
+    misses.reset();
+  }
+
+  public CacheStatistics getStatistics() {
+    return new CacheStatistics(hits.sum(), misses.sum(), current.size() + previous.size(), capacity);
+  }
+
+  private void put(K key, V value) {
+    Map<K, V> generation = current;
+    if (generation.size() >= generationCapacity) {
+      generation = rotate(generation);
+    }
+    generation.put(key, value);
+  }
+
+  private synchronized Map<K, V> rotate(Map<K, V> full) {
+    // Another thread may already have rotated past the generation we saw as full
+    if (current == full) {
+      previous = full;
+      current = new ConcurrentHashMap<>();
+    }
+    return current;
+  }
+}
@@ -0,0 +1,201 @@
+package com.zanete.jobtitlenormaliser.cache;
+
+import com.zanete.jobtitlenormaliser.alias.AliasTable;
+import com.zanete.jobtitlenormaliser.jfr.ResultCacheEvent;
+import com.zanete.jobtitlenormaliser.model.CacheStatistics;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Persistent memoisation cache of normalisation results, keyed by the canonical (preprocessed)
+ * input key, so that a restarted normaliser answers repeated inputs without scoring from its
+ * first request.
+ *
+ * <p>Results are held in a memory-mapped {@link AliasTable} file, each as its score and title,
+ * or as no match. The table also records the fingerprint of the configuration that produced
+ * them (see {@link #bind(String)}): a normaliser binds its fingerprint when built, and if the
+ * catalog, matchers or weights have changed since the results were written, the file is
+ * discarded and the cache starts empty.</p>
+ *
+ * <p>New results are kept in memory and written to the file in batches of
+ * {@link #FLUSH_BATCH}, by {@link #flush()} and on {@link #close()}, so writing does not force
+ * the file to disk on every miss. Results computed since the last flush are lost if the process
+ * stops without closing the cache. Once the cache holds {@code maxEntries} results, new ones are
+ * no longer stored.</p>
+ *
+ * <p>Every operation emits a {@link ResultCacheEvent} to Java Flight Recorder when a recording
+ * enables it.</p>
+ *
+ * <p>Thread-safe. Like the alias table, only one process may have the file open, and a cache
+ * is bound to one normaliser configuration at a time.</p>
+ */
+public class ResultCache implements AutoCloseable {
+
+  /**
+   * Number of pending results written to the file at once.
+   */
+  public static final int FLUSH_BATCH = 256;
+
+  // Preprocessed keys never hold control characters, so this cannot collide with a result
+  static final String FINGERPRINT_KEY = "\u0000fingerprint";
+
+  private final Path path;
+  private final int maxEntries;
+  private final Map<String, String> pending = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  // Replaced only when the cache is invalidated
+  private volatile AliasTable table;
+
+  private ResultCache(Path path, int maxEntries) throws IOException {
+    this.path = path;
+    this.maxEntries = maxEntries;
+    this.table = AliasTable.open(path);
+  }
+
+  /**
+   * Opens the cache at the given path, creating an empty one if the file does not exist.
+   *
+   * @param path the cache file
+   * @param maxEntries maximum number of results stored
+   * @throws IOException if the file cannot be read or is not a result cache
+   * @throws IllegalArgumentException if maxEntries is not positive
+   */
+  public static ResultCache open(Path path, int maxEntries) throws IOException {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+    }
+    return new ResultCache(path, maxEntries);
+  }
+
+  /**
+   * Binds the cache to a configuration fingerprint. If the stored results were produced under
+   * another fingerprint, or under none, they are discarded.
+   *
+   * @return true if the stored results were kept
+   * @throws UncheckedIOException if the file cannot be replaced
+   */
+  public synchronized boolean bind(String fingerprint) {
+    Objects.requireNonNull(fingerprint, "fingerprint");
+    ResultCacheEvent event = new ResultCacheEvent();
+    event.begin();
+    boolean kept = table.get(FINGERPRINT_KEY).filter(fingerprint::equals).isPresent();
+    if (!kept) {
+      try {
+        pending.clear();
+        table.close();
+        Files.delete(path);
+        table = AliasTable.open(path);
+        table.put(FINGERPRINT_KEY, fingerprint);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    commit(event, "bind", kept, -1);
+    return kept;
+  }
+
+  /**
+   * Returns the cached result for the key, computing it on a miss and storing it if there is
+   * room. Two threads missing on the same key may both compute it.
+   */
+  public Optional<MatchedTitle> get(String key, Function<String, Optional<MatchedTitle>> compute) {
+    ResultCacheEvent event = new ResultCacheEvent();
+    event.begin();
+    String value = pending.get(key);
+    if (value == null) {
+      value = table.get(key).orElse(null);
+    }
+    if (value != null) {
+      hits.increment();
+      commit(event, "get", true, -1);
+      return decode(value);
+    }
+    misses.increment();
+    Optional<MatchedTitle> result = compute.apply(key);
+    if (size() < maxEntries) {
+      pending.put(key, encode(result));
+      if (pending.size() >= FLUSH_BATCH) {
+        flush();
+      }
+    }
+    commit(event, "get", false, -1);
+    return result;
+  }
+
+  /**
+   * Writes pending results to the file and forces them to disk.
+   *
+   * @throws UncheckedIOException if the file cannot be written
+   */
+  public synchronized void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    ResultCacheEvent event = new ResultCacheEvent();
+    event.begin();
+    Map<String, String> batch = new HashMap<>(pending);
+    table.putAll(batch);
+    pending.keySet().removeAll(batch.keySet());
+    commit(event, "flush", false, batch.size());
+  }
+
+  /**
+   * Returns the number of results held, written or pending.
+   */
+  public int size() {
+    // The fingerprint takes an entry of the table once bound
+    return Math.max(table.size() - 1, 0) + pending.size();
+  }
+
+  /**
+   * Returns hit and size counters since the cache was opened.
+   */
+  public CacheStatistics getStatistics() {
+    return new CacheStatistics(hits.sum(), misses.sum(), size(), maxEntries);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      table.close();
+    }
+  }
+
+  /**
+   * Commits the event if enabled; entries of -1 stand for the current size.
+   */
+  private void commit(ResultCacheEvent event, String operation, boolean hit, int entries) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = operation;
+      event.hit = hit;
+      event.entries = entries < 0 ? size() : entries;
+      event.commit();
+    }
+  }
+
+  private static String encode(Optional<MatchedTitle> result) {
+    return result.map(match -> match.overallScore() + "\t" + match.title()).orElse("");
+  }
+
+  private static Optional<MatchedTitle> decode(String value) {
+    if (value.isEmpty()) {
+      return Optional.empty();
+    }
+    int tab = value.indexOf('\t');
+    return Optional.of(new MatchedTitle(value.substring(tab + 1), Double.parseDouble(value.substring(0, tab))));
+  }
+}
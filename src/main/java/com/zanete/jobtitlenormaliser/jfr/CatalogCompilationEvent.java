@@ -0,0 +1,38 @@
+package com.zanete.jobtitlenormaliser.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Compilation of a normaliser's catalog. Rare, so enabled whenever a recording is running.
+ */
+@Name(CatalogCompilationEvent.NAME)
+@Label("Catalog Compilation")
+@Category("Job Title Normaliser")
+@Description("A catalog preprocessed and compiled into its scoring arrays")
+@StackTrace(false)
+public final class CatalogCompilationEvent extends Event {
+
+  public static final String NAME = "com.zanete.jobtitlenormaliser.CatalogCompilation";
+
+  @Label("Titles")
+  public int titles;
+
+  @Label("Vocabulary Size")
+  public int vocabularySize;
+
+  @Label("Parallel")
+  public boolean parallel;
+
+  @Label("Compact")
+  public boolean compact;
+
+  @Label("Estimated Size")
+  @DataAmount
+  public long estimatedBytes;
+}
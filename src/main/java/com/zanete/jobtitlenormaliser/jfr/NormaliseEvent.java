@@ -0,0 +1,49 @@
+package com.zanete.jobtitlenormaliser.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One normalisation request, from preprocessing to the best match. Emitted per request, so it
+ * is disabled unless a recording's settings enable it, e.g.
+ * {@code jfr configure +com.zanete.jobtitlenormaliser.Normalise#enabled=true}.
+ */
+@Name(NormaliseEvent.NAME)
+@Label("Normalise")
+@Category("Job Title Normaliser")
+@Description("A job title normalised against the catalog")
+@Enabled(false)
+@StackTrace(false)
+public final class NormaliseEvent extends Event {
+
+  public static final String NAME = "com.zanete.jobtitlenormaliser.Normalise";
+
+  /**
+   * Input length in characters, or in bytes for UTF-8 input; -1 for preprocessed input.
+   */
+  @Label("Input Length")
+  public int inputLength;
+
+  @Label("Token Count")
+  public int tokenCount;
+
+  @Label("Candidates Scored")
+  @Description("Titles scored with every matcher")
+  public int candidatesScored;
+
+  @Label("Best Score")
+  @Description("Score of the returned title, or 0 if none met the threshold")
+  public double bestScore;
+
+  @Label("Title")
+  public String title;
+
+  @Label("Resolved By")
+  @Description("alias, cache, explain, exact, accepted, rejected or scored")
+  public String resolvedBy;
+}
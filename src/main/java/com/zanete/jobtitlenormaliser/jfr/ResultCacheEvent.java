@@ -0,0 +1,37 @@
+package com.zanete.jobtitlenormaliser.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An operation on a persistent result cache: a lookup, with the computation on a miss, a flush
+ * of pending results, or binding to a fingerprint. Lookups happen per request, so the event is
+ * disabled unless a recording's settings enable it.
+ */
+@Name(ResultCacheEvent.NAME)
+@Label("Result Cache")
+@Category("Job Title Normaliser")
+@Description("A lookup, flush or fingerprint binding of a persistent result cache")
+@Enabled(false)
+@StackTrace(false)
+public final class ResultCacheEvent extends Event {
+
+  public static final String NAME = "com.zanete.jobtitlenormaliser.ResultCache";
+
+  @Label("Operation")
+  @Description("get, flush or bind")
+  public String operation;
+
+  @Label("Hit")
+  @Description("For get, whether the result was cached; for bind, whether stored results were kept")
+  public boolean hit;
+
+  @Label("Entries")
+  @Description("Results written by a flush, or held after the operation otherwise")
+  public int entries;
+}
@@ -0,0 +1,152 @@
+package com.zanete.jobtitlenormaliser.matcher;
+
+import com.zanete.jobtitlenormaliser.JobTitleProvider;
+import com.zanete.jobtitlenormaliser.Preprocessor;
+import com.zanete.jobtitlenormaliser.cache.BoundedCache;
+import com.zanete.jobtitlenormaliser.model.CacheStatistics;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fuzzy token matcher producing the same scores as {@link FuzzyTokenMatcher}, using a
+ * bit-parallel Jaro-Winkler kernel.
+ *
+ * <p>Job title tokens are almost always shorter than 64 characters, so each token's character
+ * positions fit in one {@code long} per distinct character ({@link TokenMasks}). Jaro matching
+ * then finds a character's partner inside the match window with a few bitwise operations rather
+ * than a scan, and transpositions are counted by walking the set bits of the two match masks.
+ * Tokens longer than 64 characters fall back to {@link BoundedJaroWinkler}.</p>
+ *
+ * <p>Masks for every catalog token are computed once at construction. Masks for other tokens,
+ * mostly query tokens, are computed on first use and kept in a bounded cache.</p>
+ */
+public class BitParallelFuzzyTokenMatcher implements Matcher {
+
+  /**
+   * Number of non-catalog tokens whose masks are cached.
+   */
+  public static final int DEFAULT_MASK_CACHE_CAPACITY = 10_000;
+
+  private static final BoundedJaroWinkler fallback = new BoundedJaroWinkler();
+
+  private final Map<String, TokenMasks> catalogMasks;
+  private final BoundedCache<String, TokenMasks> maskCache;
+
+  /**
+   * Creates a matcher that computes every token's masks on first use.
+   */
+  public BitParallelFuzzyTokenMatcher() {
+    this(DEFAULT_MASK_CACHE_CAPACITY);
+  }
+
+  /**
+   * Creates a matcher that computes every token's masks on first use, caching up to
+   * {@code maskCacheCapacity} of them. One such matcher can serve several catalogs, for example
+   * every tenant of a {@link com.zanete.jobtitlenormaliser.NormaliserRegistry}, with the cache
+   * sized to their combined vocabulary.
+   *
+   * @throws IllegalArgumentException if the capacity is less than 2
+   */
+  public BitParallelFuzzyTokenMatcher(int maskCacheCapacity) {
+    this.catalogMasks = Map.of();
+    this.maskCache = new BoundedCache<>(maskCacheCapacity);
+  }
+
+  /**
+   * Creates a matcher with masks precomputed for the tokens of the provider's normalised titles.
+   */
+  public BitParallelFuzzyTokenMatcher(JobTitleProvider jobTitleProvider) {
+    this(new Preprocessor(jobTitleProvider.getJobTitlePrefixesToIgnore()),
+        jobTitleProvider.getNormalisedJobTitles());
+  }
+
+  /**
+   * Creates a matcher with masks precomputed for the titles' tokens, as tokenised by the
+   * given preprocessor.
+   */
+  public BitParallelFuzzyTokenMatcher(Preprocessor preprocessor, List<String> normalisedJobTitles) {
+    Map<String, TokenMasks> masks = new HashMap<>();
+    for (String title : normalisedJobTitles) {
+      for (String token : preprocessor.preprocess(title)) {
+        TokenMasks tokenMasks = TokenMasks.of(token);
+        if (tokenMasks != null) {
+          masks.putIfAbsent(token, tokenMasks);
+        }
+      }
+    }
+    this.catalogMasks = Map.copyOf(masks);
+    this.maskCache = new BoundedCache<>(DEFAULT_MASK_CACHE_CAPACITY);
+  }
+
+  /**
+   * Computes a fuzzy similarity score between two lists of tokens: the average, over the first
+   * list, of each token's best Jaro-Winkler similarity with a token of the second list.
+   *
+   * @param tokens1 the first list of tokens
+   * @param tokens2 the second list of tokens
+   * @return a double value between 0.0 and 1.0 representing the fuzzy similarity;
+   * returns 0.0 if either list is empty
+   */
+  @Override
+  public double calculateScore(List<String> tokens1, List<String> tokens2) {
+    if (tokens1 == null || tokens2 == null) {
+      return 0.0;
+    }
+    // Skips invalid tokens in place rather than copying through filterValid, as this runs
+    // once per catalog title
+    String[] valid2 = new String[tokens2.size()];
+    TokenMasks[] masks2 = new TokenMasks[tokens2.size()];
+    int count2 = 0;
+    for (String token2 : tokens2) {
+      if (isValid(token2)) {
+        valid2[count2] = token2;
+        masks2[count2++] = masks(token2);
+      }
+    }
+    if (count2 == 0) {
+      return 0.0;
+    }
+
+    double score = 0.0;
+    int count1 = 0;
+    for (String token1 : tokens1) {
+      if (!isValid(token1)) {
+        continue;
+      }
+      count1++;
+      TokenMasks masks1 = masks(token1);
+      double best = 0.0;
+      for (int i = 0; i < count2 && best < 1.0; i++) {
+        double similarity = masks1 == null || masks2[i] == null
+            ? fallback.similarity(token1, valid2[i], best)
+            : TokenMasks.similarity(masks1, masks2[i]);
+        best = Math.max(best, similarity);
+      }
+      score += best;
+    }
+    return count1 == 0 ? 0.0 : score / count1;
+  }
+
+  /**
+   * Returns hit and size counters of the cache of non-catalog token masks.
+   */
+  public CacheStatistics getMaskCacheStatistics() {
+    return maskCache.getStatistics();
+  }
+
+  private static boolean isValid(String token) {
+    return token != null && !token.isBlank();
+  }
+
+  /**
+   * Returns the token's masks, or null if it is too long for the bit-parallel kernel.
+   */
+  private TokenMasks masks(String token) {
+    if (token.length() > TokenMasks.MAX_LENGTH) {
+      return null;
+    }
+    TokenMasks masks = catalogMasks.get(token);
+    return masks != null ? masks : maskCache.get(token, TokenMasks::of);
+  }
+}
@@ -0,0 +1,149 @@
+package com.zanete.jobtitlenormaliser.matcher;
+
+/**
+ * Jaro-Winkler similarity that gives up as soon as the score cannot exceed a given minimum.
+ *
+ * <p>Scores are bit-for-bit identical to commons-text's {@code JaroWinklerSimilarity} whenever
+ * they exceed the minimum. Below it the exact score is not needed, which allows two shortcuts:
+ * <ul>
+ *   <li>Before matching, the score is bounded from the length ratio alone: at best every
+ *   character of the shorter string matches without transpositions.</li>
+ *   <li>While matching, each character of the shorter string that finds no partner lowers the
+ *   best reachable match count, and matching stops once that count cannot beat the minimum.</li>
+ * </ul>
+ * The common prefix is known up front, so both bounds include the exact Winkler boost.</p>
+ *
+ * <p>Strings are read through {@link CharSequence}, so callers holding characters outside
+ * {@code String}s can score them without copying.</p>
+ *
+ * <p>Stateless and thread-safe.</p>
+ */
+public class BoundedJaroWinkler {
+
+  private static final double SCALING_FACTOR = 0.1;
+  private static final double BOOST_THRESHOLD = 0.7;
+  private static final int MAX_PREFIX = 4;
+  // Keeps rounding in the bound arithmetic from rejecting a pair whose exact score is just above
+  // the minimum
+  private static final double BOUND_SLACK = 1e-12;
+
+  /**
+   * Returns the exact Jaro-Winkler similarity of the two strings.
+   */
+  public double similarity(CharSequence left, CharSequence right) {
+    return similarity(left, right, -1.0);
+  }
+
+  /**
+   * Returns the Jaro-Winkler similarity of the two strings if it exceeds {@code minScore},
+   * otherwise a value no greater than {@code minScore}.
+   *
+   * @param left the first string
+   * @param right the second string
+   * @param minScore the score the result must exceed to be worth computing exactly
+   * @return the exact similarity, or a value no greater than {@code minScore}
+   * @throws IllegalArgumentException if either string is null
+   */
+  public double similarity(CharSequence left, CharSequence right, double minScore) {
+    if (left == null || right == null) {
+      throw new IllegalArgumentException("Strings must not be null");
+    }
+    if (contentEquals(left, right)) {
+      return 1.0;
+    }
+    // Same roles as commons-text: on equal lengths the right string is scanned for partners
+    CharSequence longer = left.length() > right.length() ? left : right;
+    CharSequence shorter = longer == left ? right : left;
+    if (shorter.isEmpty()) {
+      return 0.0;
+    }
+    int prefix = commonPrefix(left, right, Math.min(MAX_PREFIX, shorter.length()));
+    int needed = minimumMatches(left.length(), right.length(), shorter.length(), prefix, minScore);
+    if (needed > shorter.length()) {
+      return 0.0;
+    }
+
+    int range = Math.max(longer.length() / 2 - 1, 0);
+    boolean[] shorterMatched = new boolean[shorter.length()];
+    boolean[] longerMatched = new boolean[longer.length()];
+    int matches = 0;
+    int unmatched = 0;
+    int allowedUnmatched = shorter.length() - needed;
+    for (int si = 0; si < shorter.length(); si++) {
+      char c = shorter.charAt(si);
+      boolean found = false;
+      for (int li = Math.max(si - range, 0), end = Math.min(si + range + 1, longer.length()); li < end; li++) {
+        if (!longerMatched[li] && c == longer.charAt(li)) {
+          shorterMatched[si] = true;
+          longerMatched[li] = true;
+          matches++;
+          found = true;
+          break;
+        }
+      }
+      if (!found && ++unmatched > allowedUnmatched) {
+        return 0.0;
+      }
+    }
+    if (matches == 0) {
+      return 0.0;
+    }
+
+    int halfTranspositions = 0;
+    for (int si = 0, li = 0; si < shorter.length(); si++) {
+      if (shorterMatched[si]) {
+        while (!longerMatched[li]) {
+          li++;
+        }
+        if (shorter.charAt(si) != longer.charAt(li)) {
+          halfTranspositions++;
+        }
+        li++;
+      }
+    }
+
+    double m = matches;
+    double jaro = (m / left.length() + m / right.length() + (m - halfTranspositions / 2.0) / m) / 3;
+    return boost(jaro, prefix);
+  }
+
+  /**
+   * Returns the fewest matches that could give a score above {@code minScore}, assuming no
+   * transpositions, or more than {@code maxMatches} if none could.
+   */
+  private static int minimumMatches(int leftLength, int rightLength, int maxMatches, int prefix,
+                                    double minScore) {
+    if (upperBound(maxMatches, leftLength, rightLength, prefix) + BOUND_SLACK <= minScore) {
+      return maxMatches + 1;
+    }
+    int needed = 1;
+    while (upperBound(needed, leftLength, rightLength, prefix) + BOUND_SLACK <= minScore) {
+      needed++;
+    }
+    return needed;
+  }
+
+  private static double upperBound(int matches, int leftLength, int rightLength, int prefix) {
+    double m = matches;
+    return boost((m / leftLength + m / rightLength + 1) / 3, prefix);
+  }
+
+  private static double boost(double jaro, int prefix) {
+    return jaro < BOOST_THRESHOLD ? jaro : jaro + SCALING_FACTOR * prefix * (1.0 - jaro);
+  }
+
+  private static boolean contentEquals(CharSequence left, CharSequence right) {
+    if (left instanceof String string) {
+      return string.contentEquals(right);
+    }
+    return CharSequence.compare(left, right) == 0;
+  }
+
+  private static int commonPrefix(CharSequence left, CharSequence right, int limit) {
+    int prefix = 0;
+    while (prefix < limit && left.charAt(prefix) == right.charAt(prefix)) {
+      prefix++;
+    }
+    return prefix;
+  }
+}
@@ -2,8 +2,9 @@ package com.zanete.jobtitlenormaliser.matcher;
 
 import static com.zanete.jobtitlenormaliser.Utils.filterValid;
 
+import com.zanete.jobtitlenormaliser.model.TokenAlignment;
+import java.util.ArrayList;
 import java.util.List;
-import org.apache.commons.text.similarity.JaroWinklerSimilarity;
 
 /**
  * Utility class for computing a fuzzy similarity score between two lists of tokens
@@ -15,10 +16,14 @@ import org.apache.commons.text.similarity.JaroWinklerSimilarity;
  * <p>
  * For more information, see:
  * <a href="https://en.wikipedia.org/wiki/Jaro%E2%80%93Winkler_distance">Jaro-Winkler similarity - Wikipedia</a>
+ *
+ * <p>Only the best match per token counts, so each pair is scored with
+ * {@link BoundedJaroWinkler} against the best similarity found so far, and pairs that cannot
+ * beat it are abandoned early. Scores are identical to scoring every pair in full.</p>
  */
 public class FuzzyTokenMatcher implements Matcher {
 
-  private static final JaroWinklerSimilarity jaroWinkler = new JaroWinklerSimilarity();
+  private static final BoundedJaroWinkler jaroWinkler = new BoundedJaroWinkler();
 
   /**
    * Computes a fuzzy similarity score between two lists of tokens.
@@ -44,10 +49,46 @@ public class FuzzyTokenMatcher implements Matcher {
     for (String token1 : tokens1) {
       double best = 0.0;
       for (String token2 : tokens2) {
-        best = Math.max(best, jaroWinkler.apply(token1, token2));
+        best = Math.max(best, jaroWinkler.similarity(token1, token2, best));
+        if (best == 1.0) {
+          break;
+        }
       }
       score += best;
     }
     return score / tokens1.size();
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns, for each token in the first list, the token in the second list it matched best
+   * and their similarity; the scores {@link #calculateScore(List, List)} averages. The first of
+   * equally good tokens is chosen. Returns an empty list if either list is empty.
+   *
+   * @param tokens1 the first list of tokens
+   * @param tokens2 the second list of tokens
+   * @return one alignment per valid token of the first list, in order
+   */
+  public List<TokenAlignment> align(List<String> tokens1, List<String> tokens2) {
+    tokens1 = filterValid(tokens1);
+    tokens2 = filterValid(tokens2);
+
+    if (tokens1.isEmpty() || tokens2.isEmpty()) {
+      return List.of();
+    }
+
+    List<TokenAlignment> alignments = new ArrayList<>(tokens1.size());
+    for (String token1 : tokens1) {
+      String bestToken = tokens2.get(0);
+      double best = jaroWinkler.similarity(token1, bestToken);
+      for (String token2 : tokens2.subList(1, tokens2.size())) {
+        double similarity = jaroWinkler.similarity(token1, token2, best);
+        if (similarity > best) {
+          best = similarity;
+          bestToken = token2;
+        }
+      }
+      alignments.add(new TokenAlignment(token1, bestToken, best));
+    }
+    return alignments;
+  }
+}
@@ -0,0 +1,240 @@
+package com.zanete.jobtitlenormaliser.matcher;
+
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import com.zanete.jobtitlenormaliser.model.Title;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Inverted index over a catalog of preprocessed titles, used for top-k retrieval
+ * with MaxScore dynamic pruning.
+ *
+ * <p>Every posting stores a title id together with its <i>impact</i>: the title's
+ * normalised term weight for that token. Each posting list also keeps its maximum
+ * impact, which bounds how much the token can ever add to a title's score. During a
+ * search the query tokens are ordered by that bound, and tokens whose combined bounds
+ * cannot lift a title above the current k-th best score become "non-essential": their
+ * postings are only probed (by binary search) for titles already found through the
+ * essential tokens. Common tokens such as "engineer" therefore stop driving the search
+ * as soon as the result heap fills up.</p>
+ *
+ * <p>Postings are kept in title id order, not impact order. MaxScore walks the catalog one
+ * title at a time and probes non-essential lists by id, which an impact-ordered list cannot
+ * answer without a full scan; the per-list maximum impact provides the bound instead.</p>
+ *
+ * <p>The index serves {@link TfIdfCosineMatcher#topK(List, int)} on its own. The
+ * {@code Normaliser} does not use it: its score adds up several weighted matchers, and a bound
+ * on one matcher's score cannot prune titles by their total.</p>
+ *
+ * <p>For more information, see:
+ * <a href="https://en.wikipedia.org/wiki/Tf%E2%80%93idf">tf–idf - Wikipedia</a></p>
+ */
+public class InvertedIndex {
+
+  // Guards against pruning a title whose exact score equals the threshold
+  // but whose bound was summed in a different order.
+  private static final double PRUNING_EPSILON = 1e-12;
+
+  private final List<Title> titles;
+  private final Map<String, Postings> postings;
+
+  /**
+   * Builds an index over the given titles.
+   *
+   * @param titles the catalog titles; a title's position in the list is its id
+   * @param weight the global weight of a token (e.g. its inverse document frequency)
+   */
+  public InvertedIndex(List<Title> titles, ToDoubleFunction<String> weight) {
+    this.titles = List.copyOf(titles);
+    Map<String, List<double[]>> builders = new HashMap<>();
+    for (int id = 0; id < this.titles.size(); id++) {
+      Map<String, Double> vector = TfIdfCosineMatcher.weightVector(this.titles.get(id).tokens(), weight);
+      double norm = TfIdfCosineMatcher.norm(vector);
+      if (norm == 0) {
+        continue;
+      }
+      for (Map.Entry<String, Double> entry : vector.entrySet()) {
+        builders.computeIfAbsent(entry.getKey(), token -> new ArrayList<>())
+            .add(new double[] {id, entry.getValue() / norm});
+      }
+    }
+    this.postings = new HashMap<>();
+    builders.forEach((token, list) -> postings.put(token, new Postings(list)));
+  }
+
+  /**
+   * Returns the number of titles containing the given token.
+   */
+  public int documentFrequency(String token) {
+    Postings list = postings.get(token);
+    return list == null ? 0 : list.titleIds.length;
+  }
+
+  /**
+   * Finds the {@code k} titles with the highest cosine similarity to the weighted query.
+   *
+   * @param queryWeights the query vector, already normalised to unit length
+   * @param k maximum number of results
+   * @param minScore minimum score a title needs to be returned
+   * @return matches ordered by descending score; ties keep catalog order
+   */
+  public List<MatchedTitle> search(Map<String, Double> queryWeights, int k, double minScore) {
+    if (k <= 0 || queryWeights.isEmpty()) {
+      return List.of();
+    }
+
+    List<Cursor> cursors = new ArrayList<>();
+    for (Map.Entry<String, Double> entry : queryWeights.entrySet()) {
+      Postings list = postings.get(entry.getKey());
+      if (list != null) {
+        cursors.add(new Cursor(list, entry.getValue()));
+      }
+    }
+    if (cursors.isEmpty()) {
+      return List.of();
+    }
+    cursors.sort(Comparator.comparingDouble(Cursor::upperBound));
+
+    // prefixBounds[i] is the best score achievable from cursors 0..i alone
+    double[] prefixBounds = new double[cursors.size()];
+    double running = 0.0;
+    for (int i = 0; i < cursors.size(); i++) {
+      running += cursors.get(i).upperBound();
+      prefixBounds[i] = running;
+    }
+
+    PriorityQueue<ScoredId> heap = new PriorityQueue<>(ScoredId.WORST_FIRST);
+    double threshold = minScore;
+    int firstEssential = firstEssential(prefixBounds, threshold);
+
+    while (firstEssential < cursors.size()) {
+      int id = Integer.MAX_VALUE;
+      for (int i = firstEssential; i < cursors.size(); i++) {
+        id = Math.min(id, cursors.get(i).currentId());
+      }
+      if (id == Integer.MAX_VALUE) {
+        break;
+      }
+
+      double score = 0.0;
+      for (int i = firstEssential; i < cursors.size(); i++) {
+        Cursor cursor = cursors.get(i);
+        if (cursor.currentId() == id) {
+          score += cursor.currentScore();
+          cursor.next();
+        }
+      }
+      for (int i = firstEssential - 1; i >= 0; i--) {
+        if (score + prefixBounds[i] < threshold - PRUNING_EPSILON) {
+          break;
+        }
+        Cursor cursor = cursors.get(i);
+        if (cursor.advanceTo(id) == id) {
+          score += cursor.currentScore();
+        }
+      }
+
+      if (score < minScore || score <= 0.0) {
+        continue;
+      }
+      if (heap.size() < k) {
+        heap.add(new ScoredId(id, score));
+      } else if (score > heap.peek().score()) {
+        heap.poll();
+        heap.add(new ScoredId(id, score));
+      } else {
+        continue;
+      }
+      if (heap.size() == k) {
+        threshold = Math.max(minScore, heap.peek().score());
+        firstEssential = firstEssential(prefixBounds, threshold);
+      }
+    }
+
+    List<ScoredId> best = new ArrayList<>(heap);
+    best.sort(ScoredId.WORST_FIRST.reversed());
+    return best.stream()
+        .map(scored -> new MatchedTitle(titles.get(scored.id()).value(), scored.score()))
+        .toList();
+  }
+
+  private static int firstEssential(double[] prefixBounds, double threshold) {
+    int first = 0;
+    while (first < prefixBounds.length && prefixBounds[first] < threshold - PRUNING_EPSILON) {
+      first++;
+    }
+    return first;
+  }
+
+  private record ScoredId(int id, double score) {
+    // Lower score first; on equal scores the later title is considered worse
+    static final Comparator<ScoredId> WORST_FIRST = Comparator.comparingDouble(ScoredId::score)
+        .thenComparing(Comparator.comparingInt(ScoredId::id).reversed());
+  }
+
+  /**
+   * Title ids in ascending order with their impacts.
+   */
+  private static final class Postings {
+    private final int[] titleIds;
+    private final double[] impacts;
+    private final double maxImpact;
+
+    private Postings(List<double[]> entries) {
+      titleIds = new int[entries.size()];
+      impacts = new double[entries.size()];
+      double max = 0.0;
+      for (int i = 0; i < entries.size(); i++) {
+        titleIds[i] = (int) entries.get(i)[0];
+        impacts[i] = entries.get(i)[1];
+        max = Math.max(max, impacts[i]);
+      }
+      maxImpact = max;
+    }
+  }
+
+  /**
+   * Iteration state over one posting list during a single search.
+   */
+  private static final class Cursor {
+    private final Postings postings;
+    private final double queryWeight;
+    private int position;
+
+    private Cursor(Postings postings, double queryWeight) {
+      this.postings = postings;
+      this.queryWeight = queryWeight;
+    }
+
+    double upperBound() {
+      return queryWeight * postings.maxImpact;
+    }
+
+    int currentId() {
+      return position < postings.titleIds.length ? postings.titleIds[position] : Integer.MAX_VALUE;
+    }
+
+    double currentScore() {
+      return queryWeight * postings.impacts[position];
+    }
+
+    void next() {
+      position++;
+    }
+
+    int advanceTo(int id) {
+      if (currentId() >= id) {
+        return currentId();
+      }
+      int found = Arrays.binarySearch(postings.titleIds, position, postings.titleIds.length, id);
+      position = found >= 0 ? found : -found - 1;
+      return currentId();
+    }
+  }
+}
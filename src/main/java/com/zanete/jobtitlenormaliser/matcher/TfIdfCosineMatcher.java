@@ -0,0 +1,153 @@
+package com.zanete.jobtitlenormaliser.matcher;
+
+import static com.zanete.jobtitlenormaliser.Utils.filterValid;
+
+import com.zanete.jobtitlenormaliser.JobTitleProvider;
+import com.zanete.jobtitlenormaliser.Preprocessor;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import com.zanete.jobtitlenormaliser.model.Title;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Cosine similarity over TF-IDF weighted token vectors.
+ *
+ * <p>Unlike {@link CosineSimilarityMatcher}, which treats every token equally, this matcher
+ * weights each token by its inverse document frequency (IDF) across the catalog supplied by a
+ * {@link JobTitleProvider}. Tokens shared by many titles (e.g. "engineer", "manager") contribute
+ * little, while rare, discriminating tokens dominate the score.</p>
+ *
+ * <p>IDF uses the smoothed form {@code ln((1 + N) / (1 + df)) + 1}, so tokens unseen in the
+ * catalog receive the highest weight rather than being ignored.</p>
+ *
+ * <p>The matcher also keeps an {@link InvertedIndex} over the catalog, so the best titles for a
+ * query can be retrieved with {@link #topK(List, int)} without scoring every title. The
+ * {@code Normaliser} scores through {@link #calculateScore(List, List)} like any other matcher
+ * and does not call {@code topK}.</p>
+ */
+public class TfIdfCosineMatcher implements Matcher {
+
+  private final InvertedIndex index;
+  private final double titleCount;
+
+  /**
+   * Builds the IDF table and inverted index from the provider's normalised titles.
+   */
+  public TfIdfCosineMatcher(JobTitleProvider jobTitleProvider) {
+    this(new Preprocessor(jobTitleProvider.getJobTitlePrefixesToIgnore()),
+        jobTitleProvider.getNormalisedJobTitles());
+  }
+
+  /**
+   * Builds the IDF table and inverted index from titles tokenised with the given preprocessor.
+   */
+  public TfIdfCosineMatcher(Preprocessor preprocessor, List<String> normalisedJobTitles) {
+    List<Title> titles = normalisedJobTitles.stream()
+        .map(title -> new Title(title, preprocessor.preprocess(title)))
+        .toList();
+    this.titleCount = titles.size();
+    // The index needs IDF to weight its postings, and IDF needs document frequencies,
+    // so count them up front.
+    Map<String, Integer> documentFrequency = new HashMap<>();
+    for (Title title : titles) {
+      filterValid(title.tokens()).stream().distinct()
+          .forEach(token -> documentFrequency.merge(token, 1, Integer::sum));
+    }
+    this.index = new InvertedIndex(titles,
+        token -> idf(documentFrequency.getOrDefault(token, 0)));
+  }
+
+  /**
+   * Computes the cosine similarity between the TF-IDF vectors of two lists of tokens.
+   *
+   * @param tokens1 the first list of tokens
+   * @param tokens2 the second list of tokens
+   * @return a double value between 0.0 and 1.0 representing the weighted cosine similarity;
+   * returns 0.0 if either list is empty
+   */
+  @Override
+  public double calculateScore(List<String> tokens1, List<String> tokens2) {
+    tokens1 = filterValid(tokens1);
+    tokens2 = filterValid(tokens2);
+
+    if (tokens1.isEmpty() || tokens2.isEmpty()) {
+      return 0.0;
+    }
+
+    Map<String, Double> vector1 = weightVector(tokens1, this::idf);
+    Map<String, Double> vector2 = weightVector(tokens2, this::idf);
+
+    double dotProduct = 0.0;
+    for (Map.Entry<String, Double> entry : vector1.entrySet()) {
+      dotProduct += entry.getValue() * vector2.getOrDefault(entry.getKey(), 0.0);
+    }
+
+    double magnitude = norm(vector1) * norm(vector2);
+    return magnitude == 0 ? 0.0 : dotProduct / magnitude;
+  }
+
+  /**
+   * Returns the {@code k} catalog titles most similar to the query tokens.
+   *
+   * @param queryTokens preprocessed query tokens
+   * @param k maximum number of titles to return
+   * @return matches ordered by descending score, scored as by {@link #calculateScore}
+   */
+  public List<MatchedTitle> topK(List<String> queryTokens, int k) {
+    return topK(queryTokens, k, 0.0);
+  }
+
+  /**
+   * Returns up to {@code k} catalog titles scoring at least {@code minScore}.
+   *
+   * <p>A positive {@code minScore} lets the index prune from the very first posting
+   * instead of waiting for the result heap to fill.</p>
+   *
+   * @param queryTokens preprocessed query tokens
+   * @param k maximum number of titles to return
+   * @param minScore minimum similarity a title needs to be returned
+   * @return matches ordered by descending score; ties keep catalog order
+   */
+  public List<MatchedTitle> topK(List<String> queryTokens, int k, double minScore) {
+    List<String> tokens = filterValid(queryTokens);
+    if (tokens.isEmpty()) {
+      return List.of();
+    }
+    Map<String, Double> vector = weightVector(tokens, this::idf);
+    double norm = norm(vector);
+    vector.replaceAll((token, weight) -> weight / norm);
+    return index.search(vector, k, minScore);
+  }
+
+  /**
+   * Returns the inverse document frequency of a token within the catalog.
+   */
+  public double idf(String token) {
+    return idf(index.documentFrequency(token));
+  }
+
+  private double idf(int documentFrequency) {
+    return Math.log((1 + titleCount) / (1 + documentFrequency)) + 1;
+  }
+
+  /**
+   * Builds a TF-IDF vector: each unique token maps to its frequency times its weight.
+   */
+  static Map<String, Double> weightVector(List<String> tokens, ToDoubleFunction<String> weight) {
+    Map<String, Double> vector = new HashMap<>();
+    for (String token : filterValid(tokens)) {
+      vector.merge(token, weight.applyAsDouble(token), Double::sum);
+    }
+    return vector;
+  }
+
+  static double norm(Map<String, Double> vector) {
+    double sumOfSquares = 0.0;
+    for (double value : vector.values()) {
+      sumOfSquares += value * value;
+    }
+    return Math.sqrt(sumOfSquares);
+  }
+}
@@ -0,0 +1,130 @@
+package com.zanete.jobtitlenormaliser.matcher;
+
+import java.util.Arrays;
+
+/**
+ * Per-character position bitmasks of a token of at most 64 characters, for bit-parallel
+ * Jaro-Winkler.
+ *
+ * <p>Bit {@code i} of a character's mask is set if the token has that character at position
+ * {@code i}. Finding the first unmatched occurrence of a character inside the Jaro match window
+ * then takes a mask lookup, two ANDs and a lowest-set-bit, instead of a scan over the window.</p>
+ *
+ * <p>Tokens use few distinct characters, so masks are kept in two short parallel arrays and
+ * looked up by a linear scan.</p>
+ */
+final class TokenMasks {
+
+  static final int MAX_LENGTH = Long.SIZE;
+
+  private static final double SCALING_FACTOR = 0.1;
+  private static final double BOOST_THRESHOLD = 0.7;
+  private static final int MAX_PREFIX = 4;
+
+  private final String token;
+  private final char[] characters;
+  private final long[] masks;
+
+  private TokenMasks(String token, char[] characters, long[] masks) {
+    this.token = token;
+    this.characters = characters;
+    this.masks = masks;
+  }
+
+  /**
+   * Computes the masks of a token, or returns null if it is longer than {@link #MAX_LENGTH}.
+   */
+  static TokenMasks of(String token) {
+    if (token.length() > MAX_LENGTH) {
+      return null;
+    }
+    char[] characters = new char[token.length()];
+    long[] masks = new long[token.length()];
+    int distinct = 0;
+    for (int i = 0; i < token.length(); i++) {
+      char c = token.charAt(i);
+      int slot = 0;
+      while (slot < distinct && characters[slot] != c) {
+        slot++;
+      }
+      if (slot == distinct) {
+        characters[distinct++] = c;
+      }
+      masks[slot] |= 1L << i;
+    }
+    return new TokenMasks(token, Arrays.copyOf(characters, distinct),
+        Arrays.copyOf(masks, distinct));
+  }
+
+  long mask(char c) {
+    for (int i = 0; i < characters.length; i++) {
+      if (characters[i] == c) {
+        return masks[i];
+      }
+    }
+    return 0L;
+  }
+
+  /**
+   * Returns the Jaro-Winkler similarity of two tokens, identical to commons-text's
+   * {@code JaroWinklerSimilarity}.
+   */
+  static double similarity(TokenMasks left, TokenMasks right) {
+    String leftToken = left.token;
+    String rightToken = right.token;
+    if (leftToken.equals(rightToken)) {
+      return 1.0;
+    }
+    // Same roles as commons-text: on equal lengths the right token is scanned for partners
+    TokenMasks longer = leftToken.length() > rightToken.length() ? left : right;
+    String shorterToken = longer == left ? rightToken : leftToken;
+    String longerToken = longer.token;
+    int shorterLength = shorterToken.length();
+    int longerLength = longerToken.length();
+    if (shorterLength == 0) {
+      return 0.0;
+    }
+
+    int range = Math.max(longerLength / 2 - 1, 0);
+    long longerMatched = 0L;
+    long shorterMatched = 0L;
+    int matches = 0;
+    for (int i = 0; i < shorterLength; i++) {
+      int from = Math.max(i - range, 0);
+      int to = Math.min(i + range + 1, longerLength);
+      long window = (to == MAX_LENGTH ? -1L : (1L << to) - 1) & (-1L << from);
+      long candidates = longer.mask(shorterToken.charAt(i)) & ~longerMatched & window;
+      if (candidates != 0) {
+        longerMatched |= Long.lowestOneBit(candidates);
+        shorterMatched |= 1L << i;
+        matches++;
+      }
+    }
+    if (matches == 0) {
+      return 0.0;
+    }
+
+    // Pair the k-th matched character of each token, in order
+    int halfTranspositions = 0;
+    while (shorterMatched != 0) {
+      int i = Long.numberOfTrailingZeros(shorterMatched);
+      int j = Long.numberOfTrailingZeros(longerMatched);
+      if (shorterToken.charAt(i) != longerToken.charAt(j)) {
+        halfTranspositions++;
+      }
+      shorterMatched &= shorterMatched - 1;
+      longerMatched &= longerMatched - 1;
+    }
+
+    int prefix = 0;
+    int prefixLimit = Math.min(MAX_PREFIX, shorterLength);
+    while (prefix < prefixLimit && leftToken.charAt(prefix) == rightToken.charAt(prefix)) {
+      prefix++;
+    }
+
+    double m = matches;
+    double jaro = (m / leftToken.length() + m / rightToken.length()
+        + (m - halfTranspositions / 2.0) / m) / 3;
+    return jaro < BOOST_THRESHOLD ? jaro : jaro + SCALING_FACTOR * prefix * (1.0 - jaro);
+  }
+}
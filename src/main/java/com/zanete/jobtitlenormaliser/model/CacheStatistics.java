@@ -0,0 +1,20 @@
+package com.zanete.jobtitlenormaliser.model;
+
+/**
+ * Point-in-time counters of a cache.
+ *
+ * @param hits lookups answered from the cache
+ * @param misses lookups that had to compute the value
+ * @param size entries currently held
+ * @param capacity maximum number of entries held
+ */
+public record CacheStatistics(long hits, long misses, int size, int capacity) {
+
+  /**
+   * Returns the fraction of lookups answered from the cache, or 0 if there were none.
+   */
+  public double hitRate() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0.0 : (double) hits / lookups;
+  }
+}
@@ -0,0 +1,15 @@
+package com.zanete.jobtitlenormaliser.model;
+
+import java.util.List;
+
+/**
+ * Breakdown of how one catalog title was scored against an input.
+ *
+ * @param title the catalog title
+ * @param titleTokens the title's preprocessed tokens
+ * @param overallScore sum of the weighted matcher scores
+ * @param matcherScores each matcher's raw and weighted score, in matcher order
+ * @param alignments best title token for each input token, empty without a fuzzy matcher
+ */
+public record CandidateExplanation(String title, List<String> titleTokens, double overallScore,
+                                   List<MatcherScore> matcherScores, List<TokenAlignment> alignments) {}
@@ -0,0 +1,30 @@
+package com.zanete.jobtitlenormaliser.model;
+
+/**
+ * Point-in-time counters of how a normaliser's matching cascade resolved requests.
+ *
+ * @param exact requests answered by a title with exactly the input's tokens
+ * @param accepted requests answered by the title with the best cosine similarity, as it was
+ *     at or above the accept cutoff
+ * @param rejected requests left unmatched without scoring the catalog, as the best cosine
+ *     similarity was too low
+ * @param scored requests in the ambiguous band, scored against the catalog with every matcher
+ */
+public record CascadeStatistics(long exact, long accepted, long rejected, long scored) {
+
+  /**
+   * Returns the number of requests that went through the cascade.
+   */
+  public long requests() {
+    return exact + accepted + rejected + scored;
+  }
+
+  /**
+   * Returns the fraction of requests resolved without scoring the catalog, or 0 if there were
+   * none.
+   */
+  public double resolvedEarlyRate() {
+    long requests = requests();
+    return requests == 0 ? 0.0 : (double) (requests - scored) / requests;
+  }
+}
@@ -0,0 +1,44 @@
+package com.zanete.jobtitlenormaliser.model;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Outcome of a deduplicated batch run.
+ *
+ * @param rows input rows written to the output
+ * @param uniqueKeys distinct preprocessed keys, each normalised once
+ * @param runs sorted run files spilled to disk, including intermediate merges
+ * @param bytesRead bytes read from the input, twice, and from run files
+ * @param bytesWritten bytes written to run files and the output
+ * @param elapsed wall-clock time of the run
+ */
+public record DedupReport(long rows, long uniqueKeys, int runs, long bytesRead, long bytesWritten,
+                          Duration elapsed) {
+
+  /**
+   * Returns the share of rows that needed normalising, from 0 (all repeats) to 1 (no repeats).
+   */
+  public double uniqueKeyRatio() {
+    return rows == 0 ? 0.0 : (double) uniqueKeys / rows;
+  }
+
+  /**
+   * Returns bytes read and written per second of wall-clock time.
+   */
+  public double ioBytesPerSecond() {
+    return (bytesRead + bytesWritten) * 1e9 / Math.max(1, elapsed.toNanos());
+  }
+
+  /**
+   * Formats the report as plain text.
+   */
+  public String format() {
+    return String.format(Locale.ROOT,
+        "rows %d, unique keys %d (%.1f%%), runs %d%n"
+            + "read %,d bytes, written %,d bytes, %.1f MB/s%n"
+            + "elapsed %d ms%n",
+        rows, uniqueKeys, uniqueKeyRatio() * 100, runs, bytesRead, bytesWritten,
+        ioBytesPerSecond() / 1e6, elapsed.toMillis());
+  }
+}
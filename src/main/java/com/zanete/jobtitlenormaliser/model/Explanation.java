@@ -0,0 +1,39 @@
+package com.zanete.jobtitlenormaliser.model;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Why an input was normalised the way it was: its tokens, the resulting match and the
+ * highest-scoring candidates, including those below the match threshold.
+ *
+ * @param input the raw input
+ * @param inputTokens the preprocessed input tokens
+ * @param match the normalisation result, as returned without explaining
+ * @param candidates the best-scoring titles, best first
+ */
+public record Explanation(String input, List<String> inputTokens, Optional<MatchedTitle> match,
+                          List<CandidateExplanation> candidates) {
+
+  /**
+   * Formats the explanation as plain text, one candidate per block.
+   */
+  public String format() {
+    StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "\"%s\" %s -> %s%n",
+        input, inputTokens, match.map(MatchedTitle::title).orElse("(no match)")));
+    for (CandidateExplanation candidate : candidates) {
+      text.append(String.format(Locale.ROOT, "  %.4f %s %s%n",
+          candidate.overallScore(), candidate.title(), candidate.titleTokens()));
+      for (MatcherScore score : candidate.matcherScores()) {
+        text.append(String.format(Locale.ROOT, "    %-24s %.4f x %.2f = %.4f%n",
+            score.matcher(), score.rawScore(), score.weight(), score.weightedScore()));
+      }
+      for (TokenAlignment alignment : candidate.alignments()) {
+        text.append(String.format(Locale.ROOT, "    %s ~ %s %.4f%n",
+            alignment.inputToken(), alignment.titleToken(), alignment.similarity()));
+      }
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,19 @@
+package com.zanete.jobtitlenormaliser.model;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Matches merged from several shards, with how many shards contributed.
+ * A result is partial when some shards failed or did not answer in time.
+ */
+public record GatheredMatches(List<MatchedTitle> matches, int shardsQueried, int shardsAnswered) {
+
+  public boolean isPartial() {
+    return shardsAnswered < shardsQueried;
+  }
+
+  public Optional<MatchedTitle> best() {
+    return matches.stream().findFirst();
+  }
+}
@@ -0,0 +1,11 @@
+package com.zanete.jobtitlenormaliser.model;
+
+/**
+ * One matcher's contribution to a title's overall score.
+ *
+ * @param matcher simple class name of the matcher
+ * @param weight the matcher's weight
+ * @param rawScore the matcher's score before weighting, between 0.0 and 1.0
+ * @param weightedScore {@code rawScore * weight}, the amount added to the overall score
+ */
+public record MatcherScore(String matcher, double weight, double rawScore, double weightedScore) {}
@@ -0,0 +1,43 @@
+package com.zanete.jobtitlenormaliser.model;
+
+import java.util.Locale;
+
+/**
+ * Estimated heap held by a normaliser, by what the memory is for. Estimates assume a 64-bit JVM
+ * with compressed references and count shallow object sizes; they are meant for comparing
+ * configurations and catalogs, not for exact accounting.
+ *
+ * @param titles number of catalog titles
+ * @param titleBytes title texts and the per-title objects holding their tokens
+ * @param tokenBytes the catalog's distinct token strings and the structures looking them up
+ * @param indexBytes scoring arrays and size buckets
+ * @param cacheBytes entries currently held by the preprocessor's and matchers' caches
+ */
+public record MemoryReport(int titles, long titleBytes, long tokenBytes, long indexBytes,
+                           long cacheBytes) {
+
+  /**
+   * Returns the total estimated bytes.
+   */
+  public long totalBytes() {
+    return titleBytes + tokenBytes + indexBytes + cacheBytes;
+  }
+
+  /**
+   * Returns the estimated bytes of the catalog, excluding caches, per title.
+   */
+  public double catalogBytesPerTitle() {
+    return titles == 0 ? 0.0 : (double) (titleBytes + tokenBytes + indexBytes) / titles;
+  }
+
+  /**
+   * Formats the report as a plain-text table.
+   */
+  public String format() {
+    return String.format(Locale.ROOT,
+        "%-8s %14s%n%-8s %,14d%n%-8s %,14d%n%-8s %,14d%n%-8s %,14d%n%-8s %,14d%n"
+            + "%d titles, %.0f catalog bytes per title%n",
+        "memory", "bytes", "titles", titleBytes, "tokens", tokenBytes, "index", indexBytes,
+        "caches", cacheBytes, "total", totalBytes(), titles, catalogBytesPerTitle());
+  }
+}
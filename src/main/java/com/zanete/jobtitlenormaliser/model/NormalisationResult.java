@@ -0,0 +1,16 @@
+package com.zanete.jobtitlenormaliser.model;
+
+import java.util.Optional;
+
+/**
+ * An input title paired with its best match, if any title met the threshold.
+ */
+public record NormalisationResult(String input, Optional<MatchedTitle> match) {
+
+  /**
+   * Returns the normalised title, or an empty string if there was no match.
+   */
+  public String title() {
+    return match.map(MatchedTitle::title).orElse("");
+  }
+}
@@ -0,0 +1,37 @@
+package com.zanete.jobtitlenormaliser.model;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Per-stage statistics for a pipeline run, in stage order.
+ */
+public record PipelineReport(Duration elapsed, List<StageStatistics> stages) {
+
+  /**
+   * Returns the stage whose workers were busiest, i.e. the one limiting throughput.
+   */
+  public StageStatistics bottleneck() {
+    return stages.stream().max(Comparator.comparingDouble(StageStatistics::utilisation)).orElseThrow();
+  }
+
+  /**
+   * Formats the report as a plain-text table.
+   */
+  public String format() {
+    StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+        "%-10s %7s %10s %12s %7s %14s%n", "stage", "workers", "rows", "rows/s", "busy", "queue"));
+    for (StageStatistics stage : stages) {
+      String queue = stage.queueCapacity() == 0 ? "-" : String.format(Locale.ROOT, "%.1f/%d",
+          stage.averageQueueOccupancy(), stage.queueCapacity());
+      table.append(String.format(Locale.ROOT, "%-10s %7d %10d %12.0f %6.0f%% %14s%n",
+          stage.name(), stage.workers(), stage.items(), stage.throughputPerSecond(),
+          stage.utilisation() * 100, queue));
+    }
+    table.append(String.format(Locale.ROOT, "elapsed %d ms, bottleneck: %s%n",
+        elapsed.toMillis(), bottleneck().name()));
+    return table.toString();
+  }
+}
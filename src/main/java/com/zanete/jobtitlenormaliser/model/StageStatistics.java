@@ -0,0 +1,16 @@
+package com.zanete.jobtitlenormaliser.model;
+
+/**
+ * Throughput and load of one pipeline stage.
+ *
+ * @param name stage name
+ * @param workers number of worker threads
+ * @param items rows the stage has finished
+ * @param throughputPerSecond rows finished per second of wall-clock time
+ * @param utilisation fraction of the workers' time spent working rather than waiting on queues
+ * @param averageQueueOccupancy mean number of rows waiting in the stage's input queue
+ * @param queueCapacity capacity of the input queue, or 0 for a stage without one
+ */
+public record StageStatistics(String name, int workers, long items, double throughputPerSecond,
+                              double utilisation, double averageQueueOccupancy, int queueCapacity) {
+}
@@ -0,0 +1,6 @@
+package com.zanete.jobtitlenormaliser.model;
+
+/**
+ * The title token an input token was matched to by fuzzy matching, and their similarity.
+ */
+public record TokenAlignment(String inputToken, String titleToken, double similarity) {}
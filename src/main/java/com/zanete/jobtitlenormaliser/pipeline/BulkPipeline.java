@@ -0,0 +1,419 @@
+package com.zanete.jobtitlenormaliser.pipeline;
+
+import com.zanete.jobtitlenormaliser.FileJobTitleProvider;
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import com.zanete.jobtitlenormaliser.model.PipelineReport;
+import com.zanete.jobtitlenormaliser.model.StageStatistics;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Offline bulk normaliser that streams a file of raw titles through separate stages:
+ * <ol>
+ *   <li><b>read</b> – reads input lines (one thread)</li>
+ *   <li><b>tokenise</b> – runs the {@link Normaliser}'s preprocessing</li>
+ *   <li><b>score</b> – scores the tokens against the catalog</li>
+ *   <li><b>write</b> – writes results in input order (one thread)</li>
+ * </ol>
+ *
+ * <p>Stages are connected by bounded queues, so I/O overlaps with CPU work while memory stays
+ * bounded: at most a fixed window of rows is in the pipeline at any time. The tokenise and score
+ * stages have configurable worker counts.</p>
+ *
+ * <p>Each run produces a {@link PipelineReport} with per-stage throughput, how busy the stage's
+ * workers were and how full its input queue was on average. The stage whose workers are busiest,
+ * typically the one with a full queue in front of it, is the bottleneck.</p>
+ *
+ * <p>The output is tab-separated: {@code input, normalised title, score}, with an empty title
+ * and a score of 0 when nothing met the threshold.</p>
+ */
+public class BulkPipeline {
+
+  private static final Row END = new Row(-1, null);
+  private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(20);
+
+  private final Normaliser normaliser;
+  private final int tokeniserWorkers;
+  private final int scorerWorkers;
+  private final int queueCapacity;
+  private final Duration reportInterval;
+  private final Consumer<PipelineReport> progressListener;
+
+  private BulkPipeline(Builder builder) {
+    this.normaliser = builder.normaliser;
+    this.tokeniserWorkers = builder.tokeniserWorkers;
+    this.scorerWorkers = builder.scorerWorkers;
+    this.queueCapacity = builder.queueCapacity;
+    this.reportInterval = builder.reportInterval;
+    this.progressListener = builder.progressListener;
+  }
+
+  public static Builder builder(Normaliser normaliser) {
+    return new Builder(normaliser);
+  }
+
+  /**
+   * Normalises every line of the input file into the output file.
+   *
+   * @param input UTF-8 file with one raw job title per line
+   * @param output file to create or overwrite with tab-separated results
+   * @return statistics for each stage
+   * @throws IOException if reading or writing fails
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public PipelineReport run(Path input, Path output) throws IOException, InterruptedException {
+    Run run = new Run();
+    try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+         BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+      run.start(reader, writer);
+      run.await();
+    }
+    return run.report();
+  }
+
+  /**
+   * Runs the pipeline from the command line and prints the report.
+   *
+   * <p>Usage: {@code BulkPipeline <titlesFile> <prefixesFile> <inputFile> <outputFile>
+   * [tokeniserWorkers] [scorerWorkers]}</p>
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length < 4) {
+      System.err.println("Usage: BulkPipeline <titlesFile> <prefixesFile> <inputFile> <outputFile>"
+          + " [tokeniserWorkers] [scorerWorkers]");
+      System.exit(2);
+    }
+    Normaliser normaliser = new Normaliser(
+        new FileJobTitleProvider(Path.of(args[1]), Path.of(args[0])),
+        Matchers.builder()
+            .addMatcher(new FuzzyTokenMatcher(), 0.4)
+            .addMatcher(new CosineSimilarityMatcher(), 0.6)
+            .build());
+    Builder builder = builder(normaliser)
+        .progressListener(report -> System.err.print(report.format()));
+    if (args.length > 4) {
+      builder.tokeniserWorkers(Integer.parseInt(args[4]));
+    }
+    if (args.length > 5) {
+      builder.scorerWorkers(Integer.parseInt(args[5]));
+    }
+    System.out.print(builder.build().run(Path.of(args[2]), Path.of(args[3])).format());
+  }
+
+  /**
+   * State of a single pipeline run.
+   */
+  private final class Run {
+    private final BlockingQueue<Row> tokeniseQueue = new ArrayBlockingQueue<>(queueCapacity);
+    private final BlockingQueue<Row> scoreQueue = new ArrayBlockingQueue<>(queueCapacity);
+    private final BlockingQueue<Row> writeQueue = new ArrayBlockingQueue<>(queueCapacity);
+    // Bounds rows anywhere in the pipeline, including rows held back to restore input order
+    private final Semaphore window =
+        new Semaphore(3 * queueCapacity + tokeniserWorkers + scorerWorkers);
+
+    private final Stage read = new Stage("read", 1, null);
+    private final Stage tokenise = new Stage("tokenise", tokeniserWorkers, tokeniseQueue);
+    private final Stage score = new Stage("score", scorerWorkers, scoreQueue);
+    private final Stage write = new Stage("write", 1, writeQueue);
+    private final List<Stage> stages = List.of(read, tokenise, score, write);
+
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private long startNanos;
+    private long endNanos;
+
+    void start(BufferedReader reader, BufferedWriter writer) {
+      startNanos = System.nanoTime();
+      spawn("read", () -> readLines(reader));
+      AtomicInteger tokenisersLeft = new AtomicInteger(tokeniserWorkers);
+      for (int i = 0; i < tokeniserWorkers; i++) {
+        spawn("tokenise-" + i, () -> transform(tokenise, scoreQueue, scorerWorkers, tokenisersLeft,
+            row -> row.tokens = normaliser.preprocess(row.input)));
+      }
+      AtomicInteger scorersLeft = new AtomicInteger(scorerWorkers);
+      for (int i = 0; i < scorerWorkers; i++) {
+        spawn("score-" + i, () -> transform(score, writeQueue, 1, scorersLeft,
+            row -> row.match = normaliser.normalisePreprocessed(row.tokens)));
+      }
+      spawn("write", () -> writeRows(writer));
+      // Start only once every thread exists, so a failing stage can interrupt all of them
+      threads.forEach(Thread::start);
+    }
+
+    void await() throws IOException, InterruptedException {
+      Thread writerThread = threads.get(threads.size() - 1);
+      long nextReport = System.nanoTime() + reportInterval.toNanos();
+      try {
+        while (writerThread.isAlive()) {
+          writerThread.join(SAMPLE_INTERVAL.toMillis());
+          stages.forEach(Stage::sampleQueue);
+          if (progressListener != null && System.nanoTime() >= nextReport) {
+            progressListener.accept(report(System.nanoTime()));
+            nextReport += reportInterval.toNanos();
+          }
+        }
+        for (Thread thread : threads) {
+          thread.join();
+        }
+      } catch (InterruptedException e) {
+        threads.forEach(Thread::interrupt);
+        throw e;
+      }
+      endNanos = System.nanoTime();
+
+      Throwable error = failure.get();
+      if (error instanceof UncheckedIOException ioError) {
+        throw ioError.getCause();
+      } else if (error instanceof RuntimeException runtimeError) {
+        throw runtimeError;
+      } else if (error instanceof Error fatal) {
+        throw fatal;
+      }
+    }
+
+    PipelineReport report() {
+      return report(endNanos);
+    }
+
+    private PipelineReport report(long nowNanos) {
+      long elapsed = Math.max(1, nowNanos - startNanos);
+      return new PipelineReport(Duration.ofNanos(elapsed),
+          stages.stream().map(stage -> stage.statistics(elapsed)).toList());
+    }
+
+    private void readLines(BufferedReader reader) {
+      try {
+        long sequence = 0;
+        while (true) {
+          window.acquire();
+          long start = System.nanoTime();
+          String line = reader.readLine();
+          if (line == null) {
+            break;
+          }
+          read.recordWork(start);
+          tokeniseQueue.put(new Row(sequence++, line));
+        }
+        for (int i = 0; i < tokeniserWorkers; i++) {
+          tokeniseQueue.put(END);
+        }
+      } catch (IOException e) {
+        fail(new UncheckedIOException(e));
+      } catch (InterruptedException e) {
+        // Another stage failed
+      } catch (RuntimeException | Error e) {
+        fail(e);
+      }
+    }
+
+    private void transform(Stage stage, BlockingQueue<Row> out, int downstreamWorkers,
+                           AtomicInteger workersLeft, Consumer<Row> work) {
+      try {
+        Row row;
+        while ((row = stage.input.take()) != END) {
+          long start = System.nanoTime();
+          work.accept(row);
+          stage.recordWork(start);
+          out.put(row);
+        }
+        if (workersLeft.decrementAndGet() == 0) {
+          for (int i = 0; i < downstreamWorkers; i++) {
+            out.put(END);
+          }
+        }
+      } catch (InterruptedException e) {
+        // Another stage failed
+      } catch (RuntimeException | Error e) {
+        // A worker dying without sending END downstream would leave the writer waiting
+        fail(e);
+      }
+    }
+
+    private void writeRows(BufferedWriter writer) {
+      Map<Long, Row> outOfOrder = new HashMap<>();
+      long next = 0;
+      try {
+        Row row;
+        while ((row = writeQueue.take()) != END) {
+          outOfOrder.put(row.sequence, row);
+          while ((row = outOfOrder.remove(next)) != null) {
+            long start = System.nanoTime();
+            writer.write(format(row));
+            write.recordWork(start);
+            window.release();
+            next++;
+          }
+        }
+        writer.flush();
+      } catch (IOException e) {
+        fail(new UncheckedIOException(e));
+      } catch (InterruptedException e) {
+        // Another stage failed
+      } catch (RuntimeException | Error e) {
+        fail(e);
+      }
+    }
+
+    private void spawn(String name, Runnable body) {
+      Thread thread = new Thread(body, "bulk-pipeline-" + name);
+      thread.setDaemon(true);
+      threads.add(thread);
+    }
+
+    private void fail(Throwable error) {
+      if (failure.compareAndSet(null, error)) {
+        threads.forEach(Thread::interrupt);
+      }
+    }
+  }
+
+  private static String format(Row row) {
+    String title = row.match.map(MatchedTitle::title).orElse("");
+    double score = row.match.map(MatchedTitle::overallScore).orElse(0.0);
+    return String.format(Locale.ROOT, "%s\t%s\t%.4f%n", row.input.replace('\t', ' '), title, score);
+  }
+
+  /**
+   * A line moving through the pipeline. Each field is written by one stage and read by the next,
+   * with the queues providing the happens-before ordering.
+   */
+  private static final class Row {
+    private final long sequence;
+    private final String input;
+    private List<String> tokens;
+    private Optional<MatchedTitle> match;
+
+    private Row(long sequence, String input) {
+      this.sequence = sequence;
+      this.input = input;
+    }
+  }
+
+  /**
+   * Counters for one stage.
+   */
+  private static final class Stage {
+    private final String name;
+    private final int workers;
+    private final BlockingQueue<Row> input;
+    private final LongAdder items = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    // Only touched by the thread running await()
+    private long queueSamples;
+    private long queueOccupancySum;
+
+    private Stage(String name, int workers, BlockingQueue<Row> input) {
+      this.name = name;
+      this.workers = workers;
+      this.input = input;
+    }
+
+    void recordWork(long startNanos) {
+      busyNanos.add(System.nanoTime() - startNanos);
+      items.increment();
+    }
+
+    void sampleQueue() {
+      if (input != null) {
+        queueOccupancySum += input.size();
+        queueSamples++;
+      }
+    }
+
+    StageStatistics statistics(long elapsedNanos) {
+      long count = items.sum();
+      double averageOccupancy = queueSamples == 0 ? 0.0 : (double) queueOccupancySum / queueSamples;
+      int capacity = input == null ? 0 : input.size() + input.remainingCapacity();
+      return new StageStatistics(name, workers, count, count * 1e9 / elapsedNanos,
+          Math.min(1.0, busyNanos.sum() / ((double) elapsedNanos * workers)),
+          averageOccupancy, capacity);
+    }
+  }
+
+  public static class Builder {
+    private final Normaliser normaliser;
+    private int tokeniserWorkers = 1;
+    private int scorerWorkers = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 1024;
+    private Duration reportInterval = Duration.ofSeconds(5);
+    private Consumer<PipelineReport> progressListener;
+
+    private Builder(Normaliser normaliser) {
+      this.normaliser = normaliser;
+    }
+
+    /**
+     * Sets the number of threads preprocessing titles (default 1).
+     */
+    public Builder tokeniserWorkers(int workers) {
+      this.tokeniserWorkers = requirePositive(workers, "tokeniserWorkers");
+      return this;
+    }
+
+    /**
+     * Sets the number of threads scoring titles (default: one per core).
+     */
+    public Builder scorerWorkers(int workers) {
+      this.scorerWorkers = requirePositive(workers, "scorerWorkers");
+      return this;
+    }
+
+    /**
+     * Sets the capacity of each queue between stages (default 1024).
+     */
+    public Builder queueCapacity(int capacity) {
+      this.queueCapacity = requirePositive(capacity, "queueCapacity");
+      return this;
+    }
+
+    /**
+     * Receives an interim report every {@code interval} while the pipeline runs.
+     */
+    public Builder progressListener(Duration interval, Consumer<PipelineReport> listener) {
+      this.reportInterval = interval;
+      this.progressListener = listener;
+      return this;
+    }
+
+    /**
+     * Receives an interim report every five seconds while the pipeline runs.
+     */
+    public Builder progressListener(Consumer<PipelineReport> listener) {
+      return progressListener(Duration.ofSeconds(5), listener);
+    }
+
+    public BulkPipeline build() {
+      return new BulkPipeline(this);
+    }
+
+    private static int requirePositive(int value, String name) {
+      if (value < 1) {
+        throw new IllegalArgumentException(name + " must be at least 1: " + value);
+      }
+      return value;
+    }
+  }
+}
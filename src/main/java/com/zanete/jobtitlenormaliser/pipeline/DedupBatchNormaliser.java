@@ -0,0 +1,349 @@
+package com.zanete.jobtitlenormaliser.pipeline;
+
+import com.zanete.jobtitlenormaliser.FileJobTitleProvider;
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.alias.AliasTable;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import com.zanete.jobtitlenormaliser.model.DedupReport;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Offline batch normaliser for files far larger than memory with heavy repetition. Each distinct
+ * preprocessed title is normalised once, however often it occurs:
+ * <ol>
+ *   <li><b>spill</b> – reads input lines, preprocesses them and sorts {@code (key, row)} pairs
+ *   into runs on disk, keyed as the {@link AliasTable} keys tokens</li>
+ *   <li><b>normalise</b> – merges the runs, so equal keys arrive together, normalises each key
+ *   once and sorts {@code (row, result)} pairs into runs</li>
+ *   <li><b>join</b> – merges those runs back into row order while re-reading the input, and
+ *   writes the results</li>
+ * </ol>
+ *
+ * <p>Heap use is bounded by the run size and merge fan-in, not the input size. Keys are
+ * normalised in windows of merged rows, with the distinct keys of each window scored in
+ * parallel; a key spanning two windows is normalised only once.</p>
+ *
+ * <p>The output has the same format as {@link BulkPipeline}'s: tab-separated
+ * {@code input, normalised title, score}, with an empty title and a score of 0 when nothing met
+ * the threshold. Each run produces a {@link DedupReport} with the unique-key ratio and I/O
+ * throughput.</p>
+ */
+public class DedupBatchNormaliser {
+
+  private static final Comparator<KeyedRow> BY_KEY =
+      Comparator.comparing(KeyedRow::key).thenComparingLong(KeyedRow::row);
+  private static final Comparator<RowResult> BY_ROW = Comparator.comparingLong(RowResult::row);
+
+  private static final ExternalSorter.Codec<KeyedRow> KEYED_ROW_CODEC = new ExternalSorter.Codec<>() {
+    @Override
+    public void write(DataOutputStream out, KeyedRow value) throws IOException {
+      ExternalSorter.writeString(out, value.key());
+      out.writeLong(value.row());
+    }
+
+    @Override
+    public KeyedRow read(DataInputStream in) throws IOException {
+      return new KeyedRow(ExternalSorter.readString(in), in.readLong());
+    }
+  };
+
+  private static final ExternalSorter.Codec<RowResult> ROW_RESULT_CODEC = new ExternalSorter.Codec<>() {
+    @Override
+    public void write(DataOutputStream out, RowResult value) throws IOException {
+      out.writeLong(value.row());
+      ExternalSorter.writeString(out, value.title());
+      out.writeDouble(value.score());
+    }
+
+    @Override
+    public RowResult read(DataInputStream in) throws IOException {
+      return new RowResult(in.readLong(), ExternalSorter.readString(in), in.readDouble());
+    }
+  };
+
+  private record KeyedRow(String key, long row) {
+  }
+
+  private record RowResult(long row, String title, double score) {
+  }
+
+  private final Normaliser normaliser;
+  private final int runRecords;
+  private final int mergeFanIn;
+  private final int windowRecords;
+  private final int workers;
+  private final Path spillDirectory;
+
+  private DedupBatchNormaliser(Builder builder) {
+    this.normaliser = builder.normaliser;
+    this.runRecords = builder.runRecords;
+    this.mergeFanIn = builder.mergeFanIn;
+    this.windowRecords = builder.windowRecords;
+    this.workers = builder.workers;
+    this.spillDirectory = builder.spillDirectory;
+  }
+
+  public static Builder builder(Normaliser normaliser) {
+    return new Builder(normaliser);
+  }
+
+  /**
+   * Normalises every line of the input file into the output file.
+   *
+   * @param input UTF-8 file with one raw job title per line
+   * @param output file to create or overwrite with tab-separated results
+   * @return row and key counts with I/O totals
+   * @throws IOException if reading, spilling or writing fails
+   * @throws InterruptedException if the calling thread is interrupted while keys are normalised
+   */
+  public DedupReport run(Path input, Path output) throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    Path directory = spillDirectory == null
+        ? Files.createTempDirectory("dedup-batch")
+        : Files.createTempDirectory(spillDirectory, "dedup-batch");
+    ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+      Thread thread = new Thread(runnable, "dedup-batch-normalise");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      ExternalSorter<KeyedRow> byKey = new ExternalSorter<>(directory, "keys", BY_KEY,
+          KEYED_ROW_CODEC, runRecords, mergeFanIn);
+      long rows = spill(input, byKey);
+
+      ExternalSorter<RowResult> byRow = new ExternalSorter<>(directory, "results", BY_ROW,
+          ROW_RESULT_CODEC, runRecords, mergeFanIn);
+      long uniqueKeys;
+      try (ExternalSorter.Sorted<KeyedRow> keyed = byKey.sorted()) {
+        uniqueKeys = normalise(keyed, byRow, executor);
+      }
+
+      try (ExternalSorter.Sorted<RowResult> results = byRow.sorted()) {
+        join(input, results, output);
+      }
+
+      long inputBytes = Files.size(input);
+      return new DedupReport(rows, uniqueKeys, byKey.runsWritten() + byRow.runsWritten(),
+          2 * inputBytes + byKey.bytesRead() + byRow.bytesRead(),
+          byKey.bytesWritten() + byRow.bytesWritten() + Files.size(output),
+          Duration.ofNanos(System.nanoTime() - start));
+    } finally {
+      executor.shutdownNow();
+      deleteRecursively(directory);
+    }
+  }
+
+  /**
+   * Runs the batch from the command line and prints the report.
+   *
+   * <p>Usage: {@code DedupBatchNormaliser <titlesFile> <prefixesFile> <inputFile> <outputFile>
+   * [spillDirectory]}</p>
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length < 4) {
+      System.err.println("Usage: DedupBatchNormaliser <titlesFile> <prefixesFile> <inputFile>"
+          + " <outputFile> [spillDirectory]");
+      System.exit(2);
+    }
+    Normaliser normaliser = new Normaliser(
+        new FileJobTitleProvider(Path.of(args[1]), Path.of(args[0])),
+        Matchers.builder()
+            .addMatcher(new FuzzyTokenMatcher(), 0.4)
+            .addMatcher(new CosineSimilarityMatcher(), 0.6)
+            .build());
+    Builder builder = builder(normaliser);
+    if (args.length > 4) {
+      builder.spillDirectory(Path.of(args[4]));
+    }
+    System.out.print(builder.build().run(Path.of(args[2]), Path.of(args[3])).format());
+  }
+
+  private long spill(Path input, ExternalSorter<KeyedRow> byKey) throws IOException {
+    long row = 0;
+    try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        byKey.add(new KeyedRow(AliasTable.key(normaliser.preprocess(line)), row++));
+      }
+    }
+    return row;
+  }
+
+  /**
+   * Normalises the distinct keys of the key-ordered rows and adds each row's result.
+   *
+   * @return the number of distinct keys
+   */
+  private long normalise(ExternalSorter.Sorted<KeyedRow> keyed, ExternalSorter<RowResult> byRow,
+                         ExecutorService executor) throws IOException, InterruptedException {
+    long uniqueKeys = 0;
+    String previousKey = null;
+    Optional<MatchedTitle> previousMatch = Optional.empty();
+    List<KeyedRow> window = new ArrayList<>(windowRecords);
+    KeyedRow next = keyed.next();
+    while (next != null) {
+      window.clear();
+      while (next != null && window.size() < windowRecords) {
+        window.add(next);
+        next = keyed.next();
+      }
+
+      Map<String, Future<Optional<MatchedTitle>>> matches = new LinkedHashMap<>();
+      for (KeyedRow row : window) {
+        if (!row.key().equals(previousKey) && !matches.containsKey(row.key())) {
+          matches.put(row.key(), executor.submit(normaliseKey(row.key())));
+        }
+      }
+      uniqueKeys += matches.size();
+
+      for (KeyedRow row : window) {
+        if (!row.key().equals(previousKey)) {
+          previousKey = row.key();
+          previousMatch = await(matches.get(previousKey));
+        }
+        byRow.add(new RowResult(row.row(), previousMatch.map(MatchedTitle::title).orElse(null),
+            previousMatch.map(MatchedTitle::overallScore).orElse(0.0)));
+      }
+    }
+    return uniqueKeys;
+  }
+
+  private Callable<Optional<MatchedTitle>> normaliseKey(String key) {
+    List<String> tokens = key.isEmpty() ? List.of() : List.of(key.split(" "));
+    return () -> normaliser.normalisePreprocessed(tokens);
+  }
+
+  private static void join(Path input, ExternalSorter.Sorted<RowResult> results, Path output)
+      throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+         BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        RowResult result = results.next();
+        writer.write(String.format(Locale.ROOT, "%s\t%s\t%.4f%n", line.replace('\t', ' '),
+            result.title() == null ? "" : result.title(), result.score()));
+      }
+    }
+  }
+
+  private static Optional<MatchedTitle> await(Future<Optional<MatchedTitle>> match)
+      throws InterruptedException {
+    try {
+      return match.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeError) {
+        throw runtimeError;
+      } else if (e.getCause() instanceof Error fatal) {
+        throw fatal;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private static void deleteRecursively(Path directory) throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+        try {
+          Files.delete(path);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  public static class Builder {
+    private final Normaliser normaliser;
+    private int runRecords = 1 << 20;
+    private int mergeFanIn = 64;
+    private int windowRecords = 1 << 14;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private Path spillDirectory;
+
+    private Builder(Normaliser normaliser) {
+      this.normaliser = normaliser;
+    }
+
+    /**
+     * Sets how many rows are sorted in memory before a run is spilled (default 1048576).
+     */
+    public Builder runRecords(int records) {
+      this.runRecords = requirePositive(records, "runRecords");
+      return this;
+    }
+
+    /**
+     * Sets how many runs are merged at once (default 64).
+     */
+    public Builder mergeFanIn(int fanIn) {
+      if (fanIn < 2) {
+        throw new IllegalArgumentException("mergeFanIn must be at least 2: " + fanIn);
+      }
+      this.mergeFanIn = fanIn;
+      return this;
+    }
+
+    /**
+     * Sets how many merged rows are gathered before their distinct keys are normalised
+     * (default 16384).
+     */
+    public Builder windowRecords(int records) {
+      this.windowRecords = requirePositive(records, "windowRecords");
+      return this;
+    }
+
+    /**
+     * Sets the number of threads normalising keys (default: one per core).
+     */
+    public Builder workers(int workers) {
+      this.workers = requirePositive(workers, "workers");
+      return this;
+    }
+
+    /**
+     * Sets the directory runs are spilled to (default: the system temporary directory).
+     */
+    public Builder spillDirectory(Path directory) {
+      this.spillDirectory = directory;
+      return this;
+    }
+
+    public DedupBatchNormaliser build() {
+      return new DedupBatchNormaliser(this);
+    }
+
+    private static int requirePositive(int value, String name) {
+      if (value < 1) {
+        throw new IllegalArgumentException(name + " must be at least 1: " + value);
+      }
+      return value;
+    }
+  }
+}
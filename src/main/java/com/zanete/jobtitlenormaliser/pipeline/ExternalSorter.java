@@ -0,0 +1,256 @@
+package com.zanete.jobtitlenormaliser.pipeline;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts more records than fit in memory: records are buffered up to a fixed count, sorted and
+ * spilled to a run file, and the runs are merged back in order. When there are more runs than
+ * the merge fan-in, runs are merged into longer runs first, so at most fan-in files are open.
+ *
+ * <p>Inputs that fit in one buffer never touch the disk.</p>
+ *
+ * @param <T> record type
+ */
+final class ExternalSorter<T> {
+
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  /**
+   * Writes and reads records of a run file.
+   */
+  interface Codec<T> {
+    void write(DataOutputStream out, T value) throws IOException;
+
+    T read(DataInputStream in) throws IOException;
+  }
+
+  /**
+   * Records in sorted order; {@link #next()} returns {@code null} after the last one.
+   */
+  interface Sorted<T> extends Closeable {
+    T next() throws IOException;
+  }
+
+  private record Run(Path path, long records) {
+  }
+
+  private final Path directory;
+  private final String name;
+  private final Comparator<T> order;
+  private final Codec<T> codec;
+  private final int runRecords;
+  private final int fanIn;
+  private final List<T> buffer = new ArrayList<>();
+  private final List<Run> runs = new ArrayList<>();
+  private int runsWritten;
+  private long bytesWritten;
+  private long bytesRead;
+
+  ExternalSorter(Path directory, String name, Comparator<T> order, Codec<T> codec, int runRecords,
+                 int fanIn) {
+    this.directory = directory;
+    this.name = name;
+    this.order = order;
+    this.codec = codec;
+    this.runRecords = runRecords;
+    this.fanIn = fanIn;
+  }
+
+  void add(T value) throws IOException {
+    buffer.add(value);
+    if (buffer.size() >= runRecords) {
+      buffer.sort(order);
+      runs.add(write(buffer.iterator(), buffer.size()));
+      buffer.clear();
+    }
+  }
+
+  /**
+   * Returns every record added so far, in order. Run files are deleted as they are consumed.
+   */
+  Sorted<T> sorted() throws IOException {
+    buffer.sort(order);
+    if (runs.isEmpty()) {
+      Iterator<T> values = List.copyOf(buffer).iterator();
+      buffer.clear();
+      return new Sorted<>() {
+        @Override
+        public T next() {
+          return values.hasNext() ? values.next() : null;
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+    }
+    if (!buffer.isEmpty()) {
+      runs.add(write(buffer.iterator(), buffer.size()));
+      buffer.clear();
+    }
+    while (runs.size() > fanIn) {
+      List<Run> group = new ArrayList<>(runs.subList(0, fanIn));
+      runs.subList(0, fanIn).clear();
+      long records = group.stream().mapToLong(Run::records).sum();
+      try (Merge merge = new Merge(group)) {
+        runs.add(write(merge.iterator(), records));
+      }
+    }
+    List<Run> last = List.copyOf(runs);
+    runs.clear();
+    return new Merge(last);
+  }
+
+  /**
+   * Returns the number of run files written, including intermediate merges.
+   */
+  int runsWritten() {
+    return runsWritten;
+  }
+
+  long bytesWritten() {
+    return bytesWritten;
+  }
+
+  long bytesRead() {
+    return bytesRead;
+  }
+
+  private Run write(Iterator<T> values, long records) throws IOException {
+    Path path = directory.resolve(name + "-" + runsWritten++ + ".run");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(path), BUFFER_BYTES))) {
+      for (long i = 0; i < records; i++) {
+        codec.write(out, values.next());
+      }
+    }
+    bytesWritten += Files.size(path);
+    return new Run(path, records);
+  }
+
+  static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * K-way merge of run files through a heap of their head records.
+   */
+  private final class Merge implements Sorted<T> {
+    private final List<Cursor> cursors = new ArrayList<>();
+    private final PriorityQueue<Cursor> heads =
+        new PriorityQueue<>((a, b) -> order.compare(a.head, b.head));
+
+    private Merge(List<Run> group) throws IOException {
+      try {
+        for (Run run : group) {
+          Cursor cursor = new Cursor(run);
+          cursors.add(cursor);
+          if (cursor.advance()) {
+            heads.add(cursor);
+          }
+        }
+      } catch (IOException e) {
+        close();
+        throw e;
+      }
+    }
+
+    @Override
+    public T next() throws IOException {
+      Cursor cursor = heads.poll();
+      if (cursor == null) {
+        return null;
+      }
+      T value = cursor.head;
+      if (cursor.advance()) {
+        heads.add(cursor);
+      }
+      return value;
+    }
+
+    Iterator<T> iterator() {
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return !heads.isEmpty();
+        }
+
+        @Override
+        public T next() {
+          try {
+            return Merge.this.next();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+      };
+    }
+
+    @Override
+    public void close() throws IOException {
+      IOException failure = null;
+      for (Cursor cursor : cursors) {
+        try {
+          cursor.in.close();
+          Files.deleteIfExists(cursor.run.path());
+        } catch (IOException e) {
+          failure = e;
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+
+  private final class Cursor {
+    private final Run run;
+    private final DataInputStream in;
+    private long remaining;
+    private T head;
+
+    private Cursor(Run run) throws IOException {
+      this.run = run;
+      this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.path()), BUFFER_BYTES));
+      this.remaining = run.records();
+      bytesRead += Files.size(run.path());
+    }
+
+    boolean advance() throws IOException {
+      if (remaining == 0) {
+        return false;
+      }
+      remaining--;
+      head = codec.read(in);
+      return true;
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package com.zanete.jobtitlenormaliser.remote;
+
+import com.zanete.jobtitlenormaliser.model.GatheredMatches;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fans queries out to remote {@link ShardServer}s and merges their results.
+ *
+ * <p>Shards must be listed in catalog order (shard 0 holding the first titles), so that merging
+ * by descending score with a stable sort resolves ties exactly as a single {@code Normaliser}
+ * over the whole catalog would.</p>
+ *
+ * <p>Every query has one deadline shared by all shards. Shards that are down, fail, or have not
+ * answered by the deadline are left out and the result is marked partial, rather than failing
+ * the whole query. Connections are kept open and reused; a connection that timed out or failed
+ * is closed, so a late answer can never be read as the reply to a later query.</p>
+ */
+public class ShardCoordinator implements AutoCloseable {
+
+  private final List<Shard> shards;
+  private final Duration timeout;
+  private final ExecutorService executor;
+
+  /**
+   * Creates a coordinator for the given shards.
+   *
+   * @param shardAddresses shard servers, in catalog order
+   * @param timeout how long a query waits for shards before returning partial results
+   */
+  public ShardCoordinator(List<InetSocketAddress> shardAddresses, Duration timeout) {
+    this.shards = shardAddresses.stream().map(Shard::new).toList();
+    this.timeout = timeout;
+    this.executor = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "shard-coordinator");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Returns the best-matching title across the shards that answered, or an empty string.
+   */
+  public String normalise(String input) {
+    return normaliseDetailed(input).map(MatchedTitle::title).orElse("");
+  }
+
+  /**
+   * Returns the best match across the shards that answered.
+   */
+  public Optional<MatchedTitle> normaliseDetailed(String input) {
+    return normaliseTopK(input, 1).best();
+  }
+
+  /**
+   * Queries every shard for its top {@code k} matches and merges them.
+   *
+   * @param input raw job title text
+   * @param k maximum number of matches to return (at least 1)
+   * @return merged matches, best first, with the number of shards that answered
+   * @throws IllegalArgumentException if k is less than 1
+   */
+  public GatheredMatches normaliseTopK(String input, int k) {
+    if (k < 1) {
+      // Shards drop such requests as malformed, which would look like an outage
+      throw new IllegalArgumentException("k must be at least 1: " + k);
+    }
+    long deadline = System.nanoTime() + timeout.toNanos();
+    List<CompletableFuture<List<MatchedTitle>>> pending = shards.stream()
+        .map(shard -> CompletableFuture.supplyAsync(() -> shard.query(input, k, deadline), executor))
+        .toList();
+
+    List<MatchedTitle> merged = new ArrayList<>();
+    int answered = 0;
+    for (CompletableFuture<List<MatchedTitle>> shardResult : pending) {
+      try {
+        long remaining = Math.max(0, deadline - System.nanoTime());
+        merged.addAll(shardResult.get(remaining, TimeUnit.NANOSECONDS));
+        answered++;
+      } catch (TimeoutException | ExecutionException e) {
+        // Slow or dead shard: leave it out and report a partial result
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+
+    List<MatchedTitle> best = merged.stream()
+        .sorted(Comparator.comparingDouble(MatchedTitle::overallScore).reversed())
+        .limit(k)
+        .toList();
+    return new GatheredMatches(best, shards.size(), answered);
+  }
+
+  /**
+   * Closes all pooled connections and stops the fan-out threads.
+   */
+  @Override
+  public void close() {
+    shards.forEach(Shard::close);
+    executor.shutdownNow();
+  }
+
+  /**
+   * A shard address with a pool of idle connections to it.
+   */
+  private static final class Shard {
+    private final InetSocketAddress address;
+    private final ConcurrentLinkedQueue<Connection> idle = new ConcurrentLinkedQueue<>();
+
+    private Shard(InetSocketAddress address) {
+      this.address = address;
+    }
+
+    List<MatchedTitle> query(String input, int k, long deadline) {
+      Connection connection = idle.poll();
+      try {
+        if (connection == null) {
+          connection = Connection.open(address, remainingMillis(deadline));
+        }
+        connection.socket.setSoTimeout(remainingMillis(deadline));
+        ShardProtocol.writeRequest(connection.out, input, k);
+        List<MatchedTitle> matches = ShardProtocol.readResponse(connection.in);
+        idle.offer(connection);
+        return matches;
+      } catch (IOException e) {
+        if (connection != null) {
+          connection.close();
+        }
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    void close() {
+      Connection connection;
+      while ((connection = idle.poll()) != null) {
+        connection.close();
+      }
+    }
+
+    private static int remainingMillis(long deadline) throws IOException {
+      long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+      if (remaining <= 0) {
+        throw new IOException("Deadline passed before the shard was queried");
+      }
+      return (int) Math.min(Integer.MAX_VALUE, remaining);
+    }
+  }
+
+  private record Connection(Socket socket, DataInputStream in, DataOutputStream out) {
+
+    static Connection open(InetSocketAddress address, int connectTimeoutMillis) throws IOException {
+      Socket socket = new Socket();
+      try {
+        socket.setTcpNoDelay(true);
+        socket.connect(address, connectTimeoutMillis);
+        return new Connection(socket,
+            new DataInputStream(new BufferedInputStream(socket.getInputStream())),
+            new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())));
+      } catch (IOException e) {
+        socket.close();
+        throw e;
+      }
+    }
+
+    void close() {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // Already unusable
+      }
+    }
+  }
+}
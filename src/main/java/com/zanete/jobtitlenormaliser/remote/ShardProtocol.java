@@ -0,0 +1,96 @@
+package com.zanete.jobtitlenormaliser.remote;
+
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary wire format between a {@link ShardCoordinator} and its {@link ShardServer}s.
+ *
+ * <p>All integers are big-endian, strings are an {@code int} byte length followed by UTF-8.</p>
+ * <pre>
+ * request:  byte version | int k | string input
+ * response: int count | count × (string title | double score)
+ * </pre>
+ *
+ * <p>A connection carries any number of request/response pairs in sequence.</p>
+ */
+final class ShardProtocol {
+
+  static final byte VERSION = 1;
+
+  // Upper bound on a single string, so a corrupt length cannot trigger a huge allocation
+  private static final int MAX_STRING_BYTES = 1 << 20;
+
+  private ShardProtocol() {}
+
+  record Request(String input, int k) {}
+
+  static void writeRequest(DataOutputStream out, String input, int k) throws IOException {
+    out.writeByte(VERSION);
+    out.writeInt(k);
+    writeString(out, input == null ? "" : input);
+    out.flush();
+  }
+
+  /**
+   * Reads the next request, or returns null if the peer closed the connection cleanly.
+   *
+   * @throws IOException if the request is malformed, including a k below 1
+   */
+  static Request readRequest(DataInputStream in) throws IOException {
+    int version = in.read();
+    if (version < 0) {
+      return null;
+    }
+    if (version != VERSION) {
+      throw new IOException("Unsupported protocol version: " + version);
+    }
+    int k = in.readInt();
+    if (k < 1) {
+      throw new IOException("Invalid match count requested: " + k);
+    }
+    return new Request(readString(in), k);
+  }
+
+  static void writeResponse(DataOutputStream out, List<MatchedTitle> matches) throws IOException {
+    out.writeInt(matches.size());
+    for (MatchedTitle match : matches) {
+      writeString(out, match.title());
+      out.writeDouble(match.overallScore());
+    }
+    out.flush();
+  }
+
+  static List<MatchedTitle> readResponse(DataInputStream in) throws IOException {
+    int count = in.readInt();
+    if (count < 0) {
+      throw new IOException("Invalid match count: " + count);
+    }
+    List<MatchedTitle> matches = new ArrayList<>(Math.min(count, 1024));
+    for (int i = 0; i < count; i++) {
+      matches.add(new MatchedTitle(readString(in), in.readDouble()));
+    }
+    return matches;
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > MAX_STRING_BYTES) {
+      throw new IOException("Invalid string length: " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
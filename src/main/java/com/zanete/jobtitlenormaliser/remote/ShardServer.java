@@ -0,0 +1,164 @@
+package com.zanete.jobtitlenormaliser.remote;
+
+import com.zanete.jobtitlenormaliser.FileJobTitleProvider;
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves one catalog shard over TCP using the {@link ShardProtocol}.
+ *
+ * <p>Each shard server wraps an ordinary {@link Normaliser} built over its slice of the
+ * catalog and answers top-k requests from a {@link ShardCoordinator}. Every connection is
+ * handled on its own thread and may carry many requests in sequence.</p>
+ *
+ * <p>The server can be embedded (see {@link #start()}) or run as a standalone process through
+ * {@link #main(String[])}.</p>
+ *
+ * <p>The protocol is unauthenticated, so the server listens on the loopback interface unless
+ * given another bind address.</p>
+ */
+public class ShardServer implements AutoCloseable {
+
+  private final Normaliser normaliser;
+  private final ServerSocket serverSocket;
+  private final ExecutorService connectionHandlers;
+  private final Set<Socket> openConnections = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Binds the server socket on the loopback interface; call {@link #start()} to begin accepting
+   * connections.
+   *
+   * @param normaliser normaliser over this shard's titles
+   * @param port port to listen on, or 0 for an ephemeral port
+   * @throws IOException if the port cannot be bound
+   */
+  public ShardServer(Normaliser normaliser, int port) throws IOException {
+    this(normaliser, InetAddress.getLoopbackAddress(), port);
+  }
+
+  /**
+   * Binds the server socket on the given address; call {@link #start()} to begin accepting
+   * connections.
+   *
+   * @param normaliser normaliser over this shard's titles
+   * @param bindAddress local address to listen on; the wildcard address listens on every
+   *     interface
+   * @param port port to listen on, or 0 for an ephemeral port
+   * @throws IOException if the port cannot be bound
+   */
+  public ShardServer(Normaliser normaliser, InetAddress bindAddress, int port) throws IOException {
+    this.normaliser = normaliser;
+    this.serverSocket = new ServerSocket(port, 0, bindAddress);
+    this.connectionHandlers = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "shard-server-" + serverSocket.getLocalPort());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Returns the port the server is bound to.
+   */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Starts accepting connections on a background thread.
+   */
+  public ShardServer start() {
+    connectionHandlers.execute(this::acceptConnections);
+    return this;
+  }
+
+  /**
+   * Stops accepting connections and closes the open ones.
+   */
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    for (Socket socket : openConnections) {
+      socket.close();
+    }
+    connectionHandlers.shutdownNow();
+  }
+
+  private void acceptConnections() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        openConnections.add(socket);
+        connectionHandlers.execute(() -> serve(socket));
+      } catch (IOException e) {
+        // Socket closed by close(); anything else is retried on the next accept
+      }
+    }
+  }
+
+  private void serve(Socket socket) {
+    try (socket;
+         DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+      ShardProtocol.Request request;
+      while ((request = ShardProtocol.readRequest(in)) != null) {
+        ShardProtocol.writeResponse(out, normaliser.normaliseTopK(request.input(), request.k()));
+      }
+    } catch (IOException e) {
+      // The coordinator gave up on this connection (timeout or shutdown); nothing to answer
+    } finally {
+      openConnections.remove(socket);
+    }
+  }
+
+  /**
+   * Runs a shard server process.
+   *
+   * <p>Usage: {@code ShardServer <port> <titlesFile> <prefixesFile> <shardIndex> <shardCount>
+   * [bindAddress]}. The process serves titles slice {@code shardIndex} of {@code shardCount}
+   * using the default matchers, on the loopback interface unless a bind address is given, and
+   * prints {@code Listening on port <port>} once it accepts connections.</p>
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length != 5 && args.length != 6) {
+      System.err.println("Usage: ShardServer <port> <titlesFile> <prefixesFile> <shardIndex> "
+          + "<shardCount> [bindAddress]");
+      System.exit(2);
+    }
+    FileJobTitleProvider provider = new FileJobTitleProvider(Path.of(args[2]), Path.of(args[1]))
+        .shard(Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+    Normaliser normaliser = new Normaliser(provider, Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build());
+
+    InetAddress bindAddress =
+        args.length == 6 ? InetAddress.getByName(args[5]) : InetAddress.getLoopbackAddress();
+    ShardServer server = new ShardServer(normaliser, bindAddress, Integer.parseInt(args[0])).start();
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        server.close();
+      } catch (IOException e) {
+        // Exiting anyway
+      }
+    }));
+    System.out.println("Listening on port " + server.getPort());
+    System.out.flush();
+    Thread.currentThread().join();
+  }
+}
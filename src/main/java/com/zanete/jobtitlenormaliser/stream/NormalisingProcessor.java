@@ -0,0 +1,337 @@
+package com.zanete.jobtitlenormaliser.stream;
+
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import com.zanete.jobtitlenormaliser.model.NormalisationResult;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Streaming normalisation stage: a {@link Flow.Processor} that normalises each incoming title
+ * and publishes a {@link NormalisationResult} for it.
+ *
+ * <p>The processor never asks upstream for more titles than the subscriber has requested, and
+ * never holds more than {@code maxInFlight} titles at once, counting those requested but not yet
+ * received, those being normalised and those finished but not yet delivered. A slow subscriber
+ * therefore slows the source instead of growing a buffer.</p>
+ *
+ * <p>Up to {@code maxInFlight} titles are normalised concurrently on the executor. With
+ * {@code preserveOrder} results are delivered in input order, holding back results that finish
+ * early; without it they are delivered as soon as they are ready.</p>
+ *
+ * <p>A single subscriber is supported. If normalising a title throws, or the executor rejects
+ * it, upstream is cancelled and the subscriber receives the error.</p>
+ */
+public class NormalisingProcessor implements Flow.Processor<String, NormalisationResult> {
+
+  private final Function<String, Optional<MatchedTitle>> normalise;
+  private final Executor executor;
+  private final int maxInFlight;
+  private final boolean preserveOrder;
+
+  // Ensures only one thread delivers signals downstream at a time
+  private final AtomicInteger drainRequests = new AtomicInteger();
+
+  // All fields below are guarded by "this"
+  private Flow.Subscription upstream;
+  private boolean subscriberClaimed;
+  private Flow.Subscriber<? super NormalisationResult> downstream;
+  private long demand;
+  private int awaitingUpstream;
+  private int inFlight;
+  private long nextSequence;
+  private long nextToDeliver;
+  private final Map<Long, NormalisationResult> reorderBuffer = new HashMap<>();
+  private final Queue<NormalisationResult> readyQueue = new ArrayDeque<>();
+  private boolean upstreamDone;
+  private Throwable upstreamError;
+  private Throwable failure;
+  private boolean terminated;
+
+  /**
+   * Creates a processor around the given normaliser.
+   *
+   * @param normaliser the normaliser to apply to each title
+   * @param executor where titles are normalised
+   * @param maxInFlight maximum number of titles held by the processor at once (at least 1)
+   * @param preserveOrder whether results are delivered in input order
+   * @throws IllegalArgumentException if maxInFlight is less than 1
+   */
+  public NormalisingProcessor(Normaliser normaliser, Executor executor, int maxInFlight,
+                              boolean preserveOrder) {
+    this(normaliser::normaliseDetailed, executor, maxInFlight, preserveOrder);
+  }
+
+  NormalisingProcessor(Function<String, Optional<MatchedTitle>> normalise, Executor executor,
+                       int maxInFlight, boolean preserveOrder) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+    }
+    this.normalise = normalise;
+    this.executor = executor;
+    this.maxInFlight = maxInFlight;
+    this.preserveOrder = preserveOrder;
+  }
+
+  /**
+   * Returns the number of titles currently being normalised.
+   */
+  public synchronized int getInFlightCount() {
+    return inFlight;
+  }
+
+  /**
+   * Returns the number of results finished but not yet delivered, either for lack of demand
+   * or because an earlier title is still being normalised.
+   */
+  public synchronized int getBufferedCount() {
+    return reorderBuffer.size() + readyQueue.size();
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super NormalisationResult> subscriber) {
+    boolean first;
+    synchronized (this) {
+      first = !subscriberClaimed;
+      subscriberClaimed = true;
+    }
+    if (!first) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+      });
+      subscriber.onError(new IllegalStateException("NormalisingProcessor supports a single subscriber"));
+      return;
+    }
+    subscriber.onSubscribe(new DownstreamSubscription());
+    // Only publish the subscriber once onSubscribe has returned, so no signal can overtake it
+    synchronized (this) {
+      downstream = subscriber;
+    }
+    drain();
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    synchronized (this) {
+      if (upstream != null) {
+        subscription.cancel();
+        return;
+      }
+      upstream = subscription;
+    }
+    drain();
+  }
+
+  /**
+   * Receives a title from upstream.
+   *
+   * @throws NullPointerException if the title is null
+   */
+  @Override
+  public void onNext(String item) {
+    Objects.requireNonNull(item, "item");
+    long sequence;
+    synchronized (this) {
+      if (terminated || failure != null) {
+        return;
+      }
+      awaitingUpstream = Math.max(0, awaitingUpstream - 1);
+      inFlight++;
+      sequence = nextSequence++;
+    }
+    try {
+      executor.execute(() -> process(sequence, item));
+    } catch (RejectedExecutionException e) {
+      finish(null, e, sequence);
+    }
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    synchronized (this) {
+      upstreamDone = true;
+      upstreamError = throwable;
+      awaitingUpstream = 0;
+    }
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    synchronized (this) {
+      upstreamDone = true;
+      awaitingUpstream = 0;
+    }
+    drain();
+  }
+
+  private void process(long sequence, String item) {
+    NormalisationResult result = null;
+    Throwable error = null;
+    try {
+      result = new NormalisationResult(item, normalise.apply(item));
+    } catch (RuntimeException | Error e) {
+      // An error must still release the title and reach the subscriber, or the stream hangs
+      error = e;
+    }
+    finish(result, error, sequence);
+  }
+
+  /**
+   * Releases an in-flight title, buffering its result or failing the stream with its error.
+   */
+  private void finish(NormalisationResult result, Throwable error, long sequence) {
+    Flow.Subscription toCancel = null;
+    synchronized (this) {
+      inFlight--;
+      if (terminated) {
+        return;
+      }
+      if (error != null) {
+        if (failure == null) {
+          failure = error;
+          toCancel = upstream;
+        }
+      } else if (preserveOrder) {
+        reorderBuffer.put(sequence, result);
+      } else {
+        readyQueue.add(result);
+      }
+    }
+    if (toCancel != null) {
+      toCancel.cancel();
+    }
+    drain();
+  }
+
+  /**
+   * Delivers ready results while there is demand, signals termination, and requests more
+   * titles from upstream when there is both demand and capacity.
+   */
+  private void drain() {
+    if (drainRequests.getAndIncrement() != 0) {
+      return;
+    }
+    do {
+      Flow.Subscriber<? super NormalisationResult> subscriber;
+      synchronized (this) {
+        subscriber = downstream;
+      }
+      if (subscriber == null) {
+        continue;
+      }
+
+      while (true) {
+        NormalisationResult next;
+        synchronized (this) {
+          if (terminated || failure != null || demand == 0) {
+            break;
+          }
+          next = pollReady();
+          if (next == null) {
+            break;
+          }
+          demand--;
+        }
+        subscriber.onNext(next);
+      }
+
+      Throwable error = null;
+      boolean complete = false;
+      Flow.Subscription source = null;
+      long toRequest = 0;
+      synchronized (this) {
+        if (terminated) {
+          continue;
+        }
+        int held = awaitingUpstream + inFlight + reorderBuffer.size() + readyQueue.size();
+        if (failure != null) {
+          error = failure;
+          source = upstream;
+        } else if (upstreamDone && held == 0) {
+          error = upstreamError;
+          complete = upstreamError == null;
+        } else if (!upstreamDone && upstream != null) {
+          toRequest = Math.min(maxInFlight, demand) - held;
+          if (toRequest > 0) {
+            awaitingUpstream += (int) toRequest;
+            source = upstream;
+          }
+        }
+        if (error != null || complete) {
+          terminated = true;
+          reorderBuffer.clear();
+          readyQueue.clear();
+        }
+      }
+      if (error != null) {
+        if (source != null) {
+          source.cancel();
+        }
+        subscriber.onError(error);
+      } else if (complete) {
+        subscriber.onComplete();
+      } else if (source != null) {
+        source.request(toRequest);
+      }
+    } while (drainRequests.decrementAndGet() != 0);
+  }
+
+  private NormalisationResult pollReady() {
+    if (!preserveOrder) {
+      return readyQueue.poll();
+    }
+    NormalisationResult next = reorderBuffer.remove(nextToDeliver);
+    if (next != null) {
+      nextToDeliver++;
+    }
+    return next;
+  }
+
+  private class DownstreamSubscription implements Flow.Subscription {
+
+    @Override
+    public void request(long n) {
+      synchronized (NormalisingProcessor.this) {
+        if (n <= 0) {
+          if (failure == null) {
+            failure = new IllegalArgumentException("Request must be positive: " + n);
+          }
+        } else {
+          // Saturate rather than overflow for effectively unbounded demand
+          demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        }
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      Flow.Subscription source;
+      synchronized (NormalisingProcessor.this) {
+        terminated = true;
+        reorderBuffer.clear();
+        readyQueue.clear();
+        source = upstream;
+      }
+      if (source != null) {
+        source.cancel();
+      }
+    }
+  }
+}
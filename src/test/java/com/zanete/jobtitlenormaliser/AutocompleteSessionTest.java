@@ -0,0 +1,120 @@
+package com.zanete.jobtitlenormaliser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zanete.jobtitlenormaliser.benchmark.SyntheticCatalog;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.matcher.Matcher;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AutocompleteSessionTest {
+
+  private static final SyntheticCatalog CATALOG = new SyntheticCatalog(300, 7);
+  private static final Duration UNBOUNDED = Duration.ofSeconds(10);
+
+  private Normaliser normaliser;
+
+  @BeforeEach
+  void setup() throws InvalidWeightsException {
+    normaliser = new Normaliser(CATALOG, Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build());
+  }
+
+  @Test
+  @DisplayName("Typing completed words one keystroke at a time suggests what top-k normalisation returns")
+  void testCompletedWordsMatchTopK() {
+    for (String query : CATALOG.sampleQueries(30, 3)) {
+      AutocompleteSession session = new AutocompleteSession(normaliser, 5, UNBOUNDED);
+      List<MatchedTitle> suggestions = List.of();
+      for (int end = 1; end <= query.length(); end++) {
+        suggestions = session.update(query.substring(0, end));
+      }
+      suggestions = session.update(query + " ");
+
+      assertTrue(session.isComplete());
+      assertMatches(normaliser.normaliseTopK(query, 5), suggestions, query);
+    }
+  }
+
+  @Test
+  @DisplayName("A partial last word is matched as a prefix of catalog tokens")
+  void testPartialWordCompletes() throws InvalidWeightsException {
+    Normaliser local = new Normaliser(new LocalJobTitleProvider(), Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build());
+    AutocompleteSession session = new AutocompleteSession(local, 3, UNBOUNDED);
+
+    assertEquals(List.of(), session.update("xyz"));
+    assertEquals(List.of("Accountant"), titles(session.update("acc")));
+    assertEquals(List.of("Software engineer"), titles(session.update("senior softw")));
+    assertEquals(List.of("Software engineer"), titles(session.update("senior software eng")));
+    assertEquals(List.of("software"), session.completedTokens());
+    // A partial word without completions is left out until it is completed
+    assertEquals(List.of("Software engineer"), titles(session.update("senior software xyz")));
+  }
+
+  @Test
+  @DisplayName("A zero budget resumes scoring completed words over later updates")
+  void testZeroBudgetResumes() {
+    String query = CATALOG.sampleQueries(1, 11).get(0) + " ";
+    AutocompleteSession session = new AutocompleteSession(normaliser, 5, Duration.ZERO);
+
+    session.update(query);
+    assertFalse(session.isComplete());
+    List<MatchedTitle> suggestions = session.update(query);
+    while (!session.isComplete()) {
+      suggestions = session.update(query);
+    }
+    assertMatches(normaliser.normaliseTopK(query, 5), suggestions, query);
+  }
+
+  @Test
+  @DisplayName("Editing an earlier word starts the completed words over")
+  void testEditedWordResets() {
+    List<String> queries = CATALOG.sampleQueries(2, 5);
+    AutocompleteSession session = new AutocompleteSession(normaliser, 5, UNBOUNDED);
+
+    session.update(queries.get(0) + " ");
+    List<MatchedTitle> suggestions = session.update(queries.get(1) + " ");
+
+    assertEquals(normaliser.preprocess(queries.get(1)), session.completedTokens());
+    assertMatches(normaliser.normaliseTopK(queries.get(1), 5), suggestions, queries.get(1));
+  }
+
+  @Test
+  @DisplayName("Throws IllegalArgumentException for invalid arguments")
+  void testInvalidArguments() throws InvalidWeightsException {
+    assertThrows(IllegalArgumentException.class, () -> new AutocompleteSession(normaliser, 0, UNBOUNDED));
+    assertThrows(IllegalArgumentException.class,
+        () -> new AutocompleteSession(normaliser, 5, Duration.ofMillis(-1)));
+
+    Matcher exact = (input, title) -> input.equals(title) ? 1.0 : 0.0;
+    Normaliser other = new Normaliser(CATALOG, Matchers.builder().addMatcher(exact, 1.0).build());
+    assertThrows(IllegalArgumentException.class, () -> new AutocompleteSession(other, 5, UNBOUNDED));
+  }
+
+  private static void assertMatches(List<MatchedTitle> expected, List<MatchedTitle> actual, String query) {
+    assertEquals(titles(expected), titles(actual), query);
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).overallScore(), actual.get(i).overallScore(), 1e-9, query);
+    }
+  }
+
+  private static List<String> titles(List<MatchedTitle> matches) {
+    return matches.stream().map(MatchedTitle::title).toList();
+  }
+}
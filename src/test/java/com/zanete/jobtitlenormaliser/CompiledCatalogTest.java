@@ -0,0 +1,325 @@
+package com.zanete.jobtitlenormaliser;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.model.Title;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CompiledCatalogTest {
+
+  private static final List<String> WORDS =
+      List.of("java", "developer", "senior", "engineer", "data", "analyst", "sales", "manager");
+
+  private final CosineSimilarityMatcher cosine = new CosineSimilarityMatcher();
+  private final FuzzyTokenMatcher fuzzy = new FuzzyTokenMatcher();
+
+  @Test
+  @DisplayName("Lays out distinct valid tokens per title and shares ids across titles")
+  void testLayout() {
+    CompiledCatalog catalog = new CompiledCatalog(List.of(
+        title("Java Developer", "java", "developer", "java"),
+        title("Empty"),
+        title("Data Developer", "data", " ", "developer")));
+
+    assertEquals(3, catalog.size());
+    assertEquals(3, catalog.vocabularySize());
+    assertEquals(2, catalog.length(0));
+    assertEquals(0, catalog.length(1));
+    assertEquals(2, catalog.length(2));
+    assertEquals("Data Developer", catalog.value(2));
+    assertEquals(List.of("java", "developer", "java"), catalog.tokens(0));
+  }
+
+  @Test
+  @DisplayName("Scores empty titles, empty queries and unknown tokens as the cosine matcher does")
+  void testEdgeCases() {
+    CompiledCatalog catalog = new CompiledCatalog(List.of(
+        title("Java Developer", "java", "developer"),
+        title("Empty")));
+
+    assertCosineMatches(catalog, List.of());
+    assertCosineMatches(catalog, List.of("java"));
+    assertCosineMatches(catalog, List.of("java", "rust", "rust"));
+    assertCosineMatches(catalog, List.of("rust"));
+    assertCosineMatches(catalog, List.of("developer", "java"));
+  }
+
+  @Test
+  @DisplayName("Cosine scores are identical to the cosine matcher on random titles and queries")
+  void testCosineAgreesWithMatcher() {
+    Random random = new Random(11);
+    List<Title> titles = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      List<String> tokens = randomTokens(random);
+      titles.add(new Title(String.join(" ", tokens), tokens));
+    }
+    CompiledCatalog catalog = new CompiledCatalog(titles);
+
+    for (int q = 0; q < 200; q++) {
+      List<String> query = randomTokens(random);
+      if (random.nextInt(4) == 0) {
+        query.add("unknown");
+      }
+      assertCosineMatches(catalog, query);
+    }
+  }
+
+  @Test
+  @DisplayName("The fused kernel's scores are identical to the fuzzy and cosine matchers")
+  void testFuzzyAndCosineAgreesWithMatchers() {
+    Random random = new Random(13);
+    List<Title> titles = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      List<String> tokens = randomTokens(random);
+      titles.add(new Title(String.join(" ", tokens), tokens));
+    }
+    titles.add(title("Blank tokens", " ", "java", null));
+    CompiledCatalog catalog = new CompiledCatalog(titles);
+
+    double[] scores = new double[2];
+    for (int q = 0; q < 200; q++) {
+      List<String> query = randomTokens(random);
+      // Typos exercise partial Jaro-Winkler matches, duplicates the cosine frequencies
+      if (!query.isEmpty() && random.nextBoolean()) {
+        query.set(0, query.get(0).substring(1));
+      }
+      if (!query.isEmpty() && random.nextBoolean()) {
+        query.add(query.get(query.size() - 1));
+      }
+      CompiledCatalog.Query compiled = catalog.query(query);
+      for (int i = 0; i < catalog.size(); i++) {
+        catalog.fuzzyAndCosine(compiled, i, scores);
+        assertEquals(fuzzy.calculateScore(query, catalog.tokens(i)), scores[0], query + " / " + catalog.tokens(i));
+        assertEquals(cosine.calculateScore(query, catalog.tokens(i)), scores[1], query + " / " + catalog.tokens(i));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("No title scores above the bound of its size bucket")
+  void testBucketBoundsHoldForEveryTitle() {
+    Random random = new Random(17);
+    List<Title> titles = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      List<String> tokens = randomWords(random, random.nextInt(7));
+      if (random.nextInt(10) == 0 && !tokens.isEmpty()) {
+        tokens.add(tokens.get(0));
+      }
+      titles.add(new Title(String.join(" ", tokens), tokens));
+    }
+    CompiledCatalog catalog = new CompiledCatalog(titles);
+    double[][] weights = {{0.4, 0.6, 0.0}, {1.0, 0.0, 0.0}, {0.0, 1.0, 0.0}, {0.3, 0.5, 0.2}};
+
+    double[] scores = new double[2];
+    for (int q = 0; q < 300; q++) {
+      // Half the queries are typo'd title tokens, so some titles score high
+      List<String> query = random.nextBoolean()
+          ? randomWords(random, 1 + random.nextInt(5))
+          : mutate(titles.get(random.nextInt(titles.size())).tokens(), random);
+      CompiledCatalog.Query compiled = catalog.query(query);
+      for (int i = 0; i < catalog.size(); i++) {
+        catalog.fuzzyAndCosine(compiled, i, scores);
+        for (double[] weight : weights) {
+          // Scoring the other matchers 1.0, the best they could
+          double score = weight[0] * scores[0] + weight[1] * scores[1] + weight[2];
+          assertTrue(catalog.reachableBuckets(compiled, weight[0], weight[1], weight[2], score)[catalog.bucket(i)],
+              query + " / " + catalog.tokens(i) + " scores " + score);
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Titles too large or too small for the query are unreachable")
+  void testBucketsRuleOutSizes() {
+    CompiledCatalog catalog = new CompiledCatalog(List.of(
+        title("Engineer", "engineer"),
+        title("Software Engineer", "software", "engineer"),
+        title("Senior Staff Software Engineer Platform", "senior", "staff", "software", "engineer", "platform")));
+    assertEquals(3, catalog.bucketCount());
+
+    // Cosine of one token against five is at most 1 / sqrt(5)
+    boolean[] reachable = catalog.reachableBuckets(catalog.query(List.of("engineer")), 0.4, 0.6, 0.0, 0.75);
+    assertTrue(reachable[catalog.bucket(0)]);
+    assertTrue(reachable[catalog.bucket(1)]);
+    assertFalse(reachable[catalog.bucket(2)]);
+
+    // And of three tokens against one at most 1 / sqrt(3)
+    CompiledCatalog.Query longQuery = catalog.query(List.of("software", "engineer", "platform"));
+    assertFalse(catalog.reachableBuckets(longQuery, 0.4, 0.6, 0.0, 0.75)[catalog.bucket(0)]);
+    // Other matchers might make up the difference
+    assertTrue(catalog.reachableBuckets(longQuery, 0.3, 0.5, 0.2, 0.75)[catalog.bucket(0)]);
+  }
+
+  @Test
+  @DisplayName("A compact catalog decodes the same titles and scores exactly as a regular one")
+  void testCompactAgreesWithRegular() {
+    Random random = new Random(19);
+    List<Title> titles = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      List<String> tokens = randomTokens(random);
+      titles.add(new Title(String.join(" ", tokens), tokens));
+    }
+    titles.add(title("Ingénieur ☕ Blank tokens", "ingénieur", "☕", " ", null, "java"));
+    CompiledCatalog regular = new CompiledCatalog(titles);
+    CompiledCatalog compact = CompiledCatalog.compact(titles);
+
+    assertTrue(compact.isCompact());
+    assertEquals(regular.titles(), compact.titles());
+    assertEquals(regular.vocabularySize(), compact.vocabularySize());
+    assertEquals(regular.bucketCount(), compact.bucketCount());
+    double[] regularScores = new double[2];
+    double[] compactScores = new double[2];
+    for (int q = 0; q < 200; q++) {
+      List<String> query = randomTokens(random);
+      if (!query.isEmpty() && random.nextBoolean()) {
+        query.set(0, query.get(0).substring(1));
+      }
+      if (random.nextInt(4) == 0) {
+        query.add(random.nextBoolean() ? "☕" : "ingénieur");
+      }
+      CompiledCatalog.Query regularQuery = regular.query(query);
+      CompiledCatalog.Query compactQuery = compact.query(query);
+      for (int i = 0; i < regular.size(); i++) {
+        regular.fuzzyAndCosine(regularQuery, i, regularScores);
+        compact.fuzzyAndCosine(compactQuery, i, compactScores);
+        assertArrayEquals(regularScores, compactScores, query + " / " + regular.tokens(i));
+        assertEquals(regular.cosine(regularQuery, i), compact.cosine(compactQuery, i));
+        assertEquals(regular.bucket(i), compact.bucket(i));
+      }
+    }
+    assertTrue(compact.titleBytes() + compact.tokenBytes() < regular.titleBytes() + regular.tokenBytes());
+    assertTrue(regular.indexBytes() > compact.indexBytes());
+  }
+
+  @Test
+  @DisplayName("Finds exactly the titles sharing a token, and those with the same tokens")
+  void testCandidatesAndSameTokens() {
+    Random random = new Random(23);
+    List<Title> titles = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      List<String> tokens = randomTokens(random);
+      titles.add(new Title(String.join(" ", tokens), tokens));
+    }
+    titles.add(title("Blank tokens", " ", null, "java"));
+    for (CompiledCatalog catalog : List.of(new CompiledCatalog(titles), CompiledCatalog.compact(titles))) {
+      long indexBytes = catalog.indexBytes();
+      for (int q = 0; q < 200; q++) {
+        List<String> query = randomTokens(random);
+        if (random.nextInt(4) == 0) {
+          query.add("rust");
+        }
+        CompiledCatalog.Query compiled = catalog.query(query);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < catalog.size(); i++) {
+          if (catalog.cosine(compiled, i) > 0.0) {
+            expected.add(i);
+          }
+          assertEquals(termFrequency(query).equals(termFrequency(catalog.tokens(i))),
+              catalog.sameTokens(compiled, i), query + " / " + catalog.tokens(i));
+        }
+        assertEquals(expected, Arrays.stream(catalog.candidates(compiled)).boxed().toList(), query.toString());
+      }
+      assertTrue(catalog.indexBytes() > indexBytes);
+    }
+  }
+
+  @Test
+  @DisplayName("Looks up tokens by prefix, their titles and their cosine shares")
+  void testTokenLookups() {
+    List<Title> titles = List.of(
+        title("Java developer", "java", "developer"),
+        title("JavaScript developer", "javascript", "developer", "developer"),
+        title("Accountant", "accountant"));
+    for (CompiledCatalog catalog : List.of(new CompiledCatalog(titles), CompiledCatalog.compact(titles))) {
+      int java = catalog.tokenId("java");
+      int developer = catalog.tokenId("developer");
+      assertEquals(-1, catalog.tokenId("rust"));
+      assertEquals(List.of(java, catalog.tokenId("javascript")),
+          Arrays.stream(catalog.tokenIdsWithPrefix("jav")).boxed().toList());
+      assertEquals(0, catalog.tokenIdsWithPrefix("z").length);
+      assertArrayEquals(new int[] {0, 1}, catalog.titlesWith(developer));
+      assertEquals(0, catalog.titlesWith(-1).length);
+      assertEquals(1 / Math.sqrt(2), catalog.tokenShare(0, java), 1e-12);
+      assertEquals(2 / Math.sqrt(5), catalog.tokenShare(1, developer), 1e-12);
+      assertEquals(0.0, catalog.tokenShare(2, java));
+    }
+
+    // A shared vocabulary knows tokens of other catalogs, which this catalog's titles do not hold
+    TokenVocabulary shared = new TokenVocabulary();
+    new CompiledCatalog(List.of(title("Rust developer", "rust", "developer")), shared);
+    CompiledCatalog catalog = new CompiledCatalog(titles, shared);
+    assertEquals(-1, catalog.tokenId("rust"));
+    assertEquals(List.of(0, 1), Arrays.stream(catalog.titlesWith(catalog.tokenId("developer"))).boxed().toList());
+  }
+
+  private static Map<String, Integer> termFrequency(List<String> tokens) {
+    Map<String, Integer> frequency = new HashMap<>();
+    for (String token : Utils.filterValid(tokens)) {
+      frequency.merge(token, 1, Integer::sum);
+    }
+    return frequency;
+  }
+
+  private static List<String> randomWords(Random random, int count) {
+    List<String> words = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      StringBuilder word = new StringBuilder();
+      int length = 1 + random.nextInt(20);
+      for (int c = 0; c < length; c++) {
+        word.append((char) ('a' + random.nextInt(5)));
+      }
+      words.add(word.toString());
+    }
+    return words;
+  }
+
+  private static List<String> mutate(List<String> tokens, Random random) {
+    List<String> mutated = new ArrayList<>();
+    for (String token : tokens) {
+      if (random.nextBoolean() && token.length() > 1) {
+        int position = random.nextInt(token.length());
+        mutated.add(token.substring(0, position) + token.substring(position + 1));
+      } else {
+        mutated.add(token);
+      }
+    }
+    if (random.nextBoolean()) {
+      mutated.add("extra");
+    }
+    return mutated;
+  }
+
+  private void assertCosineMatches(CompiledCatalog catalog, List<String> query) {
+    CompiledCatalog.Query compiled = catalog.query(query);
+    for (int i = 0; i < catalog.size(); i++) {
+      assertEquals(cosine.calculateScore(query, catalog.tokens(i)), catalog.cosine(compiled, i),
+          query + " / " + catalog.tokens(i));
+    }
+  }
+
+  private static List<String> randomTokens(Random random) {
+    List<String> tokens = new ArrayList<>();
+    int count = random.nextInt(6);
+    for (int i = 0; i < count; i++) {
+      tokens.add(WORDS.get(random.nextInt(WORDS.size())));
+    }
+    return tokens;
+  }
+
+  private static Title title(String value, String... tokens) {
+    return new Title(value, Arrays.asList(tokens));
+  }
+}
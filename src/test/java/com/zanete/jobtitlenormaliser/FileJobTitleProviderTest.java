@@ -0,0 +1,62 @@
+package com.zanete.jobtitlenormaliser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileJobTitleProviderTest {
+
+  @TempDir
+  Path directory;
+
+  private FileJobTitleProvider provider;
+
+  @BeforeEach
+  void setup() throws IOException {
+    Path prefixes = Files.writeString(directory.resolve("prefixes.txt"), "senior\n  lead \n\nhead of\n");
+    Path titles = Files.writeString(directory.resolve("titles.txt"),
+        "# Standard titles\nSoftware engineer\nAccountant\n\nData analyst\nCafé manager\nNurse\n");
+    provider = new FileJobTitleProvider(prefixes, titles);
+  }
+
+  @Test
+  @DisplayName("Reads trimmed entries, skipping blank lines and comments")
+  void testReadsEntries() {
+    assertEquals(List.of("senior", "lead", "head of"), provider.getJobTitlePrefixesToIgnore());
+    assertEquals(List.of("Software engineer", "Accountant", "Data analyst", "Café manager", "Nurse"),
+        provider.getNormalisedJobTitles());
+  }
+
+  @Test
+  @DisplayName("Missing prefix file means no prefixes")
+  void testNullPrefixFile() throws IOException {
+    FileJobTitleProvider titlesOnly =
+        new FileJobTitleProvider(null, directory.resolve("titles.txt"));
+    assertEquals(List.of(), titlesOnly.getJobTitlePrefixesToIgnore());
+  }
+
+  @Test
+  @DisplayName("Shards are contiguous and together cover every title in order")
+  void testShardsCoverAllTitles() {
+    assertEquals(List.of("Software engineer"), provider.shard(0, 3).getNormalisedJobTitles());
+    assertEquals(List.of("Accountant", "Data analyst"), provider.shard(1, 3).getNormalisedJobTitles());
+    assertEquals(List.of("Café manager", "Nurse"), provider.shard(2, 3).getNormalisedJobTitles());
+    assertEquals(provider.getJobTitlePrefixesToIgnore(),
+        provider.shard(2, 3).getJobTitlePrefixesToIgnore());
+  }
+
+  @Test
+  @DisplayName("Throws IllegalArgumentException for an invalid shard")
+  void testInvalidShard() {
+    assertThrows(IllegalArgumentException.class, () -> provider.shard(3, 3));
+    assertThrows(IllegalArgumentException.class, () -> provider.shard(0, 0));
+  }
+}
@@ -1,13 +1,28 @@
 package com.zanete.jobtitlenormaliser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.zanete.jobtitlenormaliser.benchmark.QueryCorpus;
+import com.zanete.jobtitlenormaliser.benchmark.SyntheticCatalog;
+import com.zanete.jobtitlenormaliser.matcher.BitParallelFuzzyTokenMatcher;
 import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
 import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
 import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
 import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import com.zanete.jobtitlenormaliser.model.CandidateExplanation;
+import com.zanete.jobtitlenormaliser.model.CascadeStatistics;
+import com.zanete.jobtitlenormaliser.model.Explanation;
 import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import com.zanete.jobtitlenormaliser.model.MatcherScore;
+import com.zanete.jobtitlenormaliser.model.MemoryReport;
+import com.zanete.jobtitlenormaliser.model.TokenAlignment;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -125,4 +140,321 @@ class NormaliserIntegrationTest {
     Optional<MatchedTitle> result = normaliser.normaliseDetailed("Chief Happiness Officer");
     assertTrue(result.isEmpty(), "Expected no match for low similarity input");
   }
+
+  @Test
+  @DisplayName("Background compilation serves identical results before and after compiling")
+  void testBackgroundCompilationFallback() throws InvalidWeightsException {
+    List<Runnable> pending = new ArrayList<>();
+    Normaliser lazy = Normaliser.builder()
+        .jobTitleProvider(new LocalJobTitleProvider())
+        .matchers(Matchers.builder()
+            .addMatcher(new FuzzyTokenMatcher(), 0.4)
+            .addMatcher(new CosineSimilarityMatcher(), 0.6)
+            .build())
+        .compileInBackground(pending::add)
+        .build();
+
+    assertFalse(lazy.isCatalogCompiled());
+    assertEquals(normaliser.normaliseDetailed("Senior Software Engineer"),
+        lazy.normaliseDetailed("Senior Software Engineer"));
+    assertEquals("Accountant", lazy.normalise("junior accountant"));
+
+    pending.forEach(Runnable::run);
+
+    assertTrue(lazy.isCatalogCompiled());
+    assertTrue(lazy.catalogCompiled().isDone());
+    assertEquals(normaliser.normaliseDetailed("Senior Software Engineer"),
+        lazy.normaliseDetailed("Senior Software Engineer"));
+  }
+
+  @Test
+  @DisplayName("Sequential and parallel compilation produce the same results")
+  void testSequentialCompilation() throws InvalidWeightsException {
+    Normaliser sequential = Normaliser.builder()
+        .jobTitleProvider(new LocalJobTitleProvider())
+        .matchers(Matchers.builder()
+            .addMatcher(new FuzzyTokenMatcher(), 0.4)
+            .addMatcher(new CosineSimilarityMatcher(), 0.6)
+            .build())
+        .parallelCompilation(false)
+        .build();
+
+    assertEquals(normaliser.normaliseDetailed("Lead accountant"),
+        sequential.normaliseDetailed("Lead accountant"));
+  }
+
+  @Test
+  @DisplayName("The fused fuzzy and cosine kernel scores exactly as the matchers themselves")
+  void testFusedKernelMatchesGenericPath() throws InvalidWeightsException {
+    // Anonymous subclasses are not recognised as the built-in matchers, so take the generic path
+    Normaliser generic = new Normaliser(new LocalJobTitleProvider(), Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher() {}, 0.4)
+        .addMatcher(new CosineSimilarityMatcher() {}, 0.6)
+        .build());
+
+    for (String input : List.of("Senior Sofware Engineer", "Lead accountant", "Java Developer Java",
+        "Data Analist", "Chief Happiness Officer", "   ")) {
+      assertEquals(generic.normaliseTopK(input, 10), normaliser.normaliseTopK(input, 10), input);
+    }
+  }
+
+  @Test
+  @DisplayName("Skipping titles by size does not change any result")
+  void testSizeFilteringMatchesUnfiltered() throws InvalidWeightsException {
+    SyntheticCatalog catalog = new SyntheticCatalog(2_000, 3);
+    List<String> queries = new QueryCorpus(catalog).generate(300, 4, 0.5, 0.2);
+    for (Matchers matchers : List.of(
+        Matchers.builder().addMatcher(new FuzzyTokenMatcher(), 0.4).addMatcher(new CosineSimilarityMatcher(), 0.6).build(),
+        Matchers.builder().addMatcher(new BitParallelFuzzyTokenMatcher(), 0.7).addMatcher(new CosineSimilarityMatcher(), 0.3).build(),
+        Matchers.builder().addMatcher(new CosineSimilarityMatcher(), 1.0).build())) {
+      Normaliser filtered = Normaliser.builder().jobTitleProvider(catalog).matchers(matchers).build();
+      Normaliser unfiltered = Normaliser.builder().jobTitleProvider(catalog).matchers(matchers)
+          .sizeFiltering(false)
+          .build();
+      for (String query : queries) {
+        assertEquals(unfiltered.normaliseTopK(query, 2_000), filtered.normaliseTopK(query, 2_000), query);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Compact token storage does not change any result")
+  void testCompactTokensMatchRegular() throws InvalidWeightsException {
+    SyntheticCatalog catalog = new SyntheticCatalog(2_000, 5);
+    List<String> queries = new QueryCorpus(catalog).generate(200, 6, 0.5, 0.2);
+    for (Matchers matchers : List.of(
+        Matchers.builder().addMatcher(new FuzzyTokenMatcher(), 0.4).addMatcher(new CosineSimilarityMatcher(), 0.6).build(),
+        // Anonymous subclasses score from decoded token lists
+        Matchers.builder().addMatcher(new FuzzyTokenMatcher() {}, 0.4).addMatcher(new CosineSimilarityMatcher(), 0.6).build())) {
+      Normaliser regular = Normaliser.builder().jobTitleProvider(catalog).matchers(matchers).build();
+      Normaliser compact = Normaliser.builder().jobTitleProvider(catalog).matchers(matchers)
+          .compactTokens(true)
+          .build();
+      for (String query : queries) {
+        assertEquals(regular.normaliseTopK(query, 2_000), compact.normaliseTopK(query, 2_000), query);
+      }
+      assertEquals(regular.explain(queries.get(0)), compact.explain(queries.get(0)));
+    }
+  }
+
+  @Test
+  @DisplayName("Reports memory by use; compact token storage holds less per title")
+  void testMemoryReport() throws InvalidWeightsException {
+    SyntheticCatalog catalog = new SyntheticCatalog(2_000, 5);
+    Matchers matchers = Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build();
+    Normaliser regular = Normaliser.builder().jobTitleProvider(catalog).matchers(matchers).build();
+    Normaliser compact = Normaliser.builder().jobTitleProvider(catalog).matchers(matchers)
+        .compactTokens(true)
+        .build();
+
+    MemoryReport before = regular.memoryReport();
+    assertEquals(2_000, before.titles());
+    assertTrue(before.titleBytes() > 0 && before.tokenBytes() > 0 && before.indexBytes() > 0);
+    regular.normalise("Senior Data Analyst");
+    assertTrue(regular.memoryReport().cacheBytes() > before.cacheBytes());
+
+    MemoryReport compactReport = compact.memoryReport();
+    assertTrue(compactReport.catalogBytesPerTitle() < before.catalogBytesPerTitle(),
+        compactReport.format() + before.format());
+    assertEquals(compactReport.titleBytes() + compactReport.tokenBytes() + compactReport.indexBytes()
+        + compactReport.cacheBytes(), compactReport.totalBytes());
+  }
+
+  @Test
+  @DisplayName("Compact token storage cannot share a vocabulary")
+  void testCompactTokensRejectSharedVocabulary() {
+    assertThrows(IllegalStateException.class, () -> Normaliser.builder()
+        .jobTitleProvider(new LocalJobTitleProvider())
+        .matchers(Matchers.builder().addMatcher(new CosineSimilarityMatcher(), 1.0).build())
+        .vocabulary(new TokenVocabulary())
+        .compactTokens(true)
+        .build());
+  }
+
+  @Test
+  @DisplayName("A cascade with cutoffs 0.0 and 1.0 returns the same results, resolving some early")
+  void testLosslessCascadeMatchesFullScoring() throws InvalidWeightsException {
+    SyntheticCatalog catalog = new SyntheticCatalog(2_000, 7);
+    List<String> queries = new QueryCorpus(catalog).generate(300, 8, 0.5, 0.2);
+    Matchers matchers = Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build();
+    Normaliser full = Normaliser.builder().jobTitleProvider(catalog).matchers(matchers).build();
+    Normaliser cascading = Normaliser.builder().jobTitleProvider(catalog).matchers(matchers)
+        .cascade(0.0, 1.0)
+        .build();
+
+    for (String query : queries) {
+      assertEquals(full.normaliseDetailed(query), cascading.normaliseDetailed(query), query);
+    }
+    CascadeStatistics statistics = cascading.getCascadeStatistics();
+    assertEquals(queries.size(), statistics.requests());
+    assertEquals(0, statistics.accepted());
+    assertTrue(statistics.exact() > 0 && statistics.rejected() > 0, statistics.toString());
+    assertTrue(statistics.resolvedEarlyRate() > 0.0);
+    assertEquals(new CascadeStatistics(0, 0, 0, 0), full.getCascadeStatistics());
+  }
+
+  @Test
+  @DisplayName("Counts the cascade tier resolving each request")
+  void testCascadeTiers() throws InvalidWeightsException {
+    Normaliser cascading = Normaliser.builder()
+        .jobTitleProvider(new LocalJobTitleProvider())
+        .matchers(Matchers.builder()
+            .addMatcher(new FuzzyTokenMatcher(), 0.4)
+            .addMatcher(new CosineSimilarityMatcher(), 0.6)
+            .build())
+        .cascade(0.2, 0.8)
+        .build();
+
+    // Same tokens in another order
+    assertEquals(1.0, cascading.normaliseDetailed("Engineer Software").orElseThrow().overallScore(), 1e-9);
+    // Best cosine 0.82, at or above the accept cutoff
+    assertEquals("Software engineer", cascading.normalise("Software Engineer Java"));
+    // Best cosine 0.5: even a perfect fuzzy score cannot reach the threshold
+    assertEquals("", cascading.normalise("Softwre Engineer"));
+    // No title shares a token
+    assertEquals("", cascading.normalise("Chief Happiness Officer"));
+    // Best cosine 0.71, in the ambiguous band
+    assertEquals(normaliser.normaliseDetailed("Software Engineer Java Developer"),
+        cascading.normaliseDetailed("Software Engineer Java Developer"));
+
+    assertEquals(new CascadeStatistics(1, 1, 2, 1), cascading.getCascadeStatistics());
+  }
+
+  @ParameterizedTest(name = "reject below {0}, accept from {1}")
+  @CsvSource({"-0.1, 0.5", "0.6, 0.5", "0.2, 1.1", "NaN, 1.0"})
+  @DisplayName("Rejects cascade cutoffs out of order or outside 0.0 to 1.0")
+  void testInvalidCascadeCutoffs(double rejectBelow, double acceptFrom) {
+    assertThrows(IllegalArgumentException.class,
+        () -> Normaliser.builder().cascade(rejectBelow, acceptFrom));
+  }
+
+  @Test
+  @DisplayName("normaliseTopK returns matches above threshold, best first")
+  void testNormaliseTopK() {
+    List<MatchedTitle> result = normaliser.normaliseTopK("Senior Software Engineer", 5);
+    assertEquals(1, result.size());
+    assertEquals(normaliser.normaliseDetailed("Senior Software Engineer").get(), result.get(0));
+    assertTrue(normaliser.normaliseTopK("Chief Happiness Officer", 5).isEmpty());
+  }
+
+  @ParameterizedTest(name = "Normalises UTF-8 bytes of \"{0}\" like the string")
+  @CsvSource({
+      "Senior Software Engineer",
+      "PRINCIPAL SOFTWARE ENGINEER",
+      "Ingénieur logiciel",
+      "Chief Happiness Officer"
+  })
+  void testNormalisesUtf8Bytes(String input) {
+    byte[] utf8 = input.getBytes(StandardCharsets.UTF_8);
+    assertEquals(normaliser.normaliseDetailed(input), normaliser.normaliseDetailedUtf8(utf8, 0, utf8.length));
+    assertEquals(normaliser.normalise(input), normaliser.normaliseUtf8(ByteBuffer.wrap(utf8)));
+  }
+
+  @Test
+  @DisplayName("Explains a near miss with per-matcher scores and token alignments")
+  void testExplain() {
+    Explanation explanation = normaliser.explain("Senior Sofware Engineer");
+
+    assertEquals(List.of("sofware", "engineer"), explanation.inputTokens());
+    // The typo costs half the cosine score, which drops the title below the threshold
+    assertTrue(explanation.match().isEmpty());
+    assertEquals(2, explanation.candidates().size());
+
+    CandidateExplanation best = explanation.candidates().get(0);
+    assertEquals("Software engineer", best.title());
+    assertTrue(best.overallScore() < 0.75);
+    assertEquals(List.of("FuzzyTokenMatcher", "CosineSimilarityMatcher"),
+        best.matcherScores().stream().map(MatcherScore::matcher).toList());
+    MatcherScore cosine = best.matcherScores().get(1);
+    assertEquals(0.5, cosine.rawScore(), 0.0001);
+    assertEquals(0.3, cosine.weightedScore(), 0.0001);
+    assertEquals(List.of("software", "engineer"),
+        best.alignments().stream().map(TokenAlignment::titleToken).toList());
+    assertEquals(1.0, best.alignments().get(1).similarity());
+    assertFalse(explanation.format().isBlank());
+  }
+
+  @Test
+  @DisplayName("Explanation reports the same match as normaliseDetailed")
+  void testExplainMatch() {
+    Explanation explanation = normaliser.explain("Lead accountant", 1);
+
+    assertEquals(normaliser.normaliseDetailed("Lead accountant"), explanation.match());
+    assertEquals(1, explanation.candidates().size());
+    assertEquals(explanation.match().get().overallScore(), explanation.candidates().get(0).overallScore());
+  }
+
+  @Test
+  @DisplayName("Sampled explanations go to the listener without changing results")
+  void testExplainSampling() throws InvalidWeightsException {
+    Matchers matchers = Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build();
+    List<Explanation> sampled = new ArrayList<>();
+    Normaliser alwaysExplained = Normaliser.builder()
+        .jobTitleProvider(new LocalJobTitleProvider())
+        .matchers(matchers)
+        .explainSampling(1.0, sampled::add)
+        .build();
+    Normaliser neverExplained = Normaliser.builder()
+        .jobTitleProvider(new LocalJobTitleProvider())
+        .matchers(matchers)
+        .explainSampling(0.0, sampled::add)
+        .build();
+
+    for (String input : List.of("Senior Software Engineer", "Lead accountant", "Chief Happiness Officer")) {
+      assertEquals(normaliser.normaliseDetailed(input), alwaysExplained.normaliseDetailed(input));
+      assertEquals(normaliser.normalise(input), neverExplained.normalise(input));
+    }
+    byte[] utf8 = "Junior accountant".getBytes(StandardCharsets.UTF_8);
+    assertEquals("Accountant", alwaysExplained.normaliseUtf8(utf8, 0, utf8.length));
+
+    assertEquals(List.of("Senior Software Engineer", "Lead accountant", "Chief Happiness Officer",
+        "Junior accountant"), sampled.stream().map(Explanation::input).toList());
+  }
+
+  @Test
+  @DisplayName("Sampled requests resolve through the cascade like unsampled ones")
+  void testExplainSamplingWithCascade() throws InvalidWeightsException {
+    Matchers matchers = Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build();
+    List<Explanation> sampled = new ArrayList<>();
+    Normaliser unsampled = Normaliser.builder()
+        .jobTitleProvider(new LocalJobTitleProvider())
+        .matchers(matchers)
+        .cascade(0.9, 1.0)
+        .build();
+    Normaliser alwaysExplained = Normaliser.builder()
+        .jobTitleProvider(new LocalJobTitleProvider())
+        .matchers(matchers)
+        .cascade(0.9, 1.0)
+        .explainSampling(1.0, sampled::add)
+        .build();
+
+    // Best cosine 0.82 is below the reject cutoff, though full scoring would match
+    String input = "Software Engineer Java";
+    assertEquals("Software engineer", normaliser.normalise(input));
+    assertEquals(unsampled.normaliseDetailed(input), alwaysExplained.normaliseDetailed(input));
+    assertEquals("", alwaysExplained.normalise(input));
+    assertEquals(new CascadeStatistics(0, 0, 2, 0), alwaysExplained.getCascadeStatistics());
+
+    assertEquals(Optional.empty(), sampled.get(0).match());
+    assertEquals("Software engineer", sampled.get(0).candidates().get(0).title());
+  }
+
+  @Test
+  @DisplayName("Rejects explain sample rates outside 0.0 to 1.0")
+  void testInvalidExplainSampleRate() {
+    assertThrows(IllegalArgumentException.class,
+        () -> Normaliser.builder().explainSampling(1.5, explanation -> { }));
+  }
 }
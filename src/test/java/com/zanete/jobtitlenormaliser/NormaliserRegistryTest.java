@@ -0,0 +1,142 @@
+package com.zanete.jobtitlenormaliser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zanete.jobtitlenormaliser.benchmark.SyntheticCatalog;
+import com.zanete.jobtitlenormaliser.matcher.BitParallelFuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class NormaliserRegistryTest {
+
+  private static final SyntheticCatalog ACME = new SyntheticCatalog(200, 1);
+  private static final SyntheticCatalog GLOBEX = new SyntheticCatalog(200, 2);
+
+  private Matchers matchers;
+
+  @BeforeEach
+  void setup() throws InvalidWeightsException {
+    matchers = Matchers.builder()
+        .addMatcher(new BitParallelFuzzyTokenMatcher(20_000), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build();
+  }
+
+  @Test
+  @DisplayName("Each tenant normalises exactly as a standalone normaliser over its catalog")
+  void testTenantsMatchStandaloneNormalisers() {
+    NormaliserRegistry registry = NormaliserRegistry.builder().matchers(matchers).build();
+    registry.register("acme", ACME);
+    registry.register("globex", GLOBEX);
+
+    assertEquals(Set.of("acme", "globex"), registry.tenantIds());
+    for (SyntheticCatalog catalog : List.of(ACME, GLOBEX)) {
+      String tenantId = catalog == ACME ? "acme" : "globex";
+      Normaliser standalone = new Normaliser(catalog, matchers);
+      for (String query : catalog.sampleQueries(30, 5)) {
+        assertEquals(standalone.normaliseDetailed(query), registry.normaliseDetailed(tenantId, query), query);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Tenants share token strings and ids through one vocabulary")
+  void testSharedVocabulary() {
+    NormaliserRegistry registry = NormaliserRegistry.builder().matchers(matchers).build();
+    registry.register("first", provider("Software Engineer"));
+    registry.register("second", provider("Senior Software Developer"));
+
+    String first = registry.normaliser("first").compiledCatalog().tokens(0).get(0);
+    String second = registry.normaliser("second").compiledCatalog().tokens(0).get(1);
+
+    assertEquals("software", first);
+    assertSame(first, second);
+    assertEquals(4, registry.vocabulary().size());
+  }
+
+  @Test
+  @DisplayName("Tenants are compiled on first use and the least recently used are unloaded over budget")
+  void testMemoryBudget() {
+    NormaliserRegistry unbounded = NormaliserRegistry.builder().matchers(matchers).build();
+    unbounded.register("acme", ACME);
+    long acmeBytes = unbounded.normaliser("acme").compiledCatalog().estimatedBytes();
+
+    NormaliserRegistry registry = NormaliserRegistry.builder()
+        .matchers(matchers)
+        .memoryBudgetBytes(acmeBytes * 3 / 2)
+        .build();
+    registry.register("acme", ACME);
+    registry.register("globex", GLOBEX);
+    assertFalse(registry.isLoaded("acme"));
+    assertEquals(0, registry.getLoadedBytes());
+
+    String match = registry.normalise("acme", ACME.getNormalisedJobTitles().get(0));
+    assertTrue(registry.isLoaded("acme"));
+    assertEquals(acmeBytes, registry.getLoadedBytes());
+
+    registry.normalise("globex", "engineer");
+    assertTrue(registry.isLoaded("globex"));
+    assertFalse(registry.isLoaded("acme"));
+
+    assertEquals(match, registry.normalise("acme", ACME.getNormalisedJobTitles().get(0)));
+    assertTrue(registry.isLoaded("acme"));
+    assertFalse(registry.isLoaded("globex"));
+  }
+
+  @Test
+  @DisplayName("A tenant larger than the budget still serves")
+  void testTenantLargerThanBudget() {
+    NormaliserRegistry registry = NormaliserRegistry.builder()
+        .matchers(matchers)
+        .memoryBudgetBytes(0)
+        .build();
+    registry.register("acme", ACME);
+
+    assertEquals(ACME.getNormalisedJobTitles().get(3),
+        registry.normalise("acme", ACME.getNormalisedJobTitles().get(3)));
+    assertTrue(registry.isLoaded("acme"));
+  }
+
+  @Test
+  @DisplayName("Unregistering releases the tenant's catalog")
+  void testUnregister() {
+    NormaliserRegistry registry = NormaliserRegistry.builder().matchers(matchers).build();
+    registry.register("acme", ACME);
+    registry.normaliser("acme");
+
+    assertTrue(registry.unregister("acme"));
+    assertFalse(registry.unregister("acme"));
+    assertEquals(0, registry.getLoadedBytes());
+    assertThrows(IllegalArgumentException.class, () -> registry.normalise("acme", "engineer"));
+  }
+
+  @Test
+  @DisplayName("Throws IllegalArgumentException for a negative budget")
+  void testInvalidBudget() {
+    assertThrows(IllegalArgumentException.class, () -> NormaliserRegistry.builder().memoryBudgetBytes(-1));
+  }
+
+  private static JobTitleProvider provider(String... titles) {
+    return new JobTitleProvider() {
+      @Override
+      public List<String> getJobTitlePrefixesToIgnore() {
+        return List.of();
+      }
+
+      @Override
+      public List<String> getNormalisedJobTitles() {
+        return List.of(titles);
+      }
+    };
+  }
+}
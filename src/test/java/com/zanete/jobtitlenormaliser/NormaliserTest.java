@@ -1,21 +1,30 @@
 package com.zanete.jobtitlenormaliser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.zanete.jobtitlenormaliser.alias.AliasTable;
+import com.zanete.jobtitlenormaliser.cache.ResultCache;
 import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
 import com.zanete.jobtitlenormaliser.matcher.Matcher;
 import com.zanete.jobtitlenormaliser.matcher.Matchers;
 import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -28,6 +37,9 @@ class NormaliserTest {
   private static final List<String> TEST_TOKENS_ACCOUNTANT = List.of("accountant");
   private Normaliser normaliser;
 
+  @TempDir
+  Path directory;
+
   @Mock
   JobTitleProvider jobTitleProvider;
   @Mock
@@ -91,4 +103,67 @@ class NormaliserTest {
     assertEquals(0.875, normalised.overallScore());
     assertEquals("Accountant", normalised.title());
   }
+
+  @Test
+  @DisplayName("Confirmed aliases are served without calling the matchers")
+  void testAliasServedWithoutScoring() throws IOException, InvalidWeightsException {
+    try (AliasTable aliases = AliasTable.open(directory.resolve("aliases"))) {
+      Normaliser aliased = Normaliser.builder()
+          .jobTitleProvider(jobTitleProvider)
+          .matchers(Matchers.builder().addMatcher(matcher1, 0.25).addMatcher(matcher2, 0.75).build())
+          .aliasTable(aliases)
+          .build();
+
+      aliased.confirmAlias("Senior Bookkeeper", "Accountant");
+
+      assertEquals(Optional.of(new MatchedTitle("Accountant", Normaliser.ALIAS_SCORE)),
+          aliased.normaliseDetailed("bookkeeper"));
+      verifyNoInteractions(matcher1, matcher2);
+      assertThrows(IllegalArgumentException.class, () -> aliased.confirmAlias("CEO", "Chief Executive"));
+    }
+  }
+
+  @Test
+  @DisplayName("A reopened result cache serves results without scoring until the weights change")
+  void testResultCacheSurvivesRestart() throws IOException, InvalidWeightsException {
+    when(matcher1.calculateScore(anyList(), anyList())).thenReturn(1.0);
+    when(matcher2.calculateScore(anyList(), anyList())).thenReturn(0.9);
+    Path path = directory.resolve("results");
+    Optional<MatchedTitle> expected = normaliser.normaliseDetailed(TEST_TITLE);
+    try (ResultCache cache = ResultCache.open(path, 100)) {
+      Normaliser cached = Normaliser.builder()
+          .jobTitleProvider(jobTitleProvider)
+          .matchers(Matchers.builder().addMatcher(matcher1, 0.25).addMatcher(matcher2, 0.75).build())
+          .resultCache(cache)
+          .build();
+      assertEquals(expected, cached.normaliseDetailed(TEST_TITLE));
+    }
+
+    try (ResultCache cache = ResultCache.open(path, 100)) {
+      Normaliser restarted = Normaliser.builder()
+          .jobTitleProvider(jobTitleProvider)
+          .matchers(Matchers.builder().addMatcher(matcher1, 0.25).addMatcher(matcher2, 0.75).build())
+          .resultCache(cache)
+          .build();
+      assertEquals(expected, restarted.normaliseDetailed("Senior Software Engineer"));
+      verify(matcher1, times(2 * TEST_JOB_TITLE_COUNT)).calculateScore(anyList(), anyList());
+    }
+
+    try (ResultCache cache = ResultCache.open(path, 100)) {
+      Normaliser reweighted = Normaliser.builder()
+          .jobTitleProvider(jobTitleProvider)
+          .matchers(Matchers.builder().addMatcher(matcher1, 0.5).addMatcher(matcher2, 0.5).build())
+          .resultCache(cache)
+          .build();
+      assertNotEquals(normaliser.fingerprint(), reweighted.fingerprint());
+      assertEquals(0.95, reweighted.normaliseDetailed(TEST_TITLE).orElseThrow().overallScore(), 1e-9);
+      verify(matcher1, times(3 * TEST_JOB_TITLE_COUNT)).calculateScore(anyList(), anyList());
+    }
+  }
+
+  @Test
+  @DisplayName("confirmAlias throws IllegalStateException without an alias table")
+  void testConfirmAliasWithoutTable() {
+    assertThrows(IllegalStateException.class, () -> normaliser.confirmAlias("Bookkeeper", "Accountant"));
+  }
 }
@@ -2,7 +2,13 @@ package com.zanete.jobtitlenormaliser;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.zanete.jobtitlenormaliser.model.CacheStatistics;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
@@ -120,4 +126,146 @@ class PreprocessorTest {
   private static Stream<String> longTokensProvider() {
     return Stream.of("a".repeat(1000), "developer".repeat(100));
   }
+
+  @ParameterizedTest(name = "Removes ignored phrases from \"{0}\" → {1}")
+  @MethodSource("phraseRemovalProvider")
+  void testMultiWordPhrasesRemoved(String input, List<String> expected) {
+    Preprocessor phrasePreprocessor = new Preprocessor(List.of(
+        "senior", "head of", "vice president", "Vice-President of", "part time"));
+    assertEquals(expected, phrasePreprocessor.preprocess(input));
+  }
+
+  private static Stream<Arguments> phraseRemovalProvider() {
+    return Stream.of(
+        Arguments.of("Head of Engineering", List.of("engineering")),
+        Arguments.of("Vice President of Sales", List.of("sales")),
+        Arguments.of("Vice President, Marketing", List.of("marketing")),
+        Arguments.of("Part-time senior accountant", List.of("accountant")),
+        Arguments.of("Head chef", List.of("head", "chef")),
+        Arguments.of("Chef of the kitchen", List.of("chef", "of", "the", "kitchen")),
+        Arguments.of("Accountant head of", List.of("accountant"))
+    );
+  }
+
+  @Test
+  @DisplayName("Token cache serves repeated tokens and reports its hit rate")
+  void testTokenCacheStatistics() {
+    Preprocessor cached = new Preprocessor(List.of("senior"), 100);
+    cached.preprocess("Senior Java Developer");
+    cached.preprocess("Java developer, senior");
+
+    CacheStatistics statistics = cached.getTokenCacheStatistics();
+    assertEquals(3, statistics.misses());
+    assertEquals(3, statistics.hits());
+    assertEquals(3, statistics.size());
+    assertEquals(100, statistics.capacity());
+    assertEquals(0.5, statistics.hitRate());
+    assertEquals(new CacheStatistics(0, 0, 0, 100), cached.getUtf8TokenCacheStatistics());
+  }
+
+  @ParameterizedTest(name = "Cached and uncached preprocessing agree on \"{0}\"")
+  @MethodSource("cacheEquivalenceProvider")
+  void testCacheDoesNotChangeTokens(String input) {
+    List<String> singleWordPrefixes = List.of("senior", "junior", "lead", "principal");
+    List<String> phrases = List.of("senior", "head of", "vice president");
+    for (List<String> prefixes : List.of(singleWordPrefixes, phrases)) {
+      Preprocessor cached = new Preprocessor(prefixes, 4);
+      Preprocessor uncached = new Preprocessor(prefixes, 0);
+      for (int i = 0; i < 3; i++) {
+        assertEquals(uncached.preprocess(input), cached.preprocess(input));
+      }
+    }
+  }
+
+  private static Stream<String> cacheEquivalenceProvider() {
+    return Stream.of("Senior Software Engineer", "Head of  Sales!!", "résumé writer", "C++ / .NET dev",
+        "Vice President senior of things", "lead lead lead", "   ,  ");
+  }
+
+  @Test
+  @DisplayName("Disabled token cache reports zero counters")
+  void testDisabledTokenCache() {
+    Preprocessor uncached = new Preprocessor(List.of(), 0);
+    uncached.preprocess("java developer");
+    assertEquals(0, uncached.getTokenCacheStatistics().hits() + uncached.getTokenCacheStatistics().misses());
+  }
+
+  @ParameterizedTest(name = "Non-ASCII input \"{0}\" → {1}")
+  @MethodSource("mixedScriptProvider")
+  void testMixedScriptAndAccentedInput(String input, List<String> expected) {
+    assertEquals(expected, preprocessor.preprocess(input));
+    assertEquals(expected, new Preprocessor(List.of("senior", "junior", "lead", "principal"), 0)
+        .preprocess(input));
+  }
+
+  private static Stream<Arguments> mixedScriptProvider() {
+    return Stream.of(
+        Arguments.of("Ingénieur Logiciel", List.of("ingenieur", "logiciel")),
+        Arguments.of("Senior Développeur Java", List.of("developpeur", "java")),
+        Arguments.of("Инженер Java", List.of("java")),
+        Arguments.of("软件工程师 / C# engineer", List.of("c#", "engineer")),
+        Arguments.of("Señor .NET Dev", List.of("senor", ".net", "dev")),
+        Arguments.of("Ｓenior dev", List.of("enior", "dev")),
+        Arguments.of("naïve café résumé", List.of("naive", "cafe", "resume"))
+    );
+  }
+
+  @Test
+  @DisplayName("Detects pure ASCII text")
+  void testIsAscii() {
+    assertTrue(Preprocessor.isAscii("Senior C++ Developer, .NET!"));
+    assertTrue(Preprocessor.isAscii(""));
+    assertFalse(Preprocessor.isAscii("café"));
+    assertFalse(Preprocessor.isAscii("dev\u00a0ops"));
+  }
+
+  @ParameterizedTest(name = "UTF-8 bytes of \"{0}\" preprocess like the string")
+  @MethodSource("byteInputProvider")
+  void testBytesMatchString(String input) {
+    List<String> phrases = List.of("senior", "head of", "vice president");
+    for (Preprocessor bytePreprocessor : List.of(preprocessor, new Preprocessor(phrases),
+        new Preprocessor(List.of("senior"), 0))) {
+      List<String> expected = bytePreprocessor.preprocess(input);
+      byte[] utf8 = input.getBytes(StandardCharsets.UTF_8);
+      for (int i = 0; i < 2; i++) {
+        assertEquals(expected, bytePreprocessor.preprocessUtf8(utf8, 0, utf8.length));
+        assertEquals(expected, bytePreprocessor.preprocessUtf8(ByteBuffer.wrap(utf8)));
+      }
+    }
+  }
+
+  private static Stream<String> byteInputProvider() {
+    return Stream.of("Senior Software Engineer", "SENIOR java DEVELOPER", "Head of  Sales!!",
+        "C++ / .NET dev; C# (lead)", "Vice President senior of things", "lead lead lead", "   ,  ",
+        "-dev-ops-", "\tQA\u000Bengineer\r\n", "résumé writer", "软件工程师 / C# engineer", "");
+  }
+
+  @Test
+  @DisplayName("Preprocesses only the requested slice and leaves the buffer position unchanged")
+  void testByteSlices() {
+    byte[] record = "xxSenior Java Developeryy".getBytes(StandardCharsets.US_ASCII);
+    assertEquals(List.of("java", "developer"), preprocessor.preprocessUtf8(record, 2, 21));
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(record.length).put(record).position(2).limit(23);
+    assertEquals(List.of("java", "developer"), preprocessor.preprocessUtf8(direct));
+    assertEquals(2, direct.position());
+    assertEquals(23, direct.limit());
+
+    assertThrows(IndexOutOfBoundsException.class, () -> preprocessor.preprocessUtf8(record, 20, 10));
+    assertEquals(List.of(), preprocessor.preprocessUtf8(null));
+  }
+
+  @Test
+  @DisplayName("Byte input is served from the token cache regardless of case")
+  void testByteTokenCache() {
+    Preprocessor cached = new Preprocessor(List.of("senior"), 100);
+    cached.preprocessUtf8(ByteBuffer.wrap("Senior Java Developer".getBytes(StandardCharsets.US_ASCII)));
+    cached.preprocessUtf8(ByteBuffer.wrap("JAVA developer".getBytes(StandardCharsets.US_ASCII)));
+
+    CacheStatistics statistics = cached.getUtf8TokenCacheStatistics();
+    assertEquals(3, statistics.misses());
+    assertEquals(2, statistics.hits());
+    assertEquals(100, statistics.capacity());
+    assertEquals(0, cached.getTokenCacheStatistics().misses());
+  }
 }
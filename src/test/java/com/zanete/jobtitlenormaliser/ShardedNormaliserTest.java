@@ -0,0 +1,131 @@
+package com.zanete.jobtitlenormaliser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.zanete.jobtitlenormaliser.benchmark.SyntheticCatalog;
+import com.zanete.jobtitlenormaliser.cache.ResultCache;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import com.zanete.jobtitlenormaliser.model.CascadeStatistics;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ShardedNormaliserTest {
+
+  private static final SyntheticCatalog CATALOG = new SyntheticCatalog(300, 7);
+
+  private Matchers matchers;
+  private Normaliser normaliser;
+
+  @BeforeEach
+  void setup() throws InvalidWeightsException {
+    matchers = Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build();
+    normaliser = new Normaliser(CATALOG, matchers);
+  }
+
+  @ParameterizedTest(name = "Sharded results with {0} shards equal unsharded results")
+  @ValueSource(ints = {1, 2, 3, 7, 1000})
+  void testShardedResultsMatchUnsharded(int shardCount) {
+    ShardedNormaliser sharded = new ShardedNormaliser(normaliser, shardCount);
+    for (String query : CATALOG.sampleQueries(50, shardCount)) {
+      assertEquals(normaliser.normaliseDetailed(query), sharded.normaliseDetailed(query), query);
+      assertEquals(normaliser.normaliseTopK(query, 5), sharded.normaliseTopK(query, 5), query);
+    }
+    assertEquals("", sharded.normalise("Chief Happiness Officer"));
+  }
+
+  @Test
+  @DisplayName("Equal scores in different shards resolve to the earlier catalog title")
+  void testTiesKeepCatalogOrder() {
+    JobTitleProvider duplicates = new JobTitleProvider() {
+      @Override
+      public List<String> getJobTitlePrefixesToIgnore() {
+        return List.of();
+      }
+
+      @Override
+      public List<String> getNormalisedJobTitles() {
+        return List.of("Accountant", "Software engineer", "Software Engineer", "SOFTWARE ENGINEER");
+      }
+    };
+    ShardedNormaliser sharded = new ShardedNormaliser(new Normaliser(duplicates, matchers), 4);
+
+    assertEquals("Software engineer", sharded.normalise("software engineer"));
+    assertEquals(List.of("Software engineer", "Software Engineer"),
+        sharded.normaliseTopK("software engineer", 2).stream().map(MatchedTitle::title).toList());
+  }
+
+  @Test
+  @DisplayName("Shard count is capped by catalog size")
+  void testShardCountCapped() {
+    assertEquals(2, new ShardedNormaliser(new Normaliser(new LocalJobTitleProvider(), matchers), 8)
+        .getShardCount());
+  }
+
+  @Test
+  @DisplayName("Requests resolve through the normaliser's cascade and result cache")
+  void testCascadeAndResultCache(@TempDir Path directory) throws IOException {
+    try (ResultCache cache = ResultCache.open(directory.resolve("results"), 100)) {
+      Normaliser configured = Normaliser.builder()
+          .jobTitleProvider(new LocalJobTitleProvider())
+          .matchers(matchers)
+          .cascade(0.9, 1.0)
+          .resultCache(cache)
+          .build();
+      ShardedNormaliser sharded = new ShardedNormaliser(configured, 2);
+
+      // Best cosine 0.82 is below the reject cutoff, though full scoring would match
+      String input = "Software Engineer Java";
+      assertEquals("Software engineer", new ShardedNormaliser(
+          new Normaliser(new LocalJobTitleProvider(), matchers), 2).normalise(input));
+      assertEquals(configured.normaliseDetailed(input), sharded.normaliseDetailed(input));
+      assertEquals("", sharded.normalise(input));
+
+      // The first request was rejected by the cascade, the others answered from the cache
+      assertEquals(new CascadeStatistics(0, 0, 1, 0), configured.getCascadeStatistics());
+      assertEquals(2, cache.getStatistics().hits());
+    }
+  }
+
+  @Test
+  @DisplayName("An empty catalog has no shards and matches nothing")
+  void testEmptyCatalog() {
+    JobTitleProvider empty = new JobTitleProvider() {
+      @Override
+      public List<String> getJobTitlePrefixesToIgnore() {
+        return List.of();
+      }
+
+      @Override
+      public List<String> getNormalisedJobTitles() {
+        return List.of();
+      }
+    };
+    ShardedNormaliser sharded = new ShardedNormaliser(new Normaliser(empty, matchers), 4);
+
+    assertEquals(0, sharded.getShardCount());
+    assertEquals(Optional.empty(), sharded.normaliseDetailed("software engineer"));
+    assertEquals(List.of(), sharded.normaliseTopK("software engineer", 5));
+  }
+
+  @Test
+  @DisplayName("Throws IllegalArgumentException for fewer than one shard")
+  void testInvalidShardCount() {
+    assertThrows(IllegalArgumentException.class, () -> new ShardedNormaliser(normaliser, 0));
+  }
+}
@@ -0,0 +1,50 @@
+package com.zanete.jobtitlenormaliser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StringArenaTest {
+
+  private static final List<String> STRINGS = List.of("java", "", "ingénieur", "☕", "c#", "javascript");
+
+  @Test
+  @DisplayName("Returns every string, from the arena or the side strings")
+  void testRoundTrip() {
+    StringArena arena = new StringArena(STRINGS, false);
+    StringArena.View view = arena.view();
+    assertEquals(STRINGS.size(), arena.size());
+    for (int i = 0; i < STRINGS.size(); i++) {
+      assertEquals(STRINGS.get(i), arena.get(i));
+      assertEquals(STRINGS.get(i), arena.get(i, view).toString());
+    }
+    assertEquals("script", arena.get(5, view).subSequence(4, 10).toString());
+  }
+
+  @Test
+  @DisplayName("Finds strings by content and nothing else")
+  void testIndexOf() {
+    List<String> strings = new ArrayList<>(STRINGS);
+    for (int i = 0; i < 1_000; i++) {
+      strings.add("token" + i);
+    }
+    StringArena arena = new StringArena(strings, true);
+    for (int i = 0; i < strings.size(); i++) {
+      assertEquals(i, arena.indexOf(new String(strings.get(i))));
+    }
+    assertEquals(-1, arena.indexOf("jav"));
+    assertEquals(-1, arena.indexOf("token1000"));
+    // Characters beyond Latin-1 never match the arena's bytes, even when their low byte does
+    assertEquals(-1, arena.indexOf("ţ#"));
+  }
+
+  @Test
+  @DisplayName("An arena without an index cannot look strings up")
+  void testNoIndex() {
+    assertThrows(IllegalStateException.class, () -> new StringArena(STRINGS, false).indexOf("java"));
+  }
+}
@@ -0,0 +1,142 @@
+package com.zanete.jobtitlenormaliser.alias;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AliasTableTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  @DisplayName("Maps keys to titles and keeps them across reopening")
+  void testPersistsAcrossReopen() throws IOException {
+    Path path = directory.resolve("aliases");
+    try (AliasTable table = AliasTable.open(path)) {
+      table.put("java dev", "Java Developer");
+      table.put("sw eng", "Software Engineer");
+      assertEquals(Optional.of("Java Developer"), table.get("java dev"));
+      assertEquals(Optional.empty(), table.get("java"));
+    }
+
+    try (AliasTable table = AliasTable.open(path)) {
+      assertEquals(2, table.size());
+      assertEquals(Optional.of("Software Engineer"), table.get("sw eng"));
+    }
+  }
+
+  @Test
+  @DisplayName("Rewriting a key replaces its title; compaction drops the superseded record")
+  void testRewriteAndCompact() throws IOException {
+    try (AliasTable table = AliasTable.open(directory.resolve("aliases"))) {
+      for (int i = 0; i < 1_000; i++) {
+        table.put("ingénieur", "Title " + i);
+      }
+      assertEquals(1, table.size());
+      assertEquals(Optional.of("Title 999"), table.get("ingénieur"));
+
+      long before = table.fileSize();
+      table.compact();
+      assertTrue(table.fileSize() < before);
+      assertEquals(1, table.size());
+      assertEquals(Optional.of("Title 999"), table.get("ingénieur"));
+    }
+  }
+
+  @Test
+  @DisplayName("Grows its slots and records to hold many aliases")
+  void testGrowth() throws IOException {
+    Path path = directory.resolve("aliases");
+    Map<String, String> aliases = new LinkedHashMap<>();
+    for (int i = 0; i < 5_000; i++) {
+      aliases.put("raw title " + i, "Normalised " + (i % 37));
+    }
+    try (AliasTable table = AliasTable.open(path)) {
+      table.putAll(aliases);
+    }
+
+    try (AliasTable table = AliasTable.open(path)) {
+      assertEquals(aliases.size(), table.size());
+      aliases.forEach((key, value) -> assertEquals(Optional.of(value), table.get(key), key));
+      Map<String, String> visited = new HashMap<>();
+      table.forEach(visited::put);
+      assertEquals(aliases, visited);
+    }
+  }
+
+  @Test
+  @DisplayName("A corrupted record is never served; other aliases are unaffected")
+  void testCorruptRecordIgnored() throws IOException {
+    Path path = directory.resolve("aliases");
+    try (AliasTable table = AliasTable.open(path)) {
+      table.put("java dev", "Java Developer");
+      table.put("sw eng", "Software Engineer");
+    }
+    // Flip a byte of the first record's value, as a torn write would
+    corrupt(path, "Java Developer");
+
+    try (AliasTable table = AliasTable.open(path)) {
+      assertEquals(Optional.empty(), table.get("java dev"));
+      assertEquals(Optional.of("Software Engineer"), table.get("sw eng"));
+      assertEquals(1, table.size());
+
+      table.put("java dev", "Java Developer");
+      assertEquals(Optional.of("Java Developer"), table.get("java dev"));
+      assertEquals(2, table.size());
+    }
+  }
+
+  @Test
+  @DisplayName("Rejects files that are not alias tables")
+  void testRejectsOtherFiles() throws IOException {
+    Path path = directory.resolve("other");
+    Files.writeString(path, "raw title\tNormalised title\n".repeat(10));
+    assertThrows(IOException.class, () -> AliasTable.open(path));
+  }
+
+  @Test
+  @DisplayName("Keys are the preprocessed tokens joined by spaces")
+  void testKey() {
+    assertEquals("java developer", AliasTable.key(List.of("java", "developer")));
+  }
+
+  private static void corrupt(Path path, String text) throws IOException {
+    byte[] file = Files.readAllBytes(path);
+    byte[] target = text.getBytes(StandardCharsets.UTF_8);
+    int at = indexOf(file, target);
+    assertTrue(at >= 0);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {(byte) (file[at] ^ 0x20)}), at);
+    }
+  }
+
+  private static int indexOf(byte[] haystack, byte[] needle) {
+    outer:
+    for (int i = 0; i + needle.length <= haystack.length; i++) {
+      for (int j = 0; j < needle.length; j++) {
+        if (haystack[i + j] != needle[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+}
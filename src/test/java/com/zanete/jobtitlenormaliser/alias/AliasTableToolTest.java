@@ -0,0 +1,49 @@
+package com.zanete.jobtitlenormaliser.alias;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.zanete.jobtitlenormaliser.LocalJobTitleProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AliasTableToolTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  @DisplayName("Bulk-loads aliases keyed by the preprocessed raw title")
+  void testBulkLoad() throws IOException {
+    Path aliases = directory.resolve("aliases.tsv");
+    Files.writeString(aliases, """
+        # confirmed by operations
+        Senior SW Eng\tSoftware engineer
+
+        Bookkeeper\tAccountant
+        """);
+    try (AliasTable table = AliasTable.open(directory.resolve("table"))) {
+      assertEquals(2, AliasTableTool.bulkLoad(table, new LocalJobTitleProvider(), aliases));
+      // "senior" is an ignored prefix
+      assertEquals(Optional.of("Software engineer"), table.get("sw eng"));
+      assertEquals(Optional.of("Accountant"), table.get("bookkeeper"));
+    }
+  }
+
+  @Test
+  @DisplayName("Rejects aliases to titles outside the catalog, loading nothing")
+  void testRejectsUnknownTitle() throws IOException {
+    Path aliases = directory.resolve("aliases.tsv");
+    Files.writeString(aliases, "Bookkeeper\tAccountant\nCEO\tChief Executive\n");
+    try (AliasTable table = AliasTable.open(directory.resolve("table"))) {
+      assertThrows(IllegalArgumentException.class,
+          () -> AliasTableTool.bulkLoad(table, new LocalJobTitleProvider(), aliases));
+      assertEquals(0, table.size());
+    }
+  }
+}
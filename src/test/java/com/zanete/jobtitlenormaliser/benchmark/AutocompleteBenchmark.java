@@ -0,0 +1,71 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.AutocompleteSession;
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Replays queries one keystroke at a time, comparing normalising every prefix from scratch with
+ * an autocomplete session per query under a per-keystroke budget. Reports mean and 99th
+ * percentile latency per keystroke.
+ */
+@Tag("benchmark")
+class AutocompleteBenchmark {
+
+  private static final int CATALOG_SIZE = 10_000;
+  private static final int QUERIES = 50;
+  private static final int SUGGESTIONS = 5;
+  private static final Duration BUDGET = Duration.ofMillis(2);
+
+  @Test
+  void benchmarkAutocomplete() throws InvalidWeightsException {
+    SyntheticCatalog catalog = new SyntheticCatalog(CATALOG_SIZE, 1);
+    List<String> queries = new QueryCorpus(catalog).generate(QUERIES, 2, 0.3, 0.1);
+    Normaliser normaliser = Normaliser.builder()
+        .jobTitleProvider(catalog)
+        .matchers(CatalogCompilationBenchmark.defaultMatchers())
+        .build();
+    int keystrokes = queries.stream().mapToInt(String::length).sum();
+
+    // Warm up both paths before measuring
+    replay(normaliser, queries, false);
+    replay(normaliser, queries, true);
+    System.out.printf("%n%d titles, %d queries, %d keystrokes, budget %dms%n%-12s %10s %10s%n",
+        CATALOG_SIZE, QUERIES, keystrokes, BUDGET.toMillis(), "path", "mean", "p99");
+    report("top-k", replay(normaliser, queries, false));
+    report("session", replay(normaliser, queries, true));
+  }
+
+  private static long[] replay(Normaliser normaliser, List<String> queries, boolean incremental) {
+    long[] nanos = new long[queries.stream().mapToInt(String::length).sum()];
+    int k = 0;
+    for (String query : queries) {
+      AutocompleteSession session = incremental
+          ? new AutocompleteSession(normaliser, SUGGESTIONS, BUDGET)
+          : null;
+      for (int end = 1; end <= query.length(); end++) {
+        String typed = query.substring(0, end);
+        long start = System.nanoTime();
+        if (incremental) {
+          session.update(typed);
+        } else {
+          normaliser.normaliseTopK(typed, SUGGESTIONS);
+        }
+        nanos[k++] = System.nanoTime() - start;
+      }
+    }
+    return nanos;
+  }
+
+  private static void report(String path, long[] nanos) {
+    long[] sorted = nanos.clone();
+    Arrays.sort(sorted);
+    System.out.printf("%-12s %8.0fus %8.0fus%n", path, Arrays.stream(nanos).average().orElse(0) / 1000.0,
+        sorted[(int) (sorted.length * 0.99)] / 1000.0);
+  }
+}
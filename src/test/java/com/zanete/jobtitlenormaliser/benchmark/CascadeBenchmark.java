@@ -0,0 +1,70 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.model.CascadeStatistics;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares a normaliser scoring the whole catalog for every query against cascades resolving
+ * queries early: one with the cutoffs that keep results unchanged, and one also accepting and
+ * rejecting on the best cosine similarity in a band. Reports per-tier counts and how many
+ * results differ from full scoring.
+ */
+@Tag("benchmark")
+class CascadeBenchmark {
+
+  private static final int CATALOG_SIZE = 10_000;
+  private static final int QUERIES = 200;
+  private static final int ROUNDS = 5;
+
+  @Test
+  void benchmarkCascade() throws InvalidWeightsException {
+    SyntheticCatalog catalog = new SyntheticCatalog(CATALOG_SIZE, 1);
+    List<String> queries = new QueryCorpus(catalog).generate(QUERIES, 2, 0.3, 0.1);
+    Normaliser full = Normaliser.builder()
+        .jobTitleProvider(catalog)
+        .matchers(CatalogCompilationBenchmark.defaultMatchers())
+        .build();
+
+    System.out.printf("%n%d titles x %d queries, full scoring %.0fus%n%-10s %10s %8s %8s %8s %8s %8s%n",
+        CATALOG_SIZE, QUERIES, microsPerQuery(full, queries), "cutoffs", "latency", "exact",
+        "accepted", "rejected", "scored", "differ");
+    report(catalog, full, queries, 0.0, 1.0);
+    report(catalog, full, queries, 0.3, 0.8);
+  }
+
+  private static void report(SyntheticCatalog catalog, Normaliser full, List<String> queries,
+                             double rejectBelow, double acceptFrom) throws InvalidWeightsException {
+    Normaliser cascading = Normaliser.builder()
+        .jobTitleProvider(catalog)
+        .matchers(CatalogCompilationBenchmark.defaultMatchers())
+        .cascade(rejectBelow, acceptFrom)
+        .build();
+    int differ = 0;
+    for (String query : queries) {
+      if (!Objects.equals(full.normaliseDetailed(query), cascading.normaliseDetailed(query))) {
+        differ++;
+      }
+    }
+    CascadeStatistics once = cascading.getCascadeStatistics();
+    System.out.printf("%.1f-%.1f    %8.0fus %8d %8d %8d %8d %8d%n", rejectBelow, acceptFrom,
+        microsPerQuery(cascading, queries), once.exact(), once.accepted(), once.rejected(),
+        once.scored(), differ);
+  }
+
+  private static double microsPerQuery(Normaliser normaliser, List<String> queries) {
+    double best = Double.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (String query : queries) {
+        normaliser.normaliseDetailed(query);
+      }
+      best = Math.min(best, (System.nanoTime() - start) / 1000.0 / queries.size());
+    }
+    return best;
+  }
+}
@@ -0,0 +1,89 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures how long a {@link Normaliser} takes to become usable at different catalog sizes,
+ * comparing sequential, parallel and background catalog compilation.
+ */
+@Tag("benchmark")
+class CatalogCompilationBenchmark {
+
+  private static final int[] CATALOG_SIZES = {1_000, 10_000, 100_000};
+  private static final int ROUNDS = 5;
+
+  @Test
+  void benchmarkStartupTime() throws Exception {
+    Matchers matchers = defaultMatchers();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // Warm up the preprocessing code paths before measuring
+      for (int i = 0; i < 3; i++) {
+        build(new SyntheticCatalog(10_000, i), matchers, false, null);
+      }
+
+      System.out.printf("%n%-10s %15s %15s %18s %18s%n", "titles", "sequential ms",
+          "parallel ms", "background ret ms", "background done ms");
+      for (int size : CATALOG_SIZES) {
+        SyntheticCatalog catalog = new SyntheticCatalog(size, size);
+        double sequential = bestOf(() -> build(catalog, matchers, false, null));
+        double parallel = bestOf(() -> build(catalog, matchers, true, null));
+
+        double returned = Double.MAX_VALUE;
+        double compiled = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+          long start = System.nanoTime();
+          Normaliser normaliser = build(catalog, matchers, true, executor);
+          returned = Math.min(returned, millisSince(start));
+          normaliser.catalogCompiled().join();
+          compiled = Math.min(compiled, millisSince(start));
+        }
+        System.out.printf("%-10d %15.1f %15.1f %18.3f %18.1f%n",
+            size, sequential, parallel, returned, compiled);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static Normaliser build(SyntheticCatalog catalog, Matchers matchers,
+                                  boolean parallel, ExecutorService executor) {
+    Normaliser.Builder builder = Normaliser.builder()
+        .jobTitleProvider(catalog)
+        .matchers(matchers)
+        .parallelCompilation(parallel);
+    if (executor != null) {
+      builder.compileInBackground(executor);
+    }
+    return builder.build();
+  }
+
+  private static double bestOf(Runnable action) {
+    double best = Double.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      action.run();
+      best = Math.min(best, millisSince(start));
+    }
+    return best;
+  }
+
+  private static double millisSince(long start) {
+    return (System.nanoTime() - start) / 1_000_000.0;
+  }
+
+  static Matchers defaultMatchers() throws InvalidWeightsException {
+    return Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build();
+  }
+}
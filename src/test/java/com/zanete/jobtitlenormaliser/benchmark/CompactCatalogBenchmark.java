@@ -0,0 +1,52 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.model.MemoryReport;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the estimated memory and query latency of a regular and a compact catalog. Both
+ * share Jaro-Winkler's JIT profile, so the second configuration's latency reads high; swap the
+ * order to time the compact catalog on its own.
+ */
+@Tag("benchmark")
+class CompactCatalogBenchmark {
+
+  private static final int CATALOG_SIZE = 100_000;
+  private static final int QUERIES = 50;
+  private static final int ROUNDS = 3;
+
+  @Test
+  void benchmarkCompactCatalog() throws InvalidWeightsException {
+    SyntheticCatalog catalog = new SyntheticCatalog(CATALOG_SIZE, 1);
+    List<String> queries = new QueryCorpus(catalog).generate(QUERIES, 2, 0.5, 0.1);
+    System.out.printf("%n%d titles x %d queries%n%-8s %14s %14s %14s%n", CATALOG_SIZE, QUERIES,
+        "storage", "catalog bytes", "bytes/title", "us/query");
+    for (boolean compact : new boolean[] {false, true}) {
+      Normaliser normaliser = Normaliser.builder()
+          .jobTitleProvider(catalog)
+          .matchers(CatalogCompilationBenchmark.defaultMatchers())
+          .compactTokens(compact)
+          .build();
+      MemoryReport report = normaliser.memoryReport();
+      System.out.printf("%-8s %,14d %14.0f %14.0f%n", compact ? "compact" : "regular",
+          report.titleBytes() + report.tokenBytes() + report.indexBytes(),
+          report.catalogBytesPerTitle(), microsPerQuery(normaliser, queries));
+    }
+  }
+
+  private static double microsPerQuery(Normaliser normaliser, List<String> queries) {
+    double best = Double.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (String query : queries) {
+        normaliser.normaliseDetailed(query);
+      }
+      best = Math.min(best, (System.nanoTime() - start) / 1000.0 / queries.size());
+    }
+    return best;
+  }
+}
@@ -0,0 +1,59 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.model.DedupReport;
+import com.zanete.jobtitlenormaliser.model.PipelineReport;
+import com.zanete.jobtitlenormaliser.pipeline.BulkPipeline;
+import com.zanete.jobtitlenormaliser.pipeline.DedupBatchNormaliser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares the staged bulk pipeline with the deduplicating batch normaliser on a file where each
+ * distinct title occurs many times.
+ */
+@Tag("benchmark")
+class DedupBatchBenchmark {
+
+  private static final int CATALOG_SIZE = 2_000;
+  private static final int DISTINCT = 500;
+  private static final int ROWS = 20_000;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void benchmarkDedupBatch() throws InvalidWeightsException, IOException, InterruptedException {
+    SyntheticCatalog catalog = new SyntheticCatalog(CATALOG_SIZE, 1);
+    List<String> distinct = new QueryCorpus(catalog).generate(DISTINCT, 2, 0.5, 0.1);
+    Random random = new Random(5);
+    List<String> rows = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      rows.add(distinct.get(random.nextInt(DISTINCT)));
+    }
+    Path input = Files.write(directory.resolve("input.txt"), rows);
+    Normaliser normaliser = new Normaliser(catalog, CatalogCompilationBenchmark.defaultMatchers());
+
+    DedupReport dedup = DedupBatchNormaliser.builder(normaliser)
+        .runRecords(5_000)
+        .spillDirectory(directory)
+        .build()
+        .run(input, directory.resolve("dedup.tsv"));
+    PipelineReport bulk = BulkPipeline.builder(normaliser)
+        .build()
+        .run(input, directory.resolve("bulk.tsv"));
+
+    System.out.printf("%n%d rows, %d distinct, %d titles%n%-8s %10s%n%-8s %10d%n%-8s %10d (%.1fx)%n%s",
+        ROWS, DISTINCT, CATALOG_SIZE, "mode", "ms", "bulk", bulk.elapsed().toMillis(),
+        "dedup", dedup.elapsed().toMillis(),
+        (double) bulk.elapsed().toMillis() / dedup.elapsed().toMillis(), dedup.format());
+  }
+}
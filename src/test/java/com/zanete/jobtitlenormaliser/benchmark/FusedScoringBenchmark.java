@@ -0,0 +1,52 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares a normaliser scoring the default matchers with the fused fuzzy and cosine kernel
+ * against one scoring each matcher separately, on typo-laden queries.
+ */
+@Tag("benchmark")
+class FusedScoringBenchmark {
+
+  private static final int CATALOG_SIZE = 10_000;
+  private static final int QUERIES = 200;
+  private static final int ROUNDS = 5;
+
+  @Test
+  void benchmarkFusedScoring() throws InvalidWeightsException {
+    SyntheticCatalog catalog = new SyntheticCatalog(CATALOG_SIZE, 1);
+    List<String> queries = new QueryCorpus(catalog).generate(QUERIES, 2, 0.5, 0.1);
+    Normaliser fused = new Normaliser(catalog, CatalogCompilationBenchmark.defaultMatchers());
+    // Anonymous subclasses are not recognised as the built-in matchers
+    Normaliser separate = new Normaliser(catalog, Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher() {}, 0.4)
+        .addMatcher(new CosineSimilarityMatcher() {}, 0.6)
+        .build());
+
+    double separateMicros = microsPerQuery(separate, queries);
+    double fusedMicros = microsPerQuery(fused, queries);
+    System.out.printf("%n%d titles x %d queries%n%-10s %12s%n%-10s %12.0f%n%-10s %12.0f (%.2fx)%n",
+        CATALOG_SIZE, QUERIES, "scoring", "us/query", "separate", separateMicros,
+        "fused", fusedMicros, separateMicros / fusedMicros);
+  }
+
+  private static double microsPerQuery(Normaliser normaliser, List<String> queries) {
+    double best = Double.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (String query : queries) {
+        normaliser.normaliseDetailed(query);
+      }
+      best = Math.min(best, (System.nanoTime() - start) / 1000.0 / queries.size());
+    }
+    return best;
+  }
+}
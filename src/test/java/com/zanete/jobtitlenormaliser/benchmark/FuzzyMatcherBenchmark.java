@@ -0,0 +1,92 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.Preprocessor;
+import com.zanete.jobtitlenormaliser.matcher.BitParallelFuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.Matcher;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.text.similarity.JaroWinklerSimilarity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares fuzzy token matchers scoring typo-laden queries against a whole catalog: the
+ * original commons-text {@link JaroWinklerSimilarity} loop, {@link FuzzyTokenMatcher} with its
+ * threshold-aware kernel, and {@link BitParallelFuzzyTokenMatcher}.
+ */
+@Tag("benchmark")
+class FuzzyMatcherBenchmark {
+
+  private static final int CATALOG_SIZE = 5_000;
+  private static final int QUERIES = 200;
+  private static final int ROUNDS = 5;
+
+  // Keeps the JIT from discarding results
+  private static double sink;
+
+  @Test
+  void benchmarkFuzzyMatchers() {
+    SyntheticCatalog catalog = new SyntheticCatalog(CATALOG_SIZE, 1);
+    Preprocessor preprocessor = new Preprocessor(catalog.getJobTitlePrefixesToIgnore());
+    List<List<String>> titles = catalog.getNormalisedJobTitles().stream()
+        .map(preprocessor::preprocess)
+        .toList();
+    List<List<String>> queries = new QueryCorpus(catalog).generate(QUERIES, 2, 0.5, 0.1).stream()
+        .map(preprocessor::preprocess)
+        .toList();
+
+    Map<String, Matcher> matchers = new LinkedHashMap<>();
+    matchers.put("commons-text", commonsTextMatcher());
+    matchers.put("FuzzyTokenMatcher", new FuzzyTokenMatcher());
+    matchers.put("BitParallelFuzzyTokenMatcher", new BitParallelFuzzyTokenMatcher(catalog));
+
+    System.out.printf("%n%d titles x %d queries%n%-30s %12s %10s%n",
+        CATALOG_SIZE, QUERIES, "matcher", "ns/title", "speedup");
+    double baseline = 0;
+    for (Map.Entry<String, Matcher> entry : matchers.entrySet()) {
+      double nanos = nanosPerTitle(entry.getValue(), queries, titles);
+      if (baseline == 0) {
+        baseline = nanos;
+      }
+      System.out.printf("%-30s %12.0f %9.2fx%n", entry.getKey(), nanos, baseline / nanos);
+    }
+  }
+
+  /**
+   * The fuzzy matcher as originally written: full commons-text Jaro-Winkler for every pair.
+   */
+  private static Matcher commonsTextMatcher() {
+    JaroWinklerSimilarity jaroWinkler = new JaroWinklerSimilarity();
+    return (tokens1, tokens2) -> {
+      if (tokens1.isEmpty() || tokens2.isEmpty()) {
+        return 0.0;
+      }
+      double score = 0.0;
+      for (String token1 : tokens1) {
+        double best = 0.0;
+        for (String token2 : tokens2) {
+          best = Math.max(best, jaroWinkler.apply(token1, token2));
+        }
+        score += best;
+      }
+      return score / tokens1.size();
+    };
+  }
+
+  private static double nanosPerTitle(Matcher matcher, List<List<String>> queries,
+                                      List<List<String>> titles) {
+    double best = Double.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (List<String> query : queries) {
+        for (List<String> title : titles) {
+          sink += matcher.calculateScore(query, title);
+        }
+      }
+      best = Math.min(best, (System.nanoTime() - start) / (double) (queries.size() * titles.size()));
+    }
+    return best;
+  }
+}
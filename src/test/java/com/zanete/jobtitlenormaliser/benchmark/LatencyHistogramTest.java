@@ -0,0 +1,101 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LatencyHistogramTest {
+
+  @Test
+  @DisplayName("An empty histogram reports zero for every quantile")
+  void testEmpty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertEquals(0, histogram.count());
+    assertEquals(0, histogram.max());
+    assertEquals(0, histogram.valueAt(0.5));
+    assertEquals(0, histogram.valueAt(0.999));
+  }
+
+  @Test
+  @DisplayName("A single sample is every quantile, capped at the recorded maximum")
+  void testSingleSample() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    // Bucket 1000..1007, so the bucket bound alone would overstate it
+    histogram.record(1_000);
+
+    assertEquals(1, histogram.count());
+    assertEquals(1_000, histogram.valueAt(0.0));
+    assertEquals(1_000, histogram.valueAt(0.5));
+    assertEquals(1_000, histogram.valueAt(1.0));
+  }
+
+  @Test
+  @DisplayName("Small values have exact buckets, so percentiles are the samples at their ranks")
+  void testExactPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 100; value >= 1; value--) {
+      histogram.record(value);
+    }
+
+    assertEquals(1, histogram.valueAt(0.0));
+    assertEquals(50, histogram.valueAt(0.5));
+    assertEquals(99, histogram.valueAt(0.99));
+    assertEquals(100, histogram.valueAt(0.999));
+    assertEquals(100, histogram.max());
+  }
+
+  @Test
+  @DisplayName("Large values report their bucket's upper bound, and the tail its maximum")
+  void testBucketedPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 998; i++) {
+      histogram.record(10_000);
+    }
+    histogram.record(1_000_000);
+    histogram.record(Long.MAX_VALUE);
+
+    // 10_000 falls in bucket 9_984..10_111
+    assertEquals(10_111, histogram.valueAt(0.5));
+    assertEquals(10_111, histogram.valueAt(0.99));
+    // Rank 999 of 1000 is the 1_000_000 sample, in bucket 999_424..1_007_615
+    assertEquals(1_007_615, histogram.valueAt(0.999));
+    assertEquals(Long.MAX_VALUE, histogram.valueAt(1.0));
+  }
+
+  @Test
+  @DisplayName("Negative durations count as zero and merged histograms add up")
+  void testNegativeAndMerge() {
+    LatencyHistogram first = new LatencyHistogram();
+    first.record(-5);
+    LatencyHistogram second = new LatencyHistogram();
+    second.record(200);
+    second.record(300);
+
+    first.add(second);
+    assertEquals(3, first.count());
+    assertEquals(300, first.max());
+    assertEquals(0, first.valueAt(0.3));
+    assertEquals(201, first.valueAt(0.5));
+    assertEquals(300, first.valueAt(1.0));
+  }
+
+  @ParameterizedTest(name = "{0} lies in a bucket at most 1/64 wider than itself")
+  @ValueSource(longs = {0, 1, 127, 128, 129, 255, 256, 1_000, 65_535, 1_000_000_007L, Long.MAX_VALUE / 3,
+      Long.MAX_VALUE})
+  void testBucketBounds(long value) {
+    int bucket = LatencyHistogram.bucket(value);
+    long upper = LatencyHistogram.upperBound(bucket);
+
+    assertTrue(upper >= value, () -> value + " above its bucket bound " + upper);
+    assertTrue(upper - value <= value / 64, () -> value + " has bucket bound " + upper);
+    assertEquals(bucket, LatencyHistogram.bucket(upper));
+    if (upper < Long.MAX_VALUE) {
+      assertEquals(bucket + 1, LatencyHistogram.bucket(upper + 1));
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Drives an operation from several threads for a fixed duration and reports throughput,
+ * latency percentiles and garbage collection activity.
+ *
+ * <p>Each thread cycles through the queries from its own starting offset and calls the
+ * operation back to back (a closed loop), after an unrecorded warm-up of the same length for
+ * every thread. Latencies go into per-thread {@link LatencyHistogram}s, merged at the end, so
+ * recording does not contend. GC pauses are collected from the collectors' notifications while
+ * the measured phase runs; beans reporting concurrent cycles rather than pauses are skipped.</p>
+ */
+public class LoadHarness {
+
+  private final int threads;
+  private final Duration warmUp;
+  private final Duration duration;
+
+  /**
+   * @param threads number of threads calling the operation
+   * @param warmUp time to run before recording starts
+   * @param duration time to record for
+   * @throws IllegalArgumentException if threads is less than 1 or duration is not positive
+   */
+  public LoadHarness(int threads, Duration warmUp, Duration duration) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+    }
+    if (duration.isNegative() || duration.isZero()) {
+      throw new IllegalArgumentException("Duration must be positive: " + duration);
+    }
+    this.threads = threads;
+    this.warmUp = warmUp;
+    this.duration = duration;
+  }
+
+  /**
+   * Runs the operation against the queries until the duration has elapsed.
+   *
+   * @param operation returns true if the query matched
+   * @param queries queries to cycle through
+   */
+  public Report run(Predicate<String> operation, List<String> queries) throws InterruptedException {
+    List<LatencyHistogram> histograms = new ArrayList<>();
+    AtomicLong matches = new AtomicLong();
+    CountDownLatch ready = new CountDownLatch(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    long[] phaseStart = new long[1];
+    for (int t = 0; t < threads; t++) {
+      LatencyHistogram histogram = new LatencyHistogram();
+      histograms.add(histogram);
+      int offset = t * queries.size() / threads;
+      workers.add(new Thread(() -> {
+        ready.countDown();
+        awaitQuietly(start);
+        long warmUpEnd = phaseStart[0];
+        long end = warmUpEnd + duration.toNanos();
+        int position = offset;
+        long matched = 0;
+        long now = System.nanoTime();
+        while (now < end) {
+          String query = queries.get(position);
+          position = position + 1 == queries.size() ? 0 : position + 1;
+          boolean match = operation.test(query);
+          long finished = System.nanoTime();
+          if (now >= warmUpEnd) {
+            histogram.record(finished - now);
+            matched += match ? 1 : 0;
+          }
+          now = finished;
+        }
+        matches.addAndGet(matched);
+      }, "load-" + t));
+    }
+    workers.forEach(Thread::start);
+    ready.await();
+
+    GcPauseListener gcPauses = new GcPauseListener();
+    long measuredFrom = System.nanoTime() + warmUp.toNanos();
+    phaseStart[0] = measuredFrom;
+    start.countDown();
+    Thread.sleep(Math.max(0, (measuredFrom - System.nanoTime()) / 1_000_000));
+    gcPauses.start();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    gcPauses.stop();
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - measuredFrom);
+
+    LatencyHistogram merged = new LatencyHistogram();
+    histograms.forEach(merged::add);
+    return new Report(threads, elapsed, merged.count(), matches.get(),
+        merged.valueAt(0.50), merged.valueAt(0.99), merged.valueAt(0.999), merged.max(),
+        gcPauses.count, gcPauses.totalMillis, gcPauses.maxMillis);
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Outcome of a load run; latencies are in nanoseconds.
+   */
+  public record Report(int threads, Duration elapsed, long operations, long matches,
+                       long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos,
+                       long gcPauses, long gcPauseMillis, long maxGcPauseMillis) {
+
+    public double throughput() {
+      return operations / (elapsed.toNanos() / 1e9);
+    }
+
+    /**
+     * Share of the measured wall-clock time spent in GC pauses.
+     */
+    public double gcPauseShare() {
+      return gcPauseMillis / (double) elapsed.toMillis();
+    }
+
+    public String format() {
+      return String.format(Locale.ROOT,
+          "threads %d, %.1fs: %,d ops (%,.0f ops/s), %.1f%% matched%n"
+              + "latency us: p50 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n"
+              + "gc: %d pauses, %d ms total (%.2f%% of run), longest %d ms",
+          threads, elapsed.toMillis() / 1000.0, operations, throughput(),
+          operations == 0 ? 0.0 : 100.0 * matches / operations,
+          p50Nanos / 1000.0, p99Nanos / 1000.0, p999Nanos / 1000.0, maxNanos / 1000.0,
+          gcPauses, gcPauseMillis, 100 * gcPauseShare(), maxGcPauseMillis);
+    }
+  }
+
+  /**
+   * Accumulates stop-the-world pauses reported by the JVM's garbage collectors.
+   */
+  private static class GcPauseListener implements NotificationListener {
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private long count;
+    private long totalMillis;
+    private long maxMillis;
+
+    void start() {
+      for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+        // ZGC and Shenandoah report concurrent cycles on a separate bean from their pauses
+        if (collector instanceof NotificationEmitter emitter && !collector.getName().endsWith("Cycles")) {
+          emitter.addNotificationListener(this, null, null);
+          emitters.add(emitter);
+        }
+      }
+    }
+
+    synchronized void stop() {
+      for (NotificationEmitter emitter : emitters) {
+        try {
+          emitter.removeNotificationListener(this);
+        } catch (ListenerNotFoundException e) {
+          // Already removed
+        }
+      }
+    }
+
+    @Override
+    public synchronized void handleNotification(Notification notification, Object handback) {
+      if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+        return;
+      }
+      GarbageCollectionNotificationInfo info =
+          GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+      long millis = info.getGcInfo().getDuration();
+      count++;
+      totalMillis += millis;
+      maxMillis = Math.max(maxMillis, millis);
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.Preprocessor;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Quantifies the ASCII fast path in {@link Preprocessor}: the cost of preprocessing ASCII input
+ * against the NFD normalisation and accent stripping that the fast path skips, with the token
+ * cache disabled so every call does the full cleaning work.
+ */
+@Tag("benchmark")
+class PreprocessingBenchmark {
+
+  private static final int ROUNDS = 20;
+  private static final String SEPARATORS = "[\\s,\\/;:'\"()\\[\\]{}!?@_\\-]+";
+
+  // Keeps the JIT from discarding results
+  private static long sink;
+
+  @Test
+  void benchmarkAsciiFastPath() {
+    SyntheticCatalog catalog = new SyntheticCatalog(1_000, 5);
+    List<String> ascii = catalog.sampleQueries(20_000, 6);
+    List<String> accented = ascii.stream()
+        .map(query -> query.replace('e', 'é').replace('a', 'à'))
+        .toList();
+    Preprocessor preprocessor = new Preprocessor(catalog.getJobTitlePrefixesToIgnore(), 0);
+
+    double asciiNanos = nanosPerInput(ascii, input -> sink += preprocessor.preprocess(input).size());
+    double accentedNanos =
+        nanosPerInput(accented, input -> sink += preprocessor.preprocess(input).size());
+    double skippedNanos = nanosPerInput(ascii, PreprocessingBenchmark::skippedWork);
+
+    System.out.printf("%n%-40s %10.0f ns/input%n", "preprocess, ASCII (fast path)", asciiNanos);
+    System.out.printf("%-40s %10.0f ns/input%n", "preprocess, accented (full path)", accentedNanos);
+    System.out.printf("%-40s %10.0f ns/input%n", "NFD + accent strip skipped for ASCII", skippedNanos);
+    System.out.printf("%-40s %9.0f%%%n", "saving on ASCII input",
+        100 * skippedNanos / (asciiNanos + skippedNanos));
+  }
+
+  /**
+   * The work the ASCII fast path avoids: normalising the whole input and stripping marks
+   * from every token.
+   */
+  private static void skippedWork(String input) {
+    String normalised = Normalizer.normalize(input, Normalizer.Form.NFD).toLowerCase().trim();
+    for (String token : normalised.split(SEPARATORS)) {
+      sink += token.replaceAll("\\p{M}", "").length();
+    }
+  }
+
+  private static double nanosPerInput(List<String> inputs, Consumer<String> action) {
+    double best = Double.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      inputs.forEach(action);
+      best = Math.min(best, (System.nanoTime() - start) / (double) inputs.size());
+    }
+    return best;
+  }
+}
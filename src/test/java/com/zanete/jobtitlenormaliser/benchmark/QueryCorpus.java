@@ -0,0 +1,118 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates reproducible, realistically messy queries against a {@link SyntheticCatalog}.
+ *
+ * <p>Queries are catalog titles with a random seniority prefix, random casing and keyboard typos
+ * (adjacent-key substitutions, transpositions, dropped and doubled letters). Technology tokens
+ * such as "c#", ".net" and "c++" are never mistyped, since the preprocessor relies on their
+ * symbols. A share of the queries is noise that should not match any title.</p>
+ */
+public class QueryCorpus {
+
+  private static final List<String> NOISE_WORDS = List.of(
+      "chief", "happiness", "barista", "dog", "walker", "astronaut", "ninja", "rockstar", "evangelist",
+      "wizard", "guru", "shepherd", "juggler", "lifeguard", "florist", "sommelier", "volunteer");
+
+  // Neighbouring keys on a QWERTY keyboard
+  private static final Map<Character, String> ADJACENT_KEYS = Map.ofEntries(
+      Map.entry('q', "wa"), Map.entry('w', "qes"), Map.entry('e', "wrd"), Map.entry('r', "etf"),
+      Map.entry('t', "ryg"), Map.entry('y', "tuh"), Map.entry('u', "yij"), Map.entry('i', "uok"),
+      Map.entry('o', "ipl"), Map.entry('p', "ol"), Map.entry('a', "qsz"), Map.entry('s', "awdz"),
+      Map.entry('d', "sefx"), Map.entry('f', "drgc"), Map.entry('g', "fthv"), Map.entry('h', "gyjb"),
+      Map.entry('j', "hukn"), Map.entry('k', "jilm"), Map.entry('l', "kop"), Map.entry('z', "asx"),
+      Map.entry('x', "zsdc"), Map.entry('c', "xdfv"), Map.entry('v', "cfgb"), Map.entry('b', "vghn"),
+      Map.entry('n', "bhjm"), Map.entry('m', "njk"));
+
+  private final SyntheticCatalog catalog;
+
+  public QueryCorpus(SyntheticCatalog catalog) {
+    this.catalog = catalog;
+  }
+
+  /**
+   * Generates {@code count} queries.
+   *
+   * @param typoRate probability that a query contains a typo
+   * @param noiseRate probability that a query is noise rather than a catalog title
+   */
+  public List<String> generate(int count, long seed, double typoRate, double noiseRate) {
+    Random random = new Random(seed);
+    List<String> titles = catalog.getNormalisedJobTitles();
+    List<String> queries = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String query = random.nextDouble() < noiseRate
+          ? noise(random)
+          : titles.get(random.nextInt(titles.size()));
+      if (random.nextBoolean()) {
+        query = SyntheticCatalog.PREFIXES.get(random.nextInt(SyntheticCatalog.PREFIXES.size()))
+            + " " + query;
+      }
+      if (random.nextDouble() < typoRate) {
+        query = typo(query, random);
+      }
+      queries.add(recase(query, random));
+    }
+    return queries;
+  }
+
+  private static String noise(Random random) {
+    StringBuilder noise = new StringBuilder();
+    int words = 1 + random.nextInt(3);
+    for (int i = 0; i < words; i++) {
+      noise.append(i == 0 ? "" : " ").append(NOISE_WORDS.get(random.nextInt(NOISE_WORDS.size())));
+    }
+    return noise.toString();
+  }
+
+  /**
+   * Applies one keyboard typo to a random plain word of four or more letters, if there is one.
+   */
+  static String typo(String query, Random random) {
+    String[] words = query.split(" ");
+    List<Integer> candidates = new ArrayList<>();
+    for (int i = 0; i < words.length; i++) {
+      if (words[i].length() >= 4 && words[i].chars().allMatch(Character::isLetter)) {
+        candidates.add(i);
+      }
+    }
+    if (candidates.isEmpty()) {
+      return query;
+    }
+    int index = candidates.get(random.nextInt(candidates.size()));
+    StringBuilder word = new StringBuilder(words[index]);
+    // Leave the first letter alone, as people rarely mistype it
+    int position = 1 + random.nextInt(word.length() - 1);
+    switch (random.nextInt(4)) {
+      case 0 -> {
+        String neighbours = ADJACENT_KEYS.getOrDefault(
+            Character.toLowerCase(word.charAt(position)), "e");
+        word.setCharAt(position, neighbours.charAt(random.nextInt(neighbours.length())));
+      }
+      case 1 -> {
+        int other = position == word.length() - 1 ? position - 1 : position + 1;
+        char swapped = word.charAt(position);
+        word.setCharAt(position, word.charAt(other));
+        word.setCharAt(other, swapped);
+      }
+      case 2 -> word.deleteCharAt(position);
+      default -> word.insert(position, word.charAt(position));
+    }
+    words[index] = word.toString();
+    return String.join(" ", words);
+  }
+
+  private static String recase(String query, Random random) {
+    return switch (random.nextInt(4)) {
+      case 0 -> query.toLowerCase(Locale.ROOT);
+      case 1 -> query.toUpperCase(Locale.ROOT);
+      default -> query;
+    };
+  }
+}
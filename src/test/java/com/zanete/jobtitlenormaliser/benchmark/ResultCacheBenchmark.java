@@ -0,0 +1,69 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.cache.ResultCache;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Simulates a restart: the first requests of a freshly built normaliser, compiling its catalog
+ * in the background, against one reopening a result cache written by the previous instance.
+ */
+@Tag("benchmark")
+class ResultCacheBenchmark {
+
+  private static final int CATALOG_SIZE = 10_000;
+  private static final int QUERIES = 500;
+
+  @Test
+  void benchmarkWarmRestart() throws InvalidWeightsException, IOException {
+    SyntheticCatalog catalog = new SyntheticCatalog(CATALOG_SIZE, 1);
+    List<String> queries = new QueryCorpus(catalog).generate(QUERIES, 2, 0.3, 0.1);
+    Path directory = Files.createTempDirectory("results");
+    Path path = directory.resolve("results.cache");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      try (ResultCache cache = ResultCache.open(path, 1_000_000)) {
+        run(catalog, queries, cache, executor);
+      }
+      System.out.printf("%n%d titles, first %d requests after a restart%n%-6s %12s%n",
+          CATALOG_SIZE, QUERIES, "cache", "per request");
+      System.out.printf("%-6s %10.0fus%n", "cold", run(catalog, queries, null, executor));
+      try (ResultCache cache = ResultCache.open(path, 1_000_000)) {
+        System.out.printf("%-6s %10.0fus (%d hits, file %,d bytes)%n", "warm",
+            run(catalog, queries, cache, executor), cache.getStatistics().hits(), Files.size(path));
+      }
+    } finally {
+      executor.shutdown();
+      Files.deleteIfExists(path);
+      Files.delete(directory);
+    }
+  }
+
+  /**
+   * Builds a normaliser and returns the mean microseconds of its first requests, measured from
+   * the start of the build.
+   */
+  private static double run(SyntheticCatalog catalog, List<String> queries, ResultCache cache,
+                            ExecutorService executor) throws InvalidWeightsException {
+    long start = System.nanoTime();
+    Normaliser.Builder builder = Normaliser.builder()
+        .jobTitleProvider(catalog)
+        .matchers(CatalogCompilationBenchmark.defaultMatchers())
+        .compileInBackground(executor);
+    Normaliser normaliser = (cache == null ? builder : builder.resultCache(cache)).build();
+    for (String query : queries) {
+      normaliser.normaliseDetailed(query);
+    }
+    double micros = (System.nanoTime() - start) / 1000.0 / queries.size();
+    normaliser.catalogCompiled().join();
+    return micros;
+  }
+}
@@ -0,0 +1,54 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.ShardedNormaliser;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures single-query latency of {@link ShardedNormaliser} as the shard count grows,
+ * one query at a time so only intra-query parallelism is exercised.
+ */
+@Tag("benchmark")
+class ShardedNormaliserBenchmark {
+
+  private static final int CATALOG_SIZE = 50_000;
+  private static final int QUERIES = 100;
+
+  @Test
+  void benchmarkSingleQueryLatency() throws Exception {
+    SyntheticCatalog catalog = new SyntheticCatalog(CATALOG_SIZE, 1);
+    Normaliser normaliser = new Normaliser(catalog, CatalogCompilationBenchmark.defaultMatchers());
+    List<String> queries = catalog.sampleQueries(QUERIES, 2);
+    int cores = Runtime.getRuntime().availableProcessors();
+
+    System.out.printf("%n%d titles, %d cores%n%-8s %15s %10s%n",
+        CATALOG_SIZE, cores, "shards", "mean ms/query", "speedup");
+    double baseline = 0;
+    for (int shardCount = 1; shardCount <= Math.max(2, cores * 2); shardCount *= 2) {
+      ExecutorService executor = Executors.newFixedThreadPool(shardCount);
+      try {
+        ShardedNormaliser sharded = new ShardedNormaliser(normaliser, shardCount, executor);
+        run(sharded, queries); // warm-up
+        long start = System.nanoTime();
+        run(sharded, queries);
+        double meanMillis = (System.nanoTime() - start) / 1_000_000.0 / QUERIES;
+        if (shardCount == 1) {
+          baseline = meanMillis;
+        }
+        System.out.printf("%-8d %15.2f %9.2fx%n", shardCount, meanMillis, baseline / meanMillis);
+      } finally {
+        executor.shutdown();
+      }
+    }
+  }
+
+  private static void run(ShardedNormaliser sharded, List<String> queries) {
+    for (String query : queries) {
+      sharded.normaliseDetailed(query);
+    }
+  }
+}
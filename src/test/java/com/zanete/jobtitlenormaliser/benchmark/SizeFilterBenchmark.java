@@ -0,0 +1,63 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares a normaliser skipping titles whose size rules out the threshold against one scoring
+ * every title. Typo-laden queries are about as long as the titles, so little is skipped; single
+ * word queries rule out every title of three or more tokens.
+ */
+@Tag("benchmark")
+class SizeFilterBenchmark {
+
+  private static final int CATALOG_SIZE = 10_000;
+  private static final int QUERIES = 200;
+  private static final int ROUNDS = 5;
+
+  @Test
+  void benchmarkSizeFilter() throws InvalidWeightsException {
+    SyntheticCatalog catalog = new SyntheticCatalog(CATALOG_SIZE, 1);
+    List<String> typos = new QueryCorpus(catalog).generate(QUERIES, 2, 0.5, 0.1);
+    List<String> words = typos.stream()
+        .map(query -> query.substring(query.lastIndexOf(' ') + 1))
+        .toList();
+    Normaliser filtered = Normaliser.builder()
+        .jobTitleProvider(catalog)
+        .matchers(CatalogCompilationBenchmark.defaultMatchers())
+        .build();
+    Normaliser unfiltered = Normaliser.builder()
+        .jobTitleProvider(catalog)
+        .matchers(CatalogCompilationBenchmark.defaultMatchers())
+        .sizeFiltering(false)
+        .build();
+
+    System.out.printf("%n%d titles x %d queries%n%-8s %12s %12s%n", CATALOG_SIZE, QUERIES,
+        "queries", "all scored", "size filter");
+    report("typos", unfiltered, filtered, typos);
+    report("words", unfiltered, filtered, words);
+  }
+
+  private static void report(String name, Normaliser unfiltered, Normaliser filtered,
+                             List<String> queries) {
+    double unfilteredMicros = microsPerQuery(unfiltered, queries);
+    double filteredMicros = microsPerQuery(filtered, queries);
+    System.out.printf("%-8s %10.0fus %10.0fus (%.2fx)%n", name, unfilteredMicros, filteredMicros,
+        unfilteredMicros / filteredMicros);
+  }
+
+  private static double microsPerQuery(Normaliser normaliser, List<String> queries) {
+    double best = Double.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (String query : queries) {
+        normaliser.normaliseDetailed(query);
+      }
+      best = Math.min(best, (System.nanoTime() - start) / 1000.0 / queries.size());
+    }
+    return best;
+  }
+}
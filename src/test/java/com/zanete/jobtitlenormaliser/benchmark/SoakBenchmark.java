@@ -0,0 +1,43 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.Normaliser;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Sustained multi-threaded load against {@link Normaliser} with a messy query mix.
+ *
+ * <p>Defaults keep the run short; for a soak run pass system properties, e.g.
+ * {@code ./gradlew benchmark --tests '*SoakBenchmark' -Dsoak.threads=16 -Dsoak.seconds=600}.
+ * Supported properties: {@code soak.threads}, {@code soak.seconds}, {@code soak.warmupSeconds},
+ * {@code soak.catalogSize}, {@code soak.typoRate} and {@code soak.noiseRate}.</p>
+ */
+@Tag("benchmark")
+class SoakBenchmark {
+
+  @Test
+  void benchmarkSustainedLoad() throws Exception {
+    int threads = Integer.getInteger("soak.threads", Runtime.getRuntime().availableProcessors() * 2);
+    int seconds = Integer.getInteger("soak.seconds", 10);
+    int warmUpSeconds = Integer.getInteger("soak.warmupSeconds", 3);
+    int catalogSize = Integer.getInteger("soak.catalogSize", 5_000);
+    double typoRate = Double.parseDouble(System.getProperty("soak.typoRate", "0.3"));
+    double noiseRate = Double.parseDouble(System.getProperty("soak.noiseRate", "0.1"));
+
+    SyntheticCatalog catalog = new SyntheticCatalog(catalogSize, 1);
+    Normaliser normaliser = Normaliser.builder()
+        .jobTitleProvider(catalog)
+        .matchers(CatalogCompilationBenchmark.defaultMatchers())
+        .build();
+    List<String> queries = new QueryCorpus(catalog).generate(100_000, 2, typoRate, noiseRate);
+
+    LoadHarness.Report report = new LoadHarness(threads, Duration.ofSeconds(warmUpSeconds),
+        Duration.ofSeconds(seconds))
+        .run(query -> normaliser.normaliseDetailed(query).isPresent(), queries);
+
+    System.out.printf("%n%d titles, typo rate %.2f, noise rate %.2f%n%s%n",
+        catalogSize, typoRate, noiseRate, report.format());
+  }
+}
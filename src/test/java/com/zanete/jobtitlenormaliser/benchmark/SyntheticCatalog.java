@@ -0,0 +1,80 @@
+package com.zanete.jobtitlenormaliser.benchmark;
+
+import com.zanete.jobtitlenormaliser.JobTitleProvider;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates reproducible job title catalogs of arbitrary size for benchmarks.
+ */
+public class SyntheticCatalog implements JobTitleProvider {
+
+  static final List<String> PREFIXES = List.of("senior", "junior", "lead", "principal");
+
+  private static final List<String> SPECIALISMS = List.of(
+      "software", "data", "java", "python", "c#", ".net", "c++", "cloud", "security", "network",
+      "mobile", "frontend", "backend", "platform", "machine", "learning", "financial", "tax",
+      "payroll", "marketing", "sales", "product", "project", "quality", "test", "civil",
+      "mechanical", "electrical", "chemical", "clinical", "legal", "hr", "customer", "support");
+
+  private static final List<String> ROLES = List.of(
+      "engineer", "developer", "analyst", "manager", "accountant", "consultant", "architect",
+      "specialist", "administrator", "designer", "scientist", "officer", "coordinator",
+      "technician", "director", "advisor");
+
+  private final List<String> titles;
+
+  /**
+   * Creates a catalog of {@code size} distinct titles generated from the given seed.
+   */
+  public SyntheticCatalog(int size, long seed) {
+    Random random = new Random(seed);
+    Set<String> generated = new LinkedHashSet<>();
+    while (generated.size() < size) {
+      StringBuilder title = new StringBuilder();
+      int specialisms = 1 + random.nextInt(2);
+      for (int i = 0; i < specialisms; i++) {
+        title.append(SPECIALISMS.get(random.nextInt(SPECIALISMS.size()))).append(' ');
+      }
+      title.append(ROLES.get(random.nextInt(ROLES.size())));
+      // Suffix keeps large catalogs distinct once combinations run out
+      if (generated.contains(title.toString())) {
+        title.append(' ').append(Integer.toString(generated.size(), 36));
+      }
+      generated.add(capitalise(title.toString()));
+    }
+    titles = List.copyOf(generated);
+  }
+
+  /**
+   * Picks {@code count} queries derived from catalog titles, some with an ignored prefix.
+   */
+  public List<String> sampleQueries(int count, long seed) {
+    Random random = new Random(seed);
+    List<String> queries = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String title = titles.get(random.nextInt(titles.size()));
+      queries.add(random.nextBoolean()
+          ? PREFIXES.get(random.nextInt(PREFIXES.size())) + " " + title
+          : title);
+    }
+    return queries;
+  }
+
+  @Override
+  public List<String> getJobTitlePrefixesToIgnore() {
+    return PREFIXES;
+  }
+
+  @Override
+  public List<String> getNormalisedJobTitles() {
+    return titles;
+  }
+
+  private static String capitalise(String title) {
+    return Character.toUpperCase(title.charAt(0)) + title.substring(1);
+  }
+}
@@ -0,0 +1,83 @@
+package com.zanete.jobtitlenormaliser.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zanete.jobtitlenormaliser.model.CacheStatistics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+  @Test
+  @DisplayName("Computes on a miss and serves hits from the cache")
+  void testHitsAndMisses() {
+    BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+    AtomicInteger computations = new AtomicInteger();
+    Function<String, Integer> length = key -> {
+      computations.incrementAndGet();
+      return key.length();
+    };
+
+    assertEquals(5, cache.get("hello", length));
+    assertEquals(5, cache.get("hello", length));
+
+    assertEquals(1, computations.get());
+    CacheStatistics statistics = cache.getStatistics();
+    assertEquals(1, statistics.hits());
+    assertEquals(1, statistics.misses());
+    assertEquals(0.5, statistics.hitRate());
+  }
+
+  @Test
+  @DisplayName("Never holds more entries than its capacity")
+  void testBoundedSize() {
+    BoundedCache<Integer, Integer> cache = new BoundedCache<>(100);
+    IntStream.range(0, 10_000).forEach(i -> cache.get(i, key -> key));
+    assertTrue(cache.getStatistics().size() <= 100);
+  }
+
+  @Test
+  @DisplayName("Frequently used keys survive generation rotations")
+  void testHotKeysSurvive() {
+    BoundedCache<Integer, Integer> cache = new BoundedCache<>(20);
+    for (int i = 0; i < 1_000; i++) {
+      cache.get(-1, key -> key);
+      cache.get(i, key -> key);
+    }
+    assertEquals(1, cache.getStatistics().misses() - 1_000);
+  }
+
+  @Test
+  @DisplayName("clear removes entries and resets counters")
+  void testClear() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10);
+    cache.get("a", key -> key);
+    cache.clear();
+    assertEquals(new CacheStatistics(0, 0, 0, 10), cache.getStatistics());
+  }
+
+  @Test
+  @DisplayName("Throws IllegalArgumentException for a capacity below 2")
+  void testInvalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(1));
+  }
+
+  @Test
+  @DisplayName("Stores entries under the key returned by keyToStore")
+  void testKeyToStore() {
+    BoundedCache<List<String>, Integer> cache = new BoundedCache<>(10);
+    List<String> probe = new ArrayList<>(List.of("java"));
+    cache.get(probe, List::copyOf, List::size);
+    probe.add("developer");
+
+    assertEquals(1, cache.get(List.of("java"), key -> key, key -> -1));
+    assertEquals(1, cache.getStatistics().hits());
+  }
+}
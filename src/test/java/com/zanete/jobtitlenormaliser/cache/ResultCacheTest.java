@@ -0,0 +1,93 @@
+package com.zanete.jobtitlenormaliser.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResultCacheTest {
+
+  private static final Optional<MatchedTitle> MATCH =
+      Optional.of(new MatchedTitle("Software\tEngineer", 0.8123456789));
+
+  @TempDir
+  Path directory;
+
+  @Test
+  @DisplayName("Keeps matches and misses across reopening under the same fingerprint")
+  void testPersistsAcrossReopen() throws IOException {
+    Path path = directory.resolve("results");
+    AtomicInteger computed = new AtomicInteger();
+    try (ResultCache cache = ResultCache.open(path, 100)) {
+      assertFalse(cache.bind("a"));
+      assertEquals(MATCH, cache.get("software engineer", key -> count(computed, MATCH)));
+      assertEquals(Optional.empty(), cache.get("chief happiness", key -> count(computed, Optional.empty())));
+      assertEquals(MATCH, cache.get("software engineer", key -> count(computed, Optional.empty())));
+    }
+
+    try (ResultCache cache = ResultCache.open(path, 100)) {
+      assertTrue(cache.bind("a"));
+      assertEquals(2, cache.size());
+      assertEquals(MATCH, cache.get("software engineer", key -> count(computed, Optional.empty())));
+      assertEquals(Optional.empty(), cache.get("chief happiness", key -> count(computed, MATCH)));
+      assertEquals(2, computed.get());
+      assertEquals(2, cache.getStatistics().hits());
+    }
+  }
+
+  @Test
+  @DisplayName("Binding another fingerprint discards the stored results")
+  void testInvalidatesOnFingerprintChange() throws IOException {
+    Path path = directory.resolve("results");
+    try (ResultCache cache = ResultCache.open(path, 100)) {
+      cache.bind("a");
+      cache.get("software engineer", key -> MATCH);
+    }
+
+    try (ResultCache cache = ResultCache.open(path, 100)) {
+      assertFalse(cache.bind("b"));
+      assertEquals(0, cache.size());
+      assertEquals(Optional.empty(), cache.get("software engineer", key -> Optional.empty()));
+    }
+  }
+
+  @Test
+  @DisplayName("Writes in batches and stops storing results once full")
+  void testBatchesAndBound() throws IOException {
+    Path path = directory.resolve("results");
+    int maxEntries = ResultCache.FLUSH_BATCH + 10;
+    try (ResultCache cache = ResultCache.open(path, maxEntries)) {
+      cache.bind("a");
+      for (int i = 0; i < maxEntries * 2; i++) {
+        cache.get("title " + i, key -> MATCH);
+      }
+      assertEquals(maxEntries, cache.size());
+      assertEquals(maxEntries * 2, cache.getStatistics().misses());
+    }
+
+    try (ResultCache cache = ResultCache.open(path, maxEntries)) {
+      assertTrue(cache.bind("a"));
+      assertEquals(maxEntries, cache.size());
+    }
+  }
+
+  @Test
+  @DisplayName("Throws IllegalArgumentException for a non-positive size")
+  void testInvalidSize() {
+    assertThrows(IllegalArgumentException.class, () -> ResultCache.open(directory.resolve("results"), 0));
+  }
+
+  private static Optional<MatchedTitle> count(AtomicInteger computed, Optional<MatchedTitle> result) {
+    computed.incrementAndGet();
+    return result;
+  }
+}
@@ -0,0 +1,123 @@
+package com.zanete.jobtitlenormaliser.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zanete.jobtitlenormaliser.LocalJobTitleProvider;
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.cache.ResultCache;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NormaliserEventsTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  @DisplayName("Records normalise, compilation and cache events with their fields")
+  void testRecordsEvents() throws IOException, InvalidWeightsException {
+    Path dump = directory.resolve("recording.jfr");
+    try (Recording recording = new Recording();
+         ResultCache cache = ResultCache.open(directory.resolve("results"), 100)) {
+      recording.enable(NormaliseEvent.NAME);
+      recording.enable(CatalogCompilationEvent.NAME);
+      recording.enable(ResultCacheEvent.NAME);
+      recording.start();
+
+      Normaliser normaliser = Normaliser.builder()
+          .jobTitleProvider(new LocalJobTitleProvider())
+          .matchers(matchers())
+          .parallelCompilation(false)
+          .resultCache(cache)
+          .build();
+      normaliser.normalise("Senior Software Engineer");
+      normaliser.normalise("Software Engineer");
+      normaliser.normaliseUtf8("Chief Happiness Officer".getBytes(StandardCharsets.UTF_8), 0, 23);
+      cache.flush();
+
+      recording.stop();
+      recording.dump(dump);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+    RecordedEvent compilation = only(events, CatalogCompilationEvent.NAME).get(0);
+    assertEquals(2, compilation.getInt("titles"));
+    assertEquals(3, compilation.getInt("vocabularySize"));
+    assertFalse(compilation.getBoolean("parallel"));
+    assertTrue(compilation.getLong("estimatedBytes") > 0);
+
+    List<RecordedEvent> requests = only(events, NormaliseEvent.NAME);
+    assertEquals(3, requests.size());
+    RecordedEvent scored = requests.get(0);
+    assertEquals(24, scored.getInt("inputLength"));
+    assertEquals(2, scored.getInt("tokenCount"));
+    assertEquals(2, scored.getInt("candidatesScored"));
+    assertEquals(1.0, scored.getDouble("bestScore"), 1e-9);
+    assertEquals("Software engineer", scored.getString("title"));
+    assertEquals("scored", scored.getString("resolvedBy"));
+    assertTrue(scored.getDuration().toNanos() > 0);
+    assertEquals("cache", requests.get(1).getString("resolvedBy"));
+    assertEquals(0, requests.get(1).getInt("candidatesScored"));
+    assertNull(requests.get(2).getString("title"));
+    assertEquals(0.0, requests.get(2).getDouble("bestScore"));
+
+    List<String> operations = only(events, ResultCacheEvent.NAME).stream()
+        .map(event -> event.getString("operation") + ":" + event.getBoolean("hit"))
+        .toList();
+    assertEquals(List.of("bind:false", "get:false", "get:true", "get:false", "flush:false"), operations);
+  }
+
+  @Test
+  @DisplayName("Records requests resolved by the cascade with the tier that resolved them")
+  void testRecordsCascadeTiers() throws IOException, InvalidWeightsException {
+    Path dump = directory.resolve("recording.jfr");
+    Normaliser normaliser = Normaliser.builder()
+        .jobTitleProvider(new LocalJobTitleProvider())
+        .matchers(matchers())
+        .cascade(0.2, 0.8)
+        .build();
+    try (Recording recording = new Recording()) {
+      recording.enable(NormaliseEvent.NAME);
+      recording.start();
+      normaliser.normalisePreprocessed(List.of("engineer", "software"));
+      normaliser.normalise("Software Engineer Java Developer");
+      recording.stop();
+      recording.dump(dump);
+    }
+
+    List<RecordedEvent> requests = only(RecordingFile.readAllEvents(dump), NormaliseEvent.NAME);
+    assertEquals("exact", requests.get(0).getString("resolvedBy"));
+    assertEquals(-1, requests.get(0).getInt("inputLength"));
+    assertEquals(1, requests.get(0).getInt("candidatesScored"));
+    assertEquals("scored", requests.get(1).getString("resolvedBy"));
+  }
+
+  private static Matchers matchers() throws InvalidWeightsException {
+    return Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build();
+  }
+
+  private static List<RecordedEvent> only(List<RecordedEvent> events, String name) {
+    return events.stream()
+        .filter(event -> event.getEventType().getName().equals(name))
+        .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+        .toList();
+  }
+}
@@ -0,0 +1,100 @@
+package com.zanete.jobtitlenormaliser.matcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.zanete.jobtitlenormaliser.LocalJobTitleProvider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.apache.commons.text.similarity.JaroWinklerSimilarity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class BitParallelFuzzyTokenMatcherTest {
+
+  private static final JaroWinklerSimilarity REFERENCE = new JaroWinklerSimilarity();
+
+  private final BitParallelFuzzyTokenMatcher matcher = new BitParallelFuzzyTokenMatcher();
+
+  @ParameterizedTest(name = "Bit-parallel similarity of \"{0}\" and \"{1}\" matches commons-text")
+  @CsvSource({
+      "martha, marhta",
+      "dwayne, duane",
+      "dixon, dicksonx",
+      "engineer, enginer",
+      "c#, c++",
+      ".net, net",
+      "ab, ba",
+      "aaaa, aa",
+      "accountant, consultant"
+  })
+  void testKernelMatchesReference(String left, String right) {
+    assertEquals(REFERENCE.apply(left, right), TokenMasks.similarity(TokenMasks.of(left), TokenMasks.of(right)));
+    assertEquals(REFERENCE.apply(right, left), TokenMasks.similarity(TokenMasks.of(right), TokenMasks.of(left)));
+  }
+
+  @Test
+  @DisplayName("Kernel agrees with commons-text on random tokens up to 64 characters")
+  void testKernelAgreesOnRandomTokens() {
+    Random random = new Random(7);
+    for (int i = 0; i < 50_000; i++) {
+      String left = randomToken(random, 1 + random.nextInt(random.nextInt(10) == 0 ? 64 : 12));
+      String right = randomToken(random, 1 + random.nextInt(random.nextInt(10) == 0 ? 64 : 12));
+      assertEquals(REFERENCE.apply(left, right),
+          TokenMasks.similarity(TokenMasks.of(left), TokenMasks.of(right)), left + " / " + right);
+    }
+  }
+
+  @Test
+  @DisplayName("Scores token lists exactly as FuzzyTokenMatcher does")
+  void testMatchesFuzzyTokenMatcher() {
+    FuzzyTokenMatcher reference = new FuzzyTokenMatcher();
+    BitParallelFuzzyTokenMatcher precomputed = new BitParallelFuzzyTokenMatcher(new LocalJobTitleProvider());
+    Random random = new Random(11);
+    for (int i = 0; i < 5_000; i++) {
+      List<String> tokens1 = randomTokens(random);
+      List<String> tokens2 = randomTokens(random);
+      double expected = reference.calculateScore(tokens1, tokens2);
+      assertEquals(expected, matcher.calculateScore(tokens1, tokens2));
+      assertEquals(expected, precomputed.calculateScore(tokens1, tokens2));
+    }
+    assertEquals(reference.calculateScore(List.of("sofware", "enginer"), List.of("software", "engineer")),
+        precomputed.calculateScore(List.of("sofware", "enginer"), List.of("software", "engineer")));
+  }
+
+  @Test
+  @DisplayName("Falls back to scalar Jaro-Winkler for tokens over 64 characters")
+  void testLongTokens() {
+    String longToken = "a".repeat(40) + "b".repeat(40);
+    String similar = "a".repeat(40) + "c" + "b".repeat(39);
+    assertEquals(REFERENCE.apply(longToken, similar),
+        matcher.calculateScore(List.of(longToken), List.of(similar, "java")));
+  }
+
+  @Test
+  @DisplayName("Returns 0.0 when either list is empty")
+  void testEmptyLists() {
+    assertEquals(0.0, matcher.calculateScore(List.of(), List.of("java")));
+    assertEquals(0.0, matcher.calculateScore(null, null));
+  }
+
+  private static List<String> randomTokens(Random random) {
+    List<String> tokens = new ArrayList<>();
+    int count = random.nextInt(4);
+    for (int i = 0; i < count; i++) {
+      tokens.add(randomToken(random, 1 + random.nextInt(10)));
+    }
+    return tokens;
+  }
+
+  private static String randomToken(Random random, int length) {
+    StringBuilder token = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      // A small alphabet produces plenty of partial matches and transpositions
+      token.append((char) ('a' + random.nextInt(5)));
+    }
+    return token.toString();
+  }
+}
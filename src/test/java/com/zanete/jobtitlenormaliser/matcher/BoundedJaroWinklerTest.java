@@ -0,0 +1,99 @@
+package com.zanete.jobtitlenormaliser.matcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.apache.commons.text.similarity.JaroWinklerSimilarity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class BoundedJaroWinklerTest {
+
+  private static final JaroWinklerSimilarity REFERENCE = new JaroWinklerSimilarity();
+
+  private final BoundedJaroWinkler jaroWinkler = new BoundedJaroWinkler();
+
+  @ParameterizedTest(name = "Unbounded similarity of \"{0}\" and \"{1}\" matches commons-text")
+  @CsvSource({
+      "martha, marhta",
+      "dwayne, duane",
+      "dixon, dicksonx",
+      "engineer, enginer",
+      "developer, developer",
+      "c#, c++",
+      ".net, net",
+      "a, b",
+      "ab, ba",
+      "accountant, consultant"
+  })
+  void testMatchesReference(String left, String right) {
+    assertEquals(REFERENCE.apply(left, right), jaroWinkler.similarity(left, right));
+    assertEquals(REFERENCE.apply(right, left), jaroWinkler.similarity(right, left));
+    // Any character sequence scores as its string
+    assertEquals(REFERENCE.apply(left, right), jaroWinkler.similarity(new StringBuilder(left), right, -1.0));
+  }
+
+  @Test
+  @DisplayName("Empty strings score as in commons-text")
+  void testEmptyStrings() {
+    assertEquals(REFERENCE.apply("", ""), jaroWinkler.similarity("", ""));
+    assertEquals(REFERENCE.apply("", "java"), jaroWinkler.similarity("", "java"));
+  }
+
+  @Test
+  @DisplayName("Scores above the minimum are identical to commons-text; others do not exceed it")
+  void testBoundedAgreesWithReference() {
+    Random random = new Random(42);
+    for (int i = 0; i < 50_000; i++) {
+      String left = randomToken(random);
+      String right = random.nextInt(4) == 0 ? mutate(left, random) : randomToken(random);
+      double exact = REFERENCE.apply(left, right);
+      double minScore = random.nextInt(5) == 0 ? exact : random.nextDouble();
+
+      double bounded = jaroWinkler.similarity(left, right, minScore);
+      if (exact > minScore) {
+        assertEquals(exact, bounded, left + " / " + right + " > " + minScore);
+      } else {
+        assertTrue(bounded <= minScore, left + " / " + right + " <= " + minScore);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Rejects pairs whose length ratio rules out the minimum")
+  void testLengthRatioRejection() {
+    assertTrue(jaroWinkler.similarity("qa", "administrator", 0.9) <= 0.9);
+    assertEquals(REFERENCE.apply("qa", "administrator"), jaroWinkler.similarity("qa", "administrator", 0.0));
+  }
+
+  @Test
+  @DisplayName("Throws IllegalArgumentException for null strings")
+  void testNullStrings() {
+    assertThrows(IllegalArgumentException.class, () -> jaroWinkler.similarity(null, "java", 0.5));
+  }
+
+  private static String randomToken(Random random) {
+    StringBuilder token = new StringBuilder();
+    int length = 1 + random.nextInt(12);
+    for (int i = 0; i < length; i++) {
+      // A small alphabet produces plenty of partial matches and transpositions
+      token.append((char) ('a' + random.nextInt(6)));
+    }
+    return token.toString();
+  }
+
+  private static String mutate(String token, Random random) {
+    StringBuilder mutated = new StringBuilder(token);
+    int position = random.nextInt(mutated.length());
+    switch (random.nextInt(3)) {
+      case 0 -> mutated.setCharAt(position, (char) ('a' + random.nextInt(6)));
+      case 1 -> mutated.deleteCharAt(position);
+      default -> mutated.insert(position, (char) ('a' + random.nextInt(6)));
+    }
+    return mutated.toString();
+  }
+}
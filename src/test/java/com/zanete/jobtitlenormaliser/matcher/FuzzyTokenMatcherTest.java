@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.zanete.jobtitlenormaliser.Preprocessor;
+import com.zanete.jobtitlenormaliser.model.TokenAlignment;
 import java.util.List;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
@@ -131,4 +132,18 @@ class FuzzyTokenMatcherTest {
   void testLongTokensDoNotBreakFunction(List<String> longTokenList) {
     assertDoesNotThrow(() -> matcher.calculateScore(longTokenList, tokens("developer")));
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("Aligns each token with its best match, averaging to the score")
+  void testAlign() {
+    List<String> input = tokens("sofware", "enginer", "java");
+    List<String> title = tokens("software", "engineer");
+    List<TokenAlignment> alignments = matcher.align(input, title);
+
+    assertEquals(List.of("software", "engineer", "software"),
+        alignments.stream().map(TokenAlignment::titleToken).toList());
+    assertEquals(matcher.calculateScore(input, title),
+        alignments.stream().mapToDouble(TokenAlignment::similarity).sum() / alignments.size(), 1e-12);
+    assertTrue(matcher.align(tokens(), title).isEmpty());
+  }
+}
@@ -0,0 +1,131 @@
+package com.zanete.jobtitlenormaliser.matcher;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zanete.jobtitlenormaliser.Preprocessor;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TfIdfCosineMatcherTest {
+  private static final List<String> CATALOG = List.of(
+      "Software engineer", "Data engineer", "Civil engineer", "Java developer",
+      "Accountant", "Engineering manager", "Product manager");
+
+  private final Preprocessor preprocessor =
+      new Preprocessor(List.of("senior", "junior", "lead", "principal"));
+  private final TfIdfCosineMatcher matcher = new TfIdfCosineMatcher(preprocessor, CATALOG);
+
+  private static List<String> tokens(String... items) {
+    return List.of(items);
+  }
+
+  @Test
+  @DisplayName("Returns perfect score (1.0) for identical token lists")
+  void testIdenticalTokensReturnPerfectScore() {
+    List<String> input = preprocessor.preprocess("software engineer");
+    assertEquals(1.0, matcher.calculateScore(input, input), 0.0001);
+  }
+
+  @Test
+  @DisplayName("Returns 0.0 when one or both lists are empty")
+  void testEmptyListsReturnZero() {
+    assertEquals(0.0, matcher.calculateScore(tokens(), tokens()));
+    assertEquals(0.0, matcher.calculateScore(tokens("java"), tokens()));
+    assertEquals(0.0, matcher.calculateScore(tokens(), tokens("python")));
+  }
+
+  @Test
+  @DisplayName("Handles null input lists defensively")
+  void testNullListsHandledSafely() {
+    assertDoesNotThrow(() -> matcher.calculateScore(null, null));
+  }
+
+  @Test
+  @DisplayName("Common tokens weigh less than rare tokens")
+  void testCommonTokensWeighLess() {
+    assertTrue(matcher.idf("engineer") < matcher.idf("software"));
+    assertTrue(matcher.idf("software") < matcher.idf("unseen"));
+
+    double sharedCommon = matcher.calculateScore(tokens("java", "engineer"), tokens("software", "engineer"));
+    double sharedRare = matcher.calculateScore(tokens("software", "tester"), tokens("software", "engineer"));
+    assertTrue(sharedRare > sharedCommon,
+        "Sharing a rare token should score higher than sharing a common one");
+  }
+
+  @Test
+  @DisplayName("topK returns titles ordered by score, matching calculateScore")
+  void testTopKMatchesPairwiseScores() {
+    List<String> query = preprocessor.preprocess("Senior software engineer");
+    List<MatchedTitle> result = matcher.topK(query, 3);
+
+    assertEquals(3, result.size());
+    assertEquals("Software engineer", result.get(0).title());
+    assertEquals(1.0, result.get(0).overallScore(), 0.0001);
+    for (MatchedTitle match : result) {
+      double expected = matcher.calculateScore(query, preprocessor.preprocess(match.title()));
+      assertEquals(expected, match.overallScore(), 1e-9);
+    }
+  }
+
+  @Test
+  @DisplayName("topK respects the minimum score")
+  void testTopKMinScore() {
+    List<MatchedTitle> result = matcher.topK(tokens("data", "engineer"), 10, 0.5);
+    assertTrue(result.stream().allMatch(match -> match.overallScore() >= 0.5));
+    assertEquals("Data engineer", result.get(0).title());
+  }
+
+  @Test
+  @DisplayName("topK returns nothing for unknown or empty queries")
+  void testTopKNoOverlap() {
+    assertTrue(matcher.topK(tokens("astronaut"), 5).isEmpty());
+    assertTrue(matcher.topK(tokens(), 5).isEmpty());
+    assertTrue(matcher.topK(null, 5).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Pruned topK agrees with exhaustive scoring on a synthetic catalog")
+  void testTopKAgreesWithBruteForce() {
+    Random random = new Random(42);
+    List<String> vocabulary = IntStream.range(0, 60).mapToObj(i -> "w" + i).toList();
+    List<String> catalog = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      // Skew token choice so a few tokens are very common
+      int length = 1 + random.nextInt(4);
+      List<String> words = new ArrayList<>();
+      for (int j = 0; j < length; j++) {
+        int index = (int) Math.floor(Math.pow(random.nextDouble(), 3) * vocabulary.size());
+        words.add(vocabulary.get(index));
+      }
+      catalog.add(String.join(" ", words));
+    }
+    TfIdfCosineMatcher syntheticMatcher = new TfIdfCosineMatcher(preprocessor, catalog);
+
+    for (int q = 0; q < 50; q++) {
+      List<String> query = List.of(vocabulary.get(random.nextInt(vocabulary.size())),
+          vocabulary.get(random.nextInt(10)));
+      List<Double> expected = catalog.stream()
+          .map(title -> syntheticMatcher.calculateScore(query, preprocessor.preprocess(title)))
+          .filter(score -> score > 0)
+          .sorted(Comparator.reverseOrder())
+          .limit(5)
+          .toList();
+      List<Double> actual = syntheticMatcher.topK(query, 5).stream()
+          .map(MatchedTitle::overallScore)
+          .toList();
+
+      assertEquals(expected.size(), actual.size());
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals(expected.get(i), actual.get(i), 1e-9);
+      }
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.zanete.jobtitlenormaliser.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.benchmark.SyntheticCatalog;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import com.zanete.jobtitlenormaliser.model.PipelineReport;
+import com.zanete.jobtitlenormaliser.model.StageStatistics;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+class BulkPipelineTest {
+
+  private static final SyntheticCatalog CATALOG = new SyntheticCatalog(200, 3);
+
+  @TempDir
+  Path directory;
+
+  private Normaliser normaliser;
+  private Path input;
+  private List<String> lines;
+
+  @BeforeEach
+  void setup() throws InvalidWeightsException, IOException {
+    normaliser = new Normaliser(CATALOG, Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build());
+    lines = new ArrayList<>(CATALOG.sampleQueries(500, 4));
+    lines.add("Chief Happiness Officer");
+    lines.add("");
+    input = Files.write(directory.resolve("input.txt"), lines);
+  }
+
+  @Test
+  @DisplayName("Writes one result per input line, in input order")
+  void testWritesResultsInOrder() throws IOException, InterruptedException {
+    Path output = directory.resolve("output.tsv");
+    PipelineReport report = BulkPipeline.builder(normaliser)
+        .tokeniserWorkers(2)
+        .scorerWorkers(3)
+        .queueCapacity(8)
+        .build()
+        .run(input, output);
+
+    List<String> written = Files.readAllLines(output);
+    assertEquals(lines.size(), written.size());
+    for (int i = 0; i < lines.size(); i++) {
+      String expectedTitle = normaliser.normaliseDetailed(lines.get(i)).map(MatchedTitle::title).orElse("");
+      double expectedScore = normaliser.normaliseDetailed(lines.get(i))
+          .map(MatchedTitle::overallScore).orElse(0.0);
+      assertEquals(String.format(Locale.ROOT, "%s\t%s\t%.4f", lines.get(i), expectedTitle, expectedScore),
+          written.get(i));
+    }
+
+    assertEquals(List.of("read", "tokenise", "score", "write"),
+        report.stages().stream().map(StageStatistics::name).toList());
+    for (StageStatistics stage : report.stages()) {
+      assertEquals(lines.size(), stage.items(), stage.name());
+      assertTrue(stage.averageQueueOccupancy() <= stage.queueCapacity(), stage.name());
+    }
+    assertEquals(3, report.stages().get(2).workers());
+    assertFalse(report.format().isBlank());
+  }
+
+  @Test
+  @DisplayName("Reports progress while running")
+  void testReportsProgress() throws IOException, InterruptedException, InvalidWeightsException {
+    List<PipelineReport> progress = new CopyOnWriteArrayList<>();
+    Normaliser slowScoring = new Normaliser(CATALOG, Matchers.builder()
+        .addMatcher((tokens1, tokens2) -> {
+          sleepQuietly();
+          return 0.0;
+        }, 1.0)
+        .build());
+    Files.write(input, lines.subList(0, 3));
+
+    BulkPipeline.builder(slowScoring)
+        .progressListener(Duration.ofMillis(50), progress::add)
+        .build()
+        .run(input, directory.resolve("output.tsv"));
+
+    assertFalse(progress.isEmpty());
+  }
+
+  @Test
+  @DisplayName("A failing stage stops the pipeline and surfaces the error")
+  void testFailurePropagates() throws InvalidWeightsException {
+    Normaliser failing = new Normaliser(CATALOG, Matchers.builder()
+        .addMatcher((tokens1, tokens2) -> {
+          throw new IllegalStateException("boom");
+        }, 1.0)
+        .build());
+
+    assertThrows(IllegalStateException.class, () -> BulkPipeline.builder(failing)
+        .queueCapacity(4)
+        .build()
+        .run(input, directory.resolve("output.tsv")));
+  }
+
+  @Test
+  @Timeout(30)
+  @DisplayName("An error thrown by a worker stops the pipeline instead of hanging it")
+  void testErrorPropagates() throws InvalidWeightsException {
+    Normaliser failing = new Normaliser(CATALOG, Matchers.builder()
+        .addMatcher((tokens1, tokens2) -> {
+          throw new StackOverflowError("boom");
+        }, 1.0)
+        .build());
+
+    assertThrows(StackOverflowError.class, () -> BulkPipeline.builder(failing)
+        .queueCapacity(4)
+        .build()
+        .run(input, directory.resolve("output.tsv")));
+  }
+
+  @Test
+  @DisplayName("Throws IllegalArgumentException for non-positive worker counts")
+  void testInvalidWorkers() {
+    assertThrows(IllegalArgumentException.class,
+        () -> BulkPipeline.builder(normaliser).scorerWorkers(0));
+  }
+
+  private static void sleepQuietly() {
+    try {
+      Thread.sleep(1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package com.zanete.jobtitlenormaliser.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.benchmark.SyntheticCatalog;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import com.zanete.jobtitlenormaliser.model.DedupReport;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DedupBatchNormaliserTest {
+
+  private static final SyntheticCatalog CATALOG = new SyntheticCatalog(200, 3);
+
+  @TempDir
+  Path directory;
+
+  private Normaliser normaliser;
+  private Path input;
+  private List<String> lines;
+
+  @BeforeEach
+  void setup() throws InvalidWeightsException, IOException {
+    normaliser = new Normaliser(CATALOG, Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build());
+    // Each query three times over, plus variants preprocessing to the same key
+    List<String> queries = CATALOG.sampleQueries(100, 4);
+    lines = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      lines.addAll(queries);
+    }
+    lines.add(queries.get(0).toUpperCase(Locale.ROOT));
+    lines.add("Chief Happiness Officer");
+    lines.add("");
+    lines.add("\t");
+    input = Files.write(directory.resolve("input.txt"), lines);
+  }
+
+  @Test
+  @DisplayName("Spilling and merging in many passes writes the same results, in input order")
+  void testSpilledMatchesInMemory() throws IOException, InterruptedException {
+    Path spill = Files.createDirectory(directory.resolve("spill"));
+    Path output = directory.resolve("output.tsv");
+    DedupReport report = DedupBatchNormaliser.builder(normaliser)
+        .runRecords(17)
+        .mergeFanIn(3)
+        .windowRecords(5)
+        .workers(3)
+        .spillDirectory(spill)
+        .build()
+        .run(input, output);
+
+    List<String> written = Files.readAllLines(output);
+    assertEquals(lines.size(), written.size());
+    for (int i = 0; i < lines.size(); i++) {
+      Optional<MatchedTitle> match = normaliser.normaliseDetailed(lines.get(i));
+      assertEquals(String.format(Locale.ROOT, "%s\t%s\t%.4f", lines.get(i).replace('\t', ' '),
+          match.map(MatchedTitle::title).orElse(""),
+          match.map(MatchedTitle::overallScore).orElse(0.0)), written.get(i));
+    }
+
+    Path inMemory = directory.resolve("in-memory.tsv");
+    DedupReport inMemoryReport = DedupBatchNormaliser.builder(normaliser).build().run(input, inMemory);
+    assertEquals(written, Files.readAllLines(inMemory));
+    assertEquals(0, inMemoryReport.runs());
+
+    // Spilled runs exceed the fan-in, so some were merged into longer runs first
+    assertTrue(report.runs() > lines.size() / 17 * 2);
+    assertEquals(lines.size(), report.rows());
+    assertEquals(report.uniqueKeys(), inMemoryReport.uniqueKeys());
+    assertTrue(report.bytesRead() > inMemoryReport.bytesRead());
+    assertFalse(report.format().isBlank());
+    try (Stream<Path> left = Files.list(spill)) {
+      assertEquals(0, left.count());
+    }
+  }
+
+  @Test
+  @DisplayName("Normalises each distinct key once and reports the unique-key ratio")
+  void testNormalisesEachKeyOnce() throws IOException, InterruptedException, InvalidWeightsException {
+    AtomicInteger scored = new AtomicInteger();
+    Normaliser counting = new Normaliser(CATALOG, Matchers.builder()
+        .addMatcher((tokens1, tokens2) -> {
+          scored.incrementAndGet();
+          return 0.0;
+        }, 1.0)
+        .build());
+    Set<List<String>> keys = new HashSet<>();
+    lines.forEach(line -> keys.add(normaliser.preprocess(line)));
+
+    DedupReport report = DedupBatchNormaliser.builder(counting)
+        .runRecords(50)
+        .windowRecords(7)
+        .build()
+        .run(input, directory.resolve("output.tsv"));
+
+    assertEquals(keys.size(), report.uniqueKeys());
+    assertEquals((double) keys.size() / lines.size(), report.uniqueKeyRatio(), 1e-9);
+    assertEquals(keys.size() * CATALOG.getNormalisedJobTitles().size(), scored.get());
+  }
+
+  @Test
+  @DisplayName("A failing normalisation surfaces the error and removes spilled runs")
+  void testFailurePropagates() throws InvalidWeightsException, IOException {
+    Normaliser failing = new Normaliser(CATALOG, Matchers.builder()
+        .addMatcher((tokens1, tokens2) -> {
+          throw new IllegalStateException("boom");
+        }, 1.0)
+        .build());
+    Path spill = Files.createDirectory(directory.resolve("spill"));
+
+    assertThrows(IllegalStateException.class, () -> DedupBatchNormaliser.builder(failing)
+        .runRecords(10)
+        .spillDirectory(spill)
+        .build()
+        .run(input, directory.resolve("output.tsv")));
+    try (Stream<Path> left = Files.list(spill)) {
+      assertEquals(0, left.count());
+    }
+  }
+
+  @Test
+  @DisplayName("Throws IllegalArgumentException for invalid sizes")
+  void testInvalidSizes() {
+    assertThrows(IllegalArgumentException.class,
+        () -> DedupBatchNormaliser.builder(normaliser).runRecords(0));
+    assertThrows(IllegalArgumentException.class,
+        () -> DedupBatchNormaliser.builder(normaliser).mergeFanIn(1));
+  }
+}
@@ -0,0 +1,64 @@
+package com.zanete.jobtitlenormaliser.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ExternalSorterTest {
+
+  private static final ExternalSorter.Codec<String> STRINGS = new ExternalSorter.Codec<>() {
+    @Override
+    public void write(DataOutputStream out, String value) throws IOException {
+      ExternalSorter.writeString(out, value);
+    }
+
+    @Override
+    public String read(DataInputStream in) throws IOException {
+      return ExternalSorter.readString(in);
+    }
+  };
+
+  @TempDir
+  Path directory;
+
+  @ParameterizedTest(name = "{0} records, runs of {1}, fan-in {2}")
+  @CsvSource({"0, 10, 2", "9, 10, 2", "10, 10, 2", "1000, 10, 2", "1000, 7, 5", "1000, 1000, 64"})
+  void testSortsAndCleansUp(int count, int runRecords, int fanIn) throws IOException {
+    Random random = new Random(count);
+    List<String> values = new ArrayList<>();
+    ExternalSorter<String> sorter = new ExternalSorter<>(directory, "test",
+        Comparator.naturalOrder(), STRINGS, runRecords, fanIn);
+    for (int i = 0; i < count; i++) {
+      String value = "ü" + random.nextInt(count);
+      values.add(value);
+      sorter.add(value);
+    }
+
+    List<String> sorted = new ArrayList<>();
+    try (ExternalSorter.Sorted<String> merged = sorter.sorted()) {
+      String value;
+      while ((value = merged.next()) != null) {
+        sorted.add(value);
+      }
+    }
+
+    values.sort(Comparator.naturalOrder());
+    assertEquals(values, sorted);
+    try (Stream<Path> left = Files.list(directory)) {
+      assertEquals(0, left.count());
+    }
+    assertEquals(sorter.bytesWritten() == 0, sorter.runsWritten() == 0);
+  }
+}
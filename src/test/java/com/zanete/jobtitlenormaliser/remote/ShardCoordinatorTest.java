@@ -0,0 +1,217 @@
+package com.zanete.jobtitlenormaliser.remote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zanete.jobtitlenormaliser.FileJobTitleProvider;
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.benchmark.SyntheticCatalog;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.matcher.Matcher;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import com.zanete.jobtitlenormaliser.model.GatheredMatches;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ShardCoordinatorTest {
+
+  private static final int SHARD_COUNT = 3;
+  private static final SyntheticCatalog CATALOG = new SyntheticCatalog(300, 11);
+
+  @TempDir
+  Path directory;
+
+  private FileJobTitleProvider provider;
+  private Normaliser unsharded;
+  private Path titlesFile;
+  private Path prefixesFile;
+  private final List<AutoCloseable> resources = new ArrayList<>();
+  private final List<Process> processes = new ArrayList<>();
+
+  @BeforeEach
+  void setup() throws IOException, InvalidWeightsException {
+    titlesFile = Files.write(directory.resolve("titles.txt"), CATALOG.getNormalisedJobTitles());
+    prefixesFile = Files.write(directory.resolve("prefixes.txt"), CATALOG.getJobTitlePrefixesToIgnore());
+    provider = new FileJobTitleProvider(prefixesFile, titlesFile);
+    unsharded = new Normaliser(provider, defaultMatchers());
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    for (AutoCloseable resource : resources) {
+      resource.close();
+    }
+    processes.forEach(Process::destroyForcibly);
+  }
+
+  @Test
+  @DisplayName("Merged results from in-process shards equal the unsharded normaliser")
+  void testInProcessShardsMatchUnsharded() throws Exception {
+    List<InetSocketAddress> addresses = new ArrayList<>();
+    for (int i = 0; i < SHARD_COUNT; i++) {
+      addresses.add(startServer(new Normaliser(provider.shard(i, SHARD_COUNT), defaultMatchers())));
+    }
+    ShardCoordinator coordinator = coordinator(addresses, Duration.ofSeconds(5));
+
+    for (String query : CATALOG.sampleQueries(30, 3)) {
+      GatheredMatches result = coordinator.normaliseTopK(query, 5);
+      assertFalse(result.isPartial());
+      assertEquals(unsharded.normaliseTopK(query, 5), result.matches(), query);
+      assertEquals(unsharded.normalise(query), coordinator.normalise(query), query);
+    }
+  }
+
+  @Test
+  @DisplayName("Shard processes on localhost serve merged results and tolerate a dead shard")
+  void testShardProcesses() throws Exception {
+    List<InetSocketAddress> addresses = new ArrayList<>();
+    for (int i = 0; i < SHARD_COUNT; i++) {
+      addresses.add(startProcess(i));
+    }
+    ShardCoordinator coordinator = coordinator(addresses, Duration.ofSeconds(5));
+
+    for (String query : CATALOG.sampleQueries(20, 5)) {
+      GatheredMatches result = coordinator.normaliseTopK(query, 3);
+      assertFalse(result.isPartial());
+      assertEquals(unsharded.normaliseTopK(query, 3), result.matches(), query);
+    }
+
+    processes.get(1).destroyForcibly().waitFor();
+    String query = CATALOG.getNormalisedJobTitles().get(0);
+    GatheredMatches result = coordinator.normaliseTopK(query, 3);
+    assertTrue(result.isPartial());
+    assertEquals(SHARD_COUNT - 1, result.shardsAnswered());
+    assertEquals(query, result.best().orElseThrow().title());
+  }
+
+  @Test
+  @DisplayName("Slow shards time out and the fast shards' results are returned")
+  void testSlowShardTimesOut() throws Exception {
+    Matcher slowMatcher = (tokens1, tokens2) -> {
+      try {
+        Thread.sleep(2_000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return 1.0;
+    };
+    InetSocketAddress fast =
+        startServer(new Normaliser(provider.shard(0, 2), defaultMatchers()));
+    InetSocketAddress slow = startServer(new Normaliser(provider.shard(1, 2),
+        Matchers.builder().addMatcher(slowMatcher, 1.0).build()));
+    ShardCoordinator coordinator = coordinator(List.of(fast, slow), Duration.ofMillis(300));
+
+    String query = CATALOG.getNormalisedJobTitles().get(0);
+    long start = System.nanoTime();
+    GatheredMatches result = coordinator.normaliseTopK(query, 1);
+
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1_500);
+    assertTrue(result.isPartial());
+    assertEquals(1, result.shardsAnswered());
+    assertEquals(query, result.best().orElseThrow().title());
+  }
+
+  @Test
+  @DisplayName("Unreachable shards produce an empty partial result")
+  void testUnreachableShard() throws IOException {
+    int closedPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      closedPort = socket.getLocalPort();
+    }
+    ShardCoordinator coordinator = coordinator(
+        List.of(new InetSocketAddress("localhost", closedPort)), Duration.ofSeconds(1));
+
+    GatheredMatches result = coordinator.normaliseTopK("Software engineer", 1);
+
+    assertTrue(result.isPartial());
+    assertEquals(0, result.shardsAnswered());
+    assertEquals("", coordinator.normalise("Software engineer"));
+  }
+
+  @Test
+  @DisplayName("A request for fewer than one match closes the connection and the server keeps serving")
+  void testInvalidCountRejected() throws IOException {
+    InetSocketAddress address = startServer(unsharded);
+    try (Socket socket = new Socket(address.getAddress(), address.getPort());
+         DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+         DataInputStream in = new DataInputStream(socket.getInputStream())) {
+      ShardProtocol.writeRequest(out, "Software engineer", -1);
+      assertEquals(-1, in.read());
+    }
+
+    ShardCoordinator coordinator = coordinator(List.of(address), Duration.ofSeconds(5));
+    assertEquals(1, coordinator.normaliseTopK(CATALOG.getNormalisedJobTitles().get(0), 1).shardsAnswered());
+  }
+
+  @Test
+  @DisplayName("Throws IllegalArgumentException for k below 1 without querying shards")
+  void testInvalidCount() throws IOException {
+    ShardServer server = new ShardServer(unsharded, 0);
+    resources.add(server);
+    // Not started, so a request reaching the shard would time out instead of throwing
+    ShardCoordinator coordinator = coordinator(
+        List.of(new InetSocketAddress("localhost", server.getPort())), Duration.ofSeconds(5));
+
+    assertThrows(IllegalArgumentException.class, () -> coordinator.normaliseTopK("Software engineer", 0));
+    assertThrows(IllegalArgumentException.class, () -> coordinator.normaliseTopK("Software engineer", -1));
+  }
+
+  private InetSocketAddress startServer(Normaliser normaliser) throws IOException {
+    ShardServer server = new ShardServer(normaliser, 0).start();
+    resources.add(server);
+    return new InetSocketAddress("localhost", server.getPort());
+  }
+
+  private InetSocketAddress startProcess(int shardIndex) throws IOException {
+    Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+    Process process = new ProcessBuilder(java.toString(),
+        "-cp", System.getProperty("java.class.path"),
+        ShardServer.class.getName(), "0", titlesFile.toString(), prefixesFile.toString(),
+        String.valueOf(shardIndex), String.valueOf(SHARD_COUNT))
+        .redirectError(ProcessBuilder.Redirect.DISCARD)
+        .start();
+    processes.add(process);
+
+    BufferedReader reader = new BufferedReader(
+        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+    String line = reader.readLine();
+    assertNotNull(line, "Shard process exited before listening");
+    int port = Integer.parseInt(line.substring("Listening on port ".length()).trim());
+    return new InetSocketAddress("localhost", port);
+  }
+
+  private ShardCoordinator coordinator(List<InetSocketAddress> addresses, Duration timeout) {
+    ShardCoordinator coordinator = new ShardCoordinator(addresses, timeout);
+    resources.add(coordinator);
+    return coordinator;
+  }
+
+  private static Matchers defaultMatchers() throws InvalidWeightsException {
+    return Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build();
+  }
+}
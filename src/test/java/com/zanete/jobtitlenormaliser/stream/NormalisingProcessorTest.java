@@ -0,0 +1,301 @@
+package com.zanete.jobtitlenormaliser.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zanete.jobtitlenormaliser.LocalJobTitleProvider;
+import com.zanete.jobtitlenormaliser.Normaliser;
+import com.zanete.jobtitlenormaliser.matcher.CosineSimilarityMatcher;
+import com.zanete.jobtitlenormaliser.matcher.FuzzyTokenMatcher;
+import com.zanete.jobtitlenormaliser.matcher.InvalidWeightsException;
+import com.zanete.jobtitlenormaliser.matcher.Matchers;
+import com.zanete.jobtitlenormaliser.model.MatchedTitle;
+import com.zanete.jobtitlenormaliser.model.NormalisationResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class NormalisingProcessorTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Normalises every title in input order")
+  void testNormalisesInOrder() throws InvalidWeightsException, InterruptedException {
+    Normaliser normaliser = new Normaliser(new LocalJobTitleProvider(), Matchers.builder()
+        .addMatcher(new FuzzyTokenMatcher(), 0.4)
+        .addMatcher(new CosineSimilarityMatcher(), 0.6)
+        .build());
+    NormalisingProcessor processor = new NormalisingProcessor(normaliser, executor, 4, true);
+    RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    processor.subscribe(subscriber);
+    new ListPublisher(List.of("Senior Software Engineer", "Chief Happiness Officer", "Lead accountant"))
+        .subscribe(processor);
+
+    subscriber.awaitTermination();
+    assertEquals(List.of("Software engineer", "", "Accountant"),
+        subscriber.results.stream().map(NormalisationResult::title).toList());
+    assertEquals("Chief Happiness Officer", subscriber.results.get(1).input());
+    assertTrue(subscriber.completed);
+  }
+
+  @Test
+  @DisplayName("Requests no more from upstream than the subscriber demanded")
+  void testHonoursDownstreamDemand() throws InterruptedException {
+    NormalisingProcessor processor = new NormalisingProcessor(echo(0), executor, 8, true);
+    ListPublisher publisher = new ListPublisher(titles(100));
+    RecordingSubscriber subscriber = new RecordingSubscriber(3);
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+
+    subscriber.awaitResults(3);
+    Thread.sleep(50);
+    assertEquals(3, publisher.requested.get());
+    assertEquals(3, subscriber.results.size());
+
+    subscriber.subscription.request(5);
+    subscriber.awaitResults(8);
+    Thread.sleep(50);
+    assertEquals(8, publisher.requested.get());
+  }
+
+  @Test
+  @DisplayName("Never holds more than maxInFlight titles, and keeps order when asked")
+  void testBoundedParallelismPreservingOrder() throws InterruptedException {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    Function<String, Optional<MatchedTitle>> slow = title -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      sleep(ThreadLocalRandom.current().nextInt(3));
+      running.decrementAndGet();
+      return Optional.of(new MatchedTitle(title, 1.0));
+    };
+    NormalisingProcessor processor = new NormalisingProcessor(slow, executor, 3, true);
+    RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    processor.subscribe(subscriber);
+    new ListPublisher(titles(200)).subscribe(processor);
+
+    subscriber.awaitTermination();
+    assertTrue(maxRunning.get() <= 3, "Ran " + maxRunning.get() + " titles at once");
+    assertEquals(titles(200), subscriber.results.stream().map(NormalisationResult::title).toList());
+    assertEquals(0, processor.getInFlightCount());
+    assertEquals(0, processor.getBufferedCount());
+  }
+
+  @Test
+  @DisplayName("Unordered mode delivers every result")
+  void testUnorderedDeliversAll() throws InterruptedException {
+    NormalisingProcessor processor = new NormalisingProcessor(echo(2), executor, 6, false);
+    RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    processor.subscribe(subscriber);
+    new ListPublisher(titles(100)).subscribe(processor);
+
+    subscriber.awaitTermination();
+    List<String> received = new ArrayList<>(
+        subscriber.results.stream().map(NormalisationResult::title).toList());
+    Collections.sort(received);
+    List<String> expected = new ArrayList<>(titles(100));
+    Collections.sort(expected);
+    assertEquals(expected, received);
+  }
+
+  @Test
+  @DisplayName("A failing normalisation cancels upstream and signals the error")
+  void testFailurePropagates() throws InterruptedException {
+    NormalisingProcessor processor = new NormalisingProcessor(title -> {
+      throw new IllegalStateException("boom");
+    }, executor, 2, true);
+    ListPublisher publisher = new ListPublisher(titles(10));
+    RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+
+    subscriber.awaitTermination();
+    assertInstanceOf(IllegalStateException.class, subscriber.error);
+    assertTrue(publisher.cancelled);
+  }
+
+  @Test
+  @DisplayName("An error thrown by normalisation terminates the stream instead of hanging it")
+  void testErrorPropagates() throws InterruptedException {
+    NormalisingProcessor processor = new NormalisingProcessor(title -> {
+      throw new StackOverflowError("boom");
+    }, executor, 2, true);
+    ListPublisher publisher = new ListPublisher(titles(10));
+    RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+
+    subscriber.awaitTermination();
+    assertInstanceOf(StackOverflowError.class, subscriber.error);
+    assertTrue(publisher.cancelled);
+  }
+
+  @Test
+  @DisplayName("A rejecting executor cancels upstream and signals the rejection")
+  void testRejectedExecution() throws InterruptedException {
+    NormalisingProcessor processor = new NormalisingProcessor(echo(0), runnable -> {
+      throw new RejectedExecutionException("shut down");
+    }, 2, true);
+    ListPublisher publisher = new ListPublisher(titles(10));
+    RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+
+    subscriber.awaitTermination();
+    assertInstanceOf(RejectedExecutionException.class, subscriber.error);
+    assertTrue(publisher.cancelled);
+    assertEquals(0, processor.getInFlightCount());
+  }
+
+  @Test
+  @DisplayName("Throws NullPointerException for a null title")
+  void testNullTitle() {
+    NormalisingProcessor processor = new NormalisingProcessor(echo(0), executor, 2, true);
+    assertThrows(NullPointerException.class, () -> processor.onNext(null));
+  }
+
+  @Test
+  @DisplayName("A second subscriber is rejected")
+  void testSingleSubscriber() throws InterruptedException {
+    NormalisingProcessor processor = new NormalisingProcessor(echo(0), executor, 2, true);
+    processor.subscribe(new RecordingSubscriber(1));
+    RecordingSubscriber second = new RecordingSubscriber(1);
+    processor.subscribe(second);
+
+    second.awaitTermination();
+    assertInstanceOf(IllegalStateException.class, second.error);
+  }
+
+  @Test
+  @DisplayName("Throws IllegalArgumentException for maxInFlight below 1")
+  void testInvalidMaxInFlight() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new NormalisingProcessor(echo(0), executor, 0, true));
+  }
+
+  private static Function<String, Optional<MatchedTitle>> echo(int maxDelayMillis) {
+    return title -> {
+      sleep(maxDelayMillis == 0 ? 0 : ThreadLocalRandom.current().nextInt(maxDelayMillis + 1));
+      return Optional.of(new MatchedTitle(title, 1.0));
+    };
+  }
+
+  private static List<String> titles(int count) {
+    return IntStream.range(0, count).mapToObj(i -> "title " + i).toList();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Emits list items only as requested, recording the total demand it received.
+   */
+  private static class ListPublisher implements Flow.Publisher<String> {
+    private final List<String> items;
+    private final AtomicLong requested = new AtomicLong();
+    private volatile boolean cancelled;
+    private int position;
+
+    ListPublisher(List<String> items) {
+      this.items = items;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super String> subscriber) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        @Override
+        public synchronized void request(long n) {
+          requested.addAndGet(n);
+          for (long i = 0; i < n && position < items.size() && !cancelled; i++) {
+            subscriber.onNext(items.get(position++));
+          }
+          if (position == items.size() && !cancelled) {
+            position++;
+            subscriber.onComplete();
+          }
+        }
+
+        @Override
+        public void cancel() {
+          cancelled = true;
+        }
+      });
+    }
+  }
+
+  private static class RecordingSubscriber implements Flow.Subscriber<NormalisationResult> {
+    private final long initialRequest;
+    private final List<NormalisationResult> results = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile Flow.Subscription subscription;
+    private volatile boolean completed;
+    private volatile Throwable error;
+
+    RecordingSubscriber(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(initialRequest);
+    }
+
+    @Override
+    public void onNext(NormalisationResult item) {
+      results.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+      terminated.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+      terminated.countDown();
+    }
+
+    void awaitTermination() throws InterruptedException {
+      assertTrue(terminated.await(10, TimeUnit.SECONDS), "Stream did not terminate");
+    }
+
+    void awaitResults(int count) throws InterruptedException {
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (results.size() < count && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+      assertEquals(count, results.size());
+    }
+  }
+}